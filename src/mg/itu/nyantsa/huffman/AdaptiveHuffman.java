@@ -0,0 +1,250 @@
+package huffman;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Arbre de Huffman adaptatif (algorithme de Vitter) sur les 256 valeurs d'octets.
+ *
+ * L'émetteur et le récepteur partent du même arbre (un seul nœud d'échappement NYT, « pas encore
+ * transmis ») et le mettent à jour de la même façon après chaque symbole : aucune table n'est
+ * transmise. Un octet jamais vu est codé par le code du nœud NYT suivi de ses 8 bits bruts.
+ *
+ * Les nœuds sont rangés dans des tableaux indexés par leur numéro d'ordre implicite : le poids
+ * croît avec le numéro, les feuilles précèdent les nœuds internes de même poids, et la racine a
+ * le plus grand numéro. Une case représente une position dans l'arbre (son parent ne change pas) ;
+ * échanger deux nœuds revient à échanger le contenu de deux cases, ce qui déplace les sous-arbres
+ * en O(1). Glisser un nœud devant un bloc se fait par échanges successifs de cases voisines.
+ */
+public final class AdaptiveHuffman {
+
+    public static final int TAILLE_ALPHABET = 256;
+    static final int BITS_SYMBOLE = 8;
+
+    /** 256 feuilles, le nœud NYT et 256 nœuds internes. */
+    private static final int NOEUDS = 2 * TAILLE_ALPHABET + 1;
+    private static final int RACINE = NOEUDS - 1;
+    private static final int AUCUN = -1;
+
+    private final long[] poids = new long[NOEUDS];
+    private final int[] parent = new int[NOEUDS];
+    /** Enfants d'un nœud interne (AUCUN pour une feuille). */
+    private final int[] gauche = new int[NOEUDS];
+    private final int[] droite = new int[NOEUDS];
+    /** Symbole d'une feuille, AUCUN pour le NYT et les nœuds internes. */
+    private final int[] symbole = new int[NOEUDS];
+    /** Case de la feuille de chaque symbole, AUCUN s'il n'a pas encore été vu. */
+    private final int[] feuille = new int[TAILLE_ALPHABET];
+
+    private int nyt = RACINE;
+
+    public AdaptiveHuffman() {
+        Arrays.fill(feuille, AUCUN);
+        parent[RACINE] = AUCUN;
+        gauche[RACINE] = AUCUN;
+        droite[RACINE] = AUCUN;
+        symbole[RACINE] = AUCUN;
+    }
+
+    /**
+     * Encode des données en mémoire (format de {@link AdaptiveHuffmanOutputStream}).
+     */
+    public static byte[] encoder(byte[] donnees) {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(donnees.length / 2 + 16);
+        try (AdaptiveHuffmanOutputStream encodeur = new AdaptiveHuffmanOutputStream(sortie)) {
+            encodeur.write(donnees);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sortie.toByteArray();
+    }
+
+    public static byte[] decoder(byte[] encode) {
+        try (AdaptiveHuffmanInputStream decodeur = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encode))) {
+            return decodeur.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int racine() {
+        return RACINE;
+    }
+
+    boolean estFeuille(int noeud) {
+        return gauche[noeud] == AUCUN;
+    }
+
+    boolean estNyt(int noeud) {
+        return noeud == nyt;
+    }
+
+    int enfant(int noeud, int bit) {
+        return bit == 0 ? gauche[noeud] : droite[noeud];
+    }
+
+    int symbole(int noeud) {
+        return symbole[noeud];
+    }
+
+    /**
+     * Écrit dans chemin les bits du code du symbole (ou du NYT s'il n'a pas été vu), de la
+     * feuille vers la racine.
+     *
+     * @return le nombre de bits ; le code se lit de chemin[n - 1] à chemin[0]
+     */
+    int cheminInverse(int octet, byte[] chemin) {
+        int n = 0;
+        int noeud = feuille[octet] != AUCUN ? feuille[octet] : nyt;
+        while (noeud != RACINE) {
+            int p = parent[noeud];
+            chemin[n++] = (byte) (droite[p] == noeud ? 1 : 0);
+            noeud = p;
+        }
+        return n;
+    }
+
+    /**
+     * Code du symbole (ou du NYT) sous la forme (code << 6) | longueur, ou -1 s'il dépasse
+     * {@link ParallelHuffmanEncoder#LONGUEUR_MAX} bits (utiliser alors cheminInverse).
+     */
+    long code(int octet) {
+        long code = 0;
+        int n = 0;
+        int noeud = feuille[octet] != AUCUN ? feuille[octet] : nyt;
+        while (noeud != RACINE) {
+            if (n == ParallelHuffmanEncoder.LONGUEUR_MAX) return -1;
+            int p = parent[noeud];
+            if (droite[p] == noeud) code |= 1L << n;
+            n++;
+            noeud = p;
+        }
+        return (code << 6) | n;
+    }
+
+    boolean connu(int octet) {
+        return feuille[octet] != AUCUN;
+    }
+
+    /**
+     * Met l'arbre à jour après la transmission d'un octet (procédure Update de Vitter).
+     */
+    void mettreAJour(int octet) {
+        int aIncrementer = AUCUN;
+        int q = feuille[octet];
+        if (q == AUCUN) {
+            // Le NYT devient un nœud interne : NYT à gauche, nouvelle feuille à droite
+            int interne = nyt;
+            int nouvelleFeuille = nyt - 1;
+            int nouveauNyt = nyt - 2;
+            gauche[interne] = nouveauNyt;
+            droite[interne] = nouvelleFeuille;
+            symbole[interne] = AUCUN;
+            initialiserFeuille(nouvelleFeuille, interne, octet);
+            initialiserFeuille(nouveauNyt, interne, AUCUN);
+            feuille[octet] = nouvelleFeuille;
+            nyt = nouveauNyt;
+            q = interne;
+            aIncrementer = nouvelleFeuille;
+        } else {
+            q = echanger(q, chefDeBloc(q));
+            if (parent[q] == parent[nyt]) {
+                aIncrementer = q;
+                q = parent[q];
+            }
+        }
+        while (q != AUCUN) {
+            q = glisserEtIncrementer(q);
+        }
+        if (aIncrementer != AUCUN) {
+            glisserEtIncrementer(aIncrementer);
+        }
+    }
+
+    private void initialiserFeuille(int noeud, int p, int s) {
+        poids[noeud] = 0;
+        parent[noeud] = p;
+        gauche[noeud] = AUCUN;
+        droite[noeud] = AUCUN;
+        symbole[noeud] = s;
+    }
+
+    /**
+     * Case de plus grand numéro du bloc de q (même poids, même type).
+     */
+    private int chefDeBloc(int q) {
+        boolean f = estFeuille(q);
+        int chef = q;
+        while (chef + 1 <= RACINE && poids[chef + 1] == poids[q] && estFeuille(chef + 1) == f
+                && chef + 1 != parent[q]) {
+            chef++;
+        }
+        return chef;
+    }
+
+    /**
+     * Glisse p devant le bloc qui suit le sien (nœuds internes de même poids pour une feuille,
+     * feuilles de poids + 1 pour un nœud interne), puis incrémente son poids.
+     *
+     * @return le prochain nœud à traiter : le nouveau parent d'une feuille, l'ancien parent d'un
+     *         nœud interne, AUCUN après la racine
+     */
+    private int glisserEtIncrementer(int p) {
+        long wt = poids[p];
+        boolean f = estFeuille(p);
+        int ancienParent = parent[p];
+
+        int fin = p;
+        int t = p + 1;
+        while (t <= RACINE && t != ancienParent && poids[t] == wt && estFeuille(t) == f) {
+            fin = t++;
+        }
+        while (t <= RACINE && t != ancienParent
+                && (f ? poids[t] == wt && !estFeuille(t) : poids[t] == wt + 1 && estFeuille(t))) {
+            fin = t++;
+        }
+        for (int c = p; c < fin; c++) {
+            echanger(c, c + 1);
+        }
+        poids[fin]++;
+        return f ? parent[fin] : ancienParent;
+    }
+
+    /**
+     * Échange le contenu de deux cases (ni l'une ni l'autre n'est l'ancêtre de l'autre).
+     *
+     * @return la case qui contient maintenant le nœud de a
+     */
+    private int echanger(int a, int b) {
+        if (a == b) return a;
+        long w = poids[a];
+        poids[a] = poids[b];
+        poids[b] = w;
+        int g = gauche[a];
+        gauche[a] = gauche[b];
+        gauche[b] = g;
+        int d = droite[a];
+        droite[a] = droite[b];
+        droite[b] = d;
+        int s = symbole[a];
+        symbole[a] = symbole[b];
+        symbole[b] = s;
+        rattacher(a);
+        rattacher(b);
+        return b;
+    }
+
+    private void rattacher(int noeud) {
+        if (!estFeuille(noeud)) {
+            parent[gauche[noeud]] = noeud;
+            parent[droite[noeud]] = noeud;
+        } else if (symbole[noeud] != AUCUN) {
+            feuille[symbole[noeud]] = noeud;
+        } else {
+            nyt = noeud;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package huffman;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flux de décodage Huffman adaptatif : relit le format de {@link AdaptiveHuffmanOutputStream}
+ * en reconstruisant l'arbre au même rythme que l'émetteur.
+ *
+ * Un octet est décodé en descendant l'arbre bit à bit depuis la racine ; un code incomplet en fin
+ * de données termine le flux.
+ */
+public class AdaptiveHuffmanInputStream extends InputStream {
+
+    private static final int TAILLE_TAMPON = 8192;
+
+    private final InputStream source;
+    private final AdaptiveHuffman arbre = new AdaptiveHuffman();
+
+    private final byte[] tampon = new byte[TAILLE_TAMPON];
+    private int lecture;
+    private int remplissage;
+    private int octetEnAttente = -2;
+
+    /** Octet de données en cours, prochain bit à lire et nombre de ses bits encore valides. */
+    private int octetCourant;
+    private int position;
+    private int bitsRestants;
+    private boolean termine;
+
+    public AdaptiveHuffmanInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (termine) return -1;
+        int noeud = arbre.racine();
+        while (!arbre.estFeuille(noeud)) {
+            int bit = lireBit();
+            if (bit < 0) return terminer();
+            noeud = arbre.enfant(noeud, bit);
+        }
+        int octet;
+        if (arbre.estNyt(noeud)) {
+            octet = 0;
+            for (int i = 0; i < AdaptiveHuffman.BITS_SYMBOLE; i++) {
+                int bit = lireBit();
+                if (bit < 0) return terminer();
+                octet = (octet << 1) | bit;
+            }
+        } else {
+            octet = arbre.symbole(noeud);
+        }
+        arbre.mettreAJour(octet);
+        return octet;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        int n = 0;
+        while (n < len) {
+            int octet = read();
+            if (octet < 0) break;
+            b[off + n++] = (byte) octet;
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private int terminer() {
+        termine = true;
+        return -1;
+    }
+
+    private int lireBit() throws IOException {
+        if (bitsRestants == 0 && !chargerOctet()) {
+            return -1;
+        }
+        bitsRestants--;
+        return (octetCourant >>> (7 - position++)) & 1;
+    }
+
+    /**
+     * Charge le prochain octet de données. Le dernier octet de données est suivi de l'octet
+     * donnant son bourrage : il est reconnu quand l'octet qui suit le suivant n'existe pas.
+     */
+    private boolean chargerOctet() throws IOException {
+        if (octetEnAttente == -2) {
+            octetEnAttente = octetBrut();
+        }
+        int courant = octetEnAttente;
+        octetEnAttente = octetBrut();
+        if (courant < 0 || octetEnAttente < 0) {
+            // Fin des données (courant était l'octet final de bourrage)
+            return false;
+        }
+        octetCourant = courant;
+        position = 0;
+        bitsRestants = regarderOctet() < 0 ? 8 - (octetEnAttente & 7) : 8;
+        return bitsRestants > 0;
+    }
+
+    private int regarderOctet() throws IOException {
+        if (lecture == remplissage) {
+            remplissage = source.read(tampon, 0, TAILLE_TAMPON);
+            lecture = 0;
+            if (remplissage <= 0) {
+                remplissage = 0;
+                return -1;
+            }
+        }
+        return tampon[lecture] & 0xFF;
+    }
+
+    private int octetBrut() throws IOException {
+        int b = regarderOctet();
+        if (b >= 0) lecture++;
+        return b;
+    }
+}
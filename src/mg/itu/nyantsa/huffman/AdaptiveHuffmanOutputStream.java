@@ -0,0 +1,113 @@
+package huffman;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flux d'encodage Huffman adaptatif : chaque octet écrit est codé avec l'arbre courant puis
+ * l'arbre est mis à jour ({@link AdaptiveHuffman}). Aucune table ni fréquence préalable : le flux
+ * peut être encodé au fil de l'eau, sans être connu à l'avance.
+ *
+ * Même format que {@link HuffmanOutputStream} : les bits compactés, puis un octet final donnant
+ * le nombre de bits de bourrage du dernier octet de données.
+ */
+public class AdaptiveHuffmanOutputStream extends OutputStream {
+
+    private static final int TAILLE_TAMPON = 8192;
+
+    private final OutputStream sortie;
+    private final AdaptiveHuffman arbre = new AdaptiveHuffman();
+    private final byte[] chemin = new byte[2 * AdaptiveHuffman.TAILLE_ALPHABET + 1];
+    private final byte[] tampon = new byte[TAILLE_TAMPON];
+    private int remplissage;
+
+    private long accumulateur;
+    private int bitsEnAttente;
+    private long bitsEcrits;
+    private boolean ferme;
+
+    public AdaptiveHuffmanOutputStream(OutputStream sortie) {
+        this.sortie = sortie;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (ferme) {
+            throw new IOException("Flux Huffman adaptatif déjà fermé");
+        }
+        int octet = b & 0xFF;
+        long code = arbre.code(octet);
+        if (code >= 0) {
+            ecrireBits(code >>> 6, (int) (code & 63));
+        } else {
+            int n = arbre.cheminInverse(octet, chemin);
+            for (int i = n - 1; i >= 0; i--) {
+                ecrireBits(chemin[i], 1);
+            }
+        }
+        if (!arbre.connu(octet)) {
+            ecrireBits(octet, AdaptiveHuffman.BITS_SYMBOLE);
+        }
+        arbre.mettreAJour(octet);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(b[i]);
+        }
+    }
+
+    /**
+     * Écrit les longueur bits de poids faible de bits (longueur <= 57).
+     */
+    private void ecrireBits(long bits, int longueur) throws IOException {
+        accumulateur = (accumulateur << longueur) | bits;
+        bitsEnAttente += longueur;
+        bitsEcrits += longueur;
+        while (bitsEnAttente >= 8) {
+            bitsEnAttente -= 8;
+            tampon[remplissage++] = (byte) (accumulateur >>> bitsEnAttente);
+            if (remplissage == TAILLE_TAMPON) {
+                viderTampon();
+            }
+        }
+    }
+
+    public long bitsEcrits() {
+        return bitsEcrits;
+    }
+
+    /**
+     * Envoie les octets complets ; les bits d'un octet incomplet restent en attente.
+     */
+    @Override
+    public void flush() throws IOException {
+        viderTampon();
+        sortie.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ferme) return;
+        int bourrage = 0;
+        if (bitsEnAttente > 0) {
+            bourrage = 8 - bitsEnAttente;
+            tampon[remplissage++] = (byte) (accumulateur << bourrage);
+            if (remplissage == TAILLE_TAMPON) {
+                viderTampon();
+            }
+        }
+        tampon[remplissage++] = (byte) bourrage;
+        viderTampon();
+        ferme = true;
+        sortie.close();
+    }
+
+    private void viderTampon() throws IOException {
+        if (remplissage > 0) {
+            sortie.write(tampon, 0, remplissage);
+            remplissage = 0;
+        }
+    }
+}
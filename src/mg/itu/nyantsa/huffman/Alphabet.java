@@ -0,0 +1,21 @@
+package huffman;
+
+/**
+ * Alphabet sur lequel le code Huffman est construit.
+ *
+ * MINUSCULES : le mode historique, lettres a-z et espace après normalisation, le reste est ignoré.
+ * OCTETS : chaque octet est un symbole (256 symboles, tous codables), pour les charges binaires.
+ * UNICODE : chaque point de code UTF-8 est un symbole ; un point de code absent du texte de
+ * référence est codé par le symbole {@link #ECHAPPEMENT} suivi de ses 21 bits.
+ */
+public enum Alphabet {
+    MINUSCULES,
+    OCTETS,
+    UNICODE;
+
+    /** Symbole d'échappement (au-delà du dernier point de code Unicode). */
+    public static final int ECHAPPEMENT = 0x110000;
+
+    /** Nombre de bits bruts qui suivent un échappement. */
+    public static final int BITS_ECHAPPEMENT = 21;
+}
@@ -0,0 +1,188 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * Suite de bits compactée dans un long[], le premier bit étant le bit de poids fort du premier mot.
+ * Les bits au-delà de la longueur sont toujours à zéro, ce qui permet de lire une fenêtre de
+ * 64 bits n'importe où sans test de fin.
+ */
+public final class BitBuffer {
+
+    private long[] mots;
+    private long longueur;
+
+    public BitBuffer() {
+        this(256);
+    }
+
+    public BitBuffer(long capaciteBits) {
+        this.mots = new long[(int) Math.max(1, (capaciteBits + 63) >>> 6)];
+    }
+
+    private BitBuffer(long[] mots, long longueur) {
+        this.mots = mots;
+        this.longueur = longueur;
+    }
+
+    /**
+     * Tampon sur des mots déjà remplis (bits au-delà de longueur à zéro), sans copie.
+     */
+    static BitBuffer envelopper(long[] mots, long longueur) {
+        return new BitBuffer(mots, longueur);
+    }
+
+    /**
+     * Convertit une chaîne de '0' et '1' (format utilisé par l'extraction) en bits compactés.
+     */
+    public static BitBuffer depuisChaine(CharSequence bits) {
+        int n = bits.length();
+        long[] mots = new long[Math.max(1, (n + 63) >>> 6)];
+        for (int i = 0; i < n; i++) {
+            char c = bits.charAt(i);
+            if (c == '1') {
+                mots[i >>> 6] |= 1L << (63 - (i & 63));
+            } else if (c != '0') {
+                throw new IllegalArgumentException("Caractère non binaire à la position " + i + " : '" + c + "'");
+            }
+        }
+        return new BitBuffer(mots, n);
+    }
+
+    /**
+     * Reconstruit un tampon à partir d'octets (premier bit = bit de poids fort du premier octet).
+     */
+    public static BitBuffer depuisOctets(byte[] octets, long longueur) {
+        if (longueur > (long) octets.length * 8) {
+            throw new IllegalArgumentException("Longueur " + longueur + " supérieure aux " + octets.length + " octets fournis");
+        }
+        long[] mots = new long[(int) Math.max(1, (longueur + 63) >>> 6)];
+        int nbOctets = (int) ((longueur + 7) >>> 3);
+        for (int i = 0; i < nbOctets; i++) {
+            mots[i >>> 3] |= (octets[i] & 0xFFL) << (56 - ((i & 7) << 3));
+        }
+        BitBuffer tampon = new BitBuffer(mots, longueur);
+        tampon.effacerApres(longueur);
+        return tampon;
+    }
+
+    public long longueur() {
+        return longueur;
+    }
+
+    public void ajouterBit(int bit) {
+        ajouter(bit & 1, 1);
+    }
+
+    /**
+     * Ajoute les longueur bits de poids faible de code, bit de poids fort en premier.
+     */
+    public void ajouter(long code, int longueur) {
+        if (longueur == 0) return;
+        if (longueur < 0 || longueur > 64) {
+            throw new IllegalArgumentException("Longueur de code invalide : " + longueur);
+        }
+        assurerCapacite(this.longueur + longueur);
+        if (longueur < 64) {
+            code &= (1L << longueur) - 1;
+        }
+        int w = (int) (this.longueur >>> 6);
+        int libre = 64 - (int) (this.longueur & 63);
+        if (longueur <= libre) {
+            mots[w] |= code << (libre - longueur);
+        } else {
+            int reste = longueur - libre;
+            mots[w] |= code >>> reste;
+            mots[w + 1] |= code << (64 - reste);
+        }
+        this.longueur += longueur;
+    }
+
+    /**
+     * Ajoute tous les bits d'un autre tampon.
+     */
+    public void ajouter(BitBuffer autre) {
+        long n = autre.longueur;
+        long pos = 0;
+        while (n - pos >= 64) {
+            ajouter(autre.lire64(pos), 64);
+            pos += 64;
+        }
+        int reste = (int) (n - pos);
+        if (reste > 0) {
+            ajouter(autre.lire64(pos) >>> (64 - reste), reste);
+        }
+    }
+
+    public int bit(long pos) {
+        if (pos < 0 || pos >= longueur) {
+            throw new IndexOutOfBoundsException("Bit " + pos + " hors du tampon (longueur " + longueur + ")");
+        }
+        return (int) (mots[(int) (pos >>> 6)] >>> (63 - (pos & 63))) & 1;
+    }
+
+    /**
+     * Renvoie les 64 bits qui commencent à pos, alignés sur le poids fort ; complétés par des zéros
+     * au-delà de la fin.
+     */
+    public long lire64(long pos) {
+        int w = (int) (pos >>> 6);
+        int decalage = (int) (pos & 63);
+        long haut = w < mots.length ? mots[w] : 0;
+        if (decalage == 0) return haut;
+        long bas = w + 1 < mots.length ? mots[w + 1] : 0;
+        return (haut << decalage) | (bas >>> (64 - decalage));
+    }
+
+    public String enChaine() {
+        if (longueur > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Trop de bits pour une chaîne : " + longueur);
+        }
+        char[] chars = new char[(int) longueur];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('0' + ((mots[i >>> 6] >>> (63 - (i & 63))) & 1));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Les bits compactés en octets, le dernier octet étant complété par des zéros.
+     */
+    public byte[] versOctets() {
+        byte[] octets = new byte[(int) ((longueur + 7) >>> 3)];
+        for (int i = 0; i < octets.length; i++) {
+            octets[i] = (byte) (mots[i >>> 3] >>> (56 - ((i & 7) << 3)));
+        }
+        return octets;
+    }
+
+    /**
+     * Accès direct aux mots (lecture seule) pour les noyaux qui travaillent 64 bits à la fois.
+     */
+    long[] mots() {
+        return mots;
+    }
+
+    private void effacerApres(long pos) {
+        int w = (int) (pos >>> 6);
+        int decalage = (int) (pos & 63);
+        if (w < mots.length && decalage != 0) {
+            mots[w] &= -1L << (64 - decalage);
+            w++;
+        }
+        if (w < mots.length) {
+            Arrays.fill(mots, w, mots.length, 0L);
+        }
+    }
+
+    private void assurerCapacite(long bits) {
+        long motsNecessaires = (bits + 63) >>> 6;
+        if (motsNecessaires > mots.length) {
+            long nouvelle = Math.max(motsNecessaires, (long) mots.length * 2);
+            if (nouvelle > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Tampon de bits trop grand : " + bits + " bits");
+            }
+            mots = Arrays.copyOf(mots, (int) nouvelle);
+        }
+    }
+}
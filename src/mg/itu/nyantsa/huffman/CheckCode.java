@@ -22,125 +22,33 @@ public class CheckCode {
         }
         
         // Vérification de la propriété préfixe
-        if (isPrefixCode(language)) {
+        PrefixCodeCheck.Resultat prefixe = PrefixCodeCheck.verifier(language);
+        if (prefixe.estPrefixe()) {
             System.out.println("C'est un code préfixe, donc c'est un code.");
             return true;
         }
+        System.out.println("\"" + prefixe.mot() + "\" et \"" + prefixe.prefixe() + "\" - l'un est préfixe de l'autre.");
         
         // Vérification générale : recherche de mots avec double factorisation
         return !hasMultipleFactorizations(language);
     }
     
     /**
-     * Vérifie si le langage est un code préfixe
-     */
-    private static boolean isPrefixCode(Set<String> language) {
-        List<String> words = new ArrayList<>(language);
-        
-        for (int i = 0; i < words.size(); i++) {
-            for (int j = i + 1; j < words.size(); j++) {
-                String word1 = words.get(i);
-                String word2 = words.get(j);
-                
-                if (word1.startsWith(word2) || word2.startsWith(word1)) {
-                    System.out.println("\"" + word1 + "\" et \"" + word2 + "\" - l'un est préfixe de l'autre.");
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-    
-    /**
-     * Recherche des mots ayant plusieurs factorisations possibles
+     * Recherche d'un mot ayant plusieurs factorisations (test de Sardinas–Patterson)
      */
     private static boolean hasMultipleFactorizations(Set<String> language) {
-        // Génére tous les mots possibles jusqu'à une certaine longueur
-        int maxLength = getMaxWordLength(language) * 3; // Limite raisonnable
-        
-        for (int len = 1; len <= maxLength; len++) {
-            Set<String> possibleWords = generatePossibleWords(language, len);
-            
-            for (String word : possibleWords) {
-                List<List<String>> factorizations = findAllFactorizations(word, language);
-                
-                if (factorizations.size() > 1) {
-                    System.out.println("Le mot \"" + word + "\" a plusieurs factorisations :");
-                    for (int i = 0; i < factorizations.size(); i++) {
-                        System.out.println("  Factorisation " + (i+1) + ": " + factorizations.get(i));
-                    }
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Trouve toutes les factorisations possibles d'un mot dans le langage
-     */
-    private static List<List<String>> findAllFactorizations(String word, Set<String> language) {
-        List<List<String>> result = new ArrayList<>();
-        findFactorizationsRecursive(word, language, new ArrayList<>(), result);
-        return result;
-    }
-    
-    /**
-     * Méthode récursive pour trouver les factorisations
-     */
-    private static void findFactorizationsRecursive(String remaining, Set<String> language, 
-                                                  List<String> currentFactorization, 
-                                                  List<List<String>> allFactorizations) {
-        if (remaining.isEmpty()) {
-            allFactorizations.add(new ArrayList<>(currentFactorization));
-            return;
-        }
-        
-        for (String word : language) {
-            if (remaining.startsWith(word)) {
-                currentFactorization.add(word);
-                findFactorizationsRecursive(remaining.substring(word.length()), 
-                                           language, currentFactorization, allFactorizations);
-                currentFactorization.remove(currentFactorization.size() - 1);
-            }
+        SardinasPatterson.Resultat resultat = SardinasPatterson.verifier(language);
+        if (resultat.estCode()) {
+            return false;
         }
-    }
-    
-    /**
-     * Génère tous les mots possibles de longueur donnée à partir du langage
-     */
-    private static Set<String> generatePossibleWords(Set<String> language, int maxLength) {
-        Set<String> result = new HashSet<>();
-        Queue<String> queue = new LinkedList<>();
-        
-        queue.add("");
-        
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            
-            if (current.length() > maxLength) continue;
-            
-            if (!current.isEmpty()) {
-                result.add(current);
-            }
-            
-            for (String word : language) {
-                String newWord = current + word;
-                if (newWord.length() <= maxLength) {
-                    queue.offer(newWord);
-                }
-            }
+
+        String word = resultat.motAmbigu();
+        List<List<String>> factorizations = new Factorisations(language).compter(word).deuxFactorisations();
+        System.out.println("Le mot \"" + word + "\" a plusieurs factorisations :");
+        for (int i = 0; i < factorizations.size(); i++) {
+            System.out.println("  Factorisation " + (i+1) + ": " + factorizations.get(i));
         }
-        
-        return result;
-    }
-    
-    /**
-     * Obtient la longueur du mot le plus long dans le langage
-     */
-    private static int getMaxWordLength(Set<String> language) {
-        return language.stream().mapToInt(String::length).max().orElse(0);
+        return true;
     }
     
     /**
@@ -201,6 +109,11 @@ public class CheckCode {
     }
     
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Mode non interactif : un fichier de mots par langage
+            CheckCodeBatch.main(args);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         
         System.out.println("╔══════════════════════════════════════════════════════════╗");
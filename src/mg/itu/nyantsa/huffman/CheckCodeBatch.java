@@ -0,0 +1,208 @@
+package huffman;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Vérification non interactive de langages lus dans des fichiers : un fichier par langage, mots
+ * séparés par des blancs (espaces ou retours à la ligne).
+ *
+ * Les mots sont lus au fil de l'eau directement dans un {@link CodeTrie}, sans ensemble de
+ * chaînes intermédiaire, ce qui permet des dictionnaires de plusieurs millions de mots. Les
+ * fichiers sont traités en parallèle ; pour chaque langage, le test préfixe et le test de
+ * Sardinas–Patterson, indépendants, tournent en même temps. Une ligne de compte rendu est
+ * écrite par langage, dans l'ordre des arguments, avec les temps, la place du trie et celle de
+ * l'état du test de Sardinas–Patterson.
+ *
+ * java huffman.CheckCodeBatch langage1.txt langage2.txt ...
+ * (ou java huffman.CheckCode avec les mêmes arguments)
+ */
+public final class CheckCodeBatch {
+
+    private static final int TAILLE_LECTURE = 1 << 16;
+
+    private CheckCodeBatch() {
+    }
+
+    /**
+     * Lit les mots d'un fichier dans un trie.
+     */
+    public static CodeTrie charger(Path fichier) throws IOException {
+        long taille = Files.size(fichier);
+        CodeTrie trie = new CodeTrie((int) Math.min(1 << 20, Math.max(64, taille)));
+        char[] lecture = new char[TAILLE_LECTURE];
+        char[] mot = new char[64];
+        int longueur = 0;
+        try (Reader in = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            int n;
+            while ((n = in.read(lecture)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    char c = lecture[i];
+                    if (Character.isWhitespace(c)) {
+                        if (longueur > 0) {
+                            trie.ajouter(mot, 0, longueur);
+                            longueur = 0;
+                        }
+                    } else {
+                        if (longueur == mot.length) mot = Arrays.copyOf(mot, longueur * 2);
+                        mot[longueur++] = c;
+                    }
+                }
+            }
+        }
+        if (longueur > 0) {
+            trie.ajouter(mot, 0, longueur);
+        }
+        return trie;
+    }
+
+    /**
+     * Charge et vérifie un langage ; les erreurs de lecture sont rapportées dans le résultat.
+     */
+    public static Rapport analyser(Path fichier) {
+        long debut = System.nanoTime();
+        CodeTrie trie;
+        try {
+            trie = charger(fichier);
+        } catch (IOException e) {
+            return new Rapport(fichier, null, null, null, 0, 0, 0, e.toString());
+        }
+        long lecture = System.nanoTime() - debut;
+
+        ForkJoinTask<Mesure<SardinasPatterson.Resultat>> sardinas =
+            ForkJoinPool.commonPool().submit(() -> Mesure.de(() -> SardinasPatterson.verifier(trie)));
+        Mesure<PrefixCodeCheck.Resultat> prefixe = Mesure.de(() -> PrefixCodeCheck.verifier(trie));
+        Mesure<SardinasPatterson.Resultat> code = sardinas.join();
+
+        return new Rapport(fichier, trie, prefixe.resultat, code.resultat,
+                           lecture, prefixe.nanos, code.nanos, null);
+    }
+
+    public static List<Rapport> analyser(List<Path> fichiers) {
+        return IntStream.range(0, fichiers.size())
+            .parallel()
+            .mapToObj(i -> analyser(fichiers.get(i)))
+            .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage : java huffman.CheckCodeBatch <fichier de mots> [<fichier de mots> ...]");
+            return;
+        }
+        long debut = System.nanoTime();
+        List<Rapport> rapports = analyser(Arrays.stream(args).map(Paths::get).collect(Collectors.toList()));
+        for (Rapport rapport : rapports) {
+            System.out.println(rapport);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%d langage(s) en %.1f ms, tas utilisé %.1f Mo%n", rapports.size(),
+                          (System.nanoTime() - debut) / 1e6,
+                          (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0));
+    }
+
+    private static final class Mesure<T> {
+        final T resultat;
+        final long nanos;
+
+        private Mesure(T resultat, long nanos) {
+            this.resultat = resultat;
+            this.nanos = nanos;
+        }
+
+        static <T> Mesure<T> de(Supplier<T> calcul) {
+            long debut = System.nanoTime();
+            T resultat = calcul.get();
+            return new Mesure<>(resultat, System.nanoTime() - debut);
+        }
+    }
+
+    /**
+     * Compte rendu d'un langage : taille, résultats des deux tests et temps de chaque étape.
+     */
+    public static final class Rapport {
+
+        private final Path fichier;
+        private final int mots;
+        private final int noeuds;
+        private final long octetsTrie;
+        private final PrefixCodeCheck.Resultat prefixe;
+        private final SardinasPatterson.Resultat code;
+        private final long nanosLecture;
+        private final long nanosPrefixe;
+        private final long nanosCode;
+        private final String erreur;
+
+        Rapport(Path fichier, CodeTrie trie, PrefixCodeCheck.Resultat prefixe, SardinasPatterson.Resultat code,
+                long nanosLecture, long nanosPrefixe, long nanosCode, String erreur) {
+            this.fichier = fichier;
+            this.mots = trie == null ? 0 : trie.nombreMots();
+            this.noeuds = trie == null ? 0 : trie.nombreNoeuds();
+            this.octetsTrie = trie == null ? 0 : trie.octetsUtilises();
+            this.prefixe = prefixe;
+            this.code = code;
+            this.nanosLecture = nanosLecture;
+            this.nanosPrefixe = nanosPrefixe;
+            this.nanosCode = nanosCode;
+            this.erreur = erreur;
+        }
+
+        public Path fichier() {
+            return fichier;
+        }
+
+        public int mots() {
+            return mots;
+        }
+
+        /** Résultat du test préfixe (null si le fichier n'a pas pu être lu). */
+        public PrefixCodeCheck.Resultat prefixe() {
+            return prefixe;
+        }
+
+        /** Résultat du test de Sardinas–Patterson (null si le fichier n'a pas pu être lu). */
+        public SardinasPatterson.Resultat code() {
+            return code;
+        }
+
+        public String erreur() {
+            return erreur;
+        }
+
+        public long octetsTrie() {
+            return octetsTrie;
+        }
+
+        /** Place de l'état du test de Sardinas–Patterson (0 si le fichier n'a pas pu être lu). */
+        public long octetsSuffixes() {
+            return code == null ? 0 : code.octetsUtilises();
+        }
+
+        @Override
+        public String toString() {
+            if (erreur != null) {
+                return fichier + " : lecture impossible (" + erreur + ")";
+            }
+            String verdict = code.estCode()
+                ? "CODE"
+                : "PAS UN CODE, \"" + code.motAmbigu() + "\" = " + code.factorisation1() + " = " + code.factorisation2();
+            return String.format("%s : %d mots, %d nœuds, trie %.1f Mo, lecture %.1f ms | préfixe %s (%.1f ms)"
+                                 + " | %s, %d suffixes pendants, %.1f Mo (%.1f ms)",
+                                 fichier, mots, noeuds, octetsTrie / (1024.0 * 1024.0), nanosLecture / 1e6,
+                                 prefixe.estPrefixe() ? "oui" : "non", nanosPrefixe / 1e6,
+                                 verdict, code.suffixesExplores(), code.octetsUtilises() / (1024.0 * 1024.0),
+                                 nanosCode / 1e6);
+        }
+    }
+}
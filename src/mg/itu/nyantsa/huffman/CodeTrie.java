@@ -0,0 +1,187 @@
+package huffman;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Trie des mots d'un langage, rangé dans des tableaux parallèles (premier enfant, frère suivant,
+ * parent, caractère) plutôt qu'en objets : quelques octets par nœud, ce qui permet de charger des
+ * dictionnaires de plusieurs millions de mots.
+ *
+ * Le nœud 0 est la racine (mot vide). Un nœud est terminal si le mot qui y mène appartient au
+ * langage ; un mot ajouté deux fois n'est compté qu'une fois. Les enfants d'un nœud sont une
+ * liste chaînée, parcourue en temps proportionnel à la taille de l'alphabet (2 pour un code
+ * binaire).
+ */
+public final class CodeTrie {
+
+    public static final int AUCUN = -1;
+
+    private int[] premierEnfant;
+    private int[] frereSuivant;
+    private int[] parent;
+    private char[] etiquette;
+    private boolean[] terminal;
+    private int noeuds;
+    private int mots;
+    private int longueurMax;
+
+    public CodeTrie() {
+        this(64);
+    }
+
+    public CodeTrie(int capaciteNoeuds) {
+        int capacite = Math.max(1, capaciteNoeuds);
+        premierEnfant = new int[capacite];
+        frereSuivant = new int[capacite];
+        parent = new int[capacite];
+        etiquette = new char[capacite];
+        terminal = new boolean[capacite];
+        premierEnfant[0] = AUCUN;
+        frereSuivant[0] = AUCUN;
+        parent[0] = AUCUN;
+        noeuds = 1;
+    }
+
+    public static CodeTrie depuis(Collection<? extends CharSequence> langage) {
+        CodeTrie trie = new CodeTrie();
+        for (CharSequence mot : langage) {
+            trie.ajouter(mot);
+        }
+        return trie;
+    }
+
+    /**
+     * Ajoute un mot ; renvoie false s'il était déjà dans le trie.
+     */
+    public boolean ajouter(CharSequence mot) {
+        int noeud = 0;
+        for (int i = 0; i < mot.length(); i++) {
+            noeud = enfantOuNouveau(noeud, mot.charAt(i));
+        }
+        return marquer(noeud, mot.length());
+    }
+
+    /**
+     * Ajoute le mot mot[debut, fin) ; renvoie false s'il était déjà dans le trie.
+     */
+    public boolean ajouter(char[] mot, int debut, int fin) {
+        int noeud = 0;
+        for (int i = debut; i < fin; i++) {
+            noeud = enfantOuNouveau(noeud, mot[i]);
+        }
+        return marquer(noeud, fin - debut);
+    }
+
+    private boolean marquer(int noeud, int longueur) {
+        if (terminal[noeud]) return false;
+        terminal[noeud] = true;
+        mots++;
+        longueurMax = Math.max(longueurMax, longueur);
+        return true;
+    }
+
+    private int enfantOuNouveau(int noeud, char c) {
+        int enfant = enfant(noeud, c);
+        if (enfant != AUCUN) return enfant;
+        if (noeuds == premierEnfant.length) {
+            int capacite = noeuds + (noeuds >>> 1) + 16;
+            premierEnfant = Arrays.copyOf(premierEnfant, capacite);
+            frereSuivant = Arrays.copyOf(frereSuivant, capacite);
+            parent = Arrays.copyOf(parent, capacite);
+            etiquette = Arrays.copyOf(etiquette, capacite);
+            terminal = Arrays.copyOf(terminal, capacite);
+        }
+        int nouveau = noeuds++;
+        etiquette[nouveau] = c;
+        parent[nouveau] = noeud;
+        premierEnfant[nouveau] = AUCUN;
+        frereSuivant[nouveau] = premierEnfant[noeud];
+        premierEnfant[noeud] = nouveau;
+        return nouveau;
+    }
+
+    public int racine() {
+        return 0;
+    }
+
+    /** Enfant de noeud par le caractère c, ou AUCUN. */
+    public int enfant(int noeud, char c) {
+        for (int e = premierEnfant[noeud]; e != AUCUN; e = frereSuivant[e]) {
+            if (etiquette[e] == c) return e;
+        }
+        return AUCUN;
+    }
+
+    public int premierEnfant(int noeud) {
+        return premierEnfant[noeud];
+    }
+
+    public int frereSuivant(int noeud) {
+        return frereSuivant[noeud];
+    }
+
+    public int parent(int noeud) {
+        return parent[noeud];
+    }
+
+    public char etiquette(int noeud) {
+        return etiquette[noeud];
+    }
+
+    public boolean estTerminal(int noeud) {
+        return terminal[noeud];
+    }
+
+    /**
+     * Nœud atteint en lisant mot depuis la racine, ou AUCUN si le chemin n'existe pas.
+     */
+    public int chercher(CharSequence mot) {
+        int noeud = 0;
+        for (int i = 0; i < mot.length() && noeud != AUCUN; i++) {
+            noeud = enfant(noeud, mot.charAt(i));
+        }
+        return noeud;
+    }
+
+    public boolean contient(CharSequence mot) {
+        int noeud = chercher(mot);
+        return noeud != AUCUN && terminal[noeud];
+    }
+
+    /** Longueur du mot menant à noeud (remonte les parents). */
+    public int profondeur(int noeud) {
+        int profondeur = 0;
+        for (int n = noeud; n != 0; n = parent[n]) {
+            profondeur++;
+        }
+        return profondeur;
+    }
+
+    /** Mot menant à noeud, reconstruit par les parents. */
+    public String mot(int noeud) {
+        char[] lettres = new char[profondeur(noeud)];
+        int i = lettres.length;
+        for (int n = noeud; n != 0; n = parent[n]) {
+            lettres[--i] = etiquette[n];
+        }
+        return new String(lettres);
+    }
+
+    public int nombreMots() {
+        return mots;
+    }
+
+    public int nombreNoeuds() {
+        return noeuds;
+    }
+
+    public int longueurMax() {
+        return longueurMax;
+    }
+
+    /** Place occupée par les tableaux du trie, en octets (capacité réservée comprise). */
+    public long octetsUtilises() {
+        return (long) premierEnfant.length * (4 + 4 + 4 + 2 + 1);
+    }
+}
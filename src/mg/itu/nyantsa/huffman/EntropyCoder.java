@@ -0,0 +1,18 @@
+package huffman;
+
+/**
+ * Codeur entropique du texte normalisé (lettres a-z et espace) : le texte est normalisé au
+ * passage, encodé en bits compactés, et le décodage restitue le texte normalisé.
+ *
+ * Implémentations : {@link HuffmanCodingCharacter} (table de codage partagée hors bande) et
+ * {@link TansCoder} (ANS à tables, modèle transmis en tête des bits).
+ */
+public interface EntropyCoder {
+
+    /** Nom court du codeur ("huffman", "tans"). */
+    String identifiant();
+
+    BitBuffer encoderBits(CharSequence texte);
+
+    String decoderBits(BitBuffer bits);
+}
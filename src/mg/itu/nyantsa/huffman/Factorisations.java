@@ -0,0 +1,187 @@
+package huffman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Nombre de factorisations d'un mot sur un langage, par programmation dynamique sur les
+ * positions du mot : f(0) = 1 et f(j) = Σ f(j - |w|) pour chaque mot w du langage finissant en j.
+ *
+ * Les mots finissant en j sont donnés par un automate d'Aho–Corasick construit sur le trie du
+ * langage ({@link CodeTrie}, liens d'échec et liens de sortie vers le prochain mot suffixe) : le
+ * mot est lu une fois, en temps proportionnel à sa longueur plus le nombre d'occurrences. Les
+ * comptes sont plafonnés à 2, ce qui suffit pour savoir si le mot est ambigu. Pour chaque
+ * position, les deux premiers mots qui y contribuent sont gardés : les factorisations ne sont
+ * reconstruites que si on les demande.
+ */
+public final class Factorisations {
+
+    private final CodeTrie trie;
+    /** Lien d'échec : plus long suffixe propre du nœud qui est aussi un nœud du trie. */
+    private final int[] echec;
+    /** Prochain nœud terminal parmi les suffixes propres (AUCUN s'il n'y en a pas). */
+    private final int[] sortie;
+    private final int[] profondeur;
+
+    public Factorisations(Collection<String> langage) {
+        this(CodeTrie.depuis(langage));
+    }
+
+    public Factorisations(CodeTrie trie) {
+        this.trie = trie;
+        int n = trie.nombreNoeuds();
+        echec = new int[n];
+        sortie = new int[n];
+        profondeur = new int[n];
+
+        // Parcours en largeur : le lien d'échec d'un nœud ne dépend que de nœuds moins profonds
+        int[] file = new int[n];
+        int tete = 0;
+        int queue = 0;
+        sortie[0] = CodeTrie.AUCUN;
+        for (int e = trie.premierEnfant(0); e != CodeTrie.AUCUN; e = trie.frereSuivant(e)) {
+            echec[e] = 0;
+            sortie[e] = CodeTrie.AUCUN;
+            profondeur[e] = 1;
+            file[queue++] = e;
+        }
+        while (tete < queue) {
+            int u = file[tete++];
+            for (int e = trie.premierEnfant(u); e != CodeTrie.AUCUN; e = trie.frereSuivant(e)) {
+                char c = trie.etiquette(e);
+                int f = echec[u];
+                while (f != 0 && trie.enfant(f, c) == CodeTrie.AUCUN) {
+                    f = echec[f];
+                }
+                int cible = trie.enfant(f, c);
+                echec[e] = cible == CodeTrie.AUCUN ? 0 : cible;
+                sortie[e] = echec[e] != 0 && trie.estTerminal(echec[e]) ? echec[e] : sortie[echec[e]];
+                profondeur[e] = profondeur[u] + 1;
+                file[queue++] = e;
+            }
+        }
+    }
+
+    public Resultat compter(CharSequence mot) {
+        int n = mot.length();
+        byte[] comptes = new byte[n + 1];
+        // Deux premiers mots (nœuds terminaux) contribuant à chaque position
+        int[] contributions = new int[2 * (n + 1)];
+        Arrays.fill(contributions, CodeTrie.AUCUN);
+        comptes[0] = 1;
+
+        int etat = 0;
+        for (int j = 1; j <= n; j++) {
+            char c = mot.charAt(j - 1);
+            while (etat != 0 && trie.enfant(etat, c) == CodeTrie.AUCUN) {
+                etat = echec[etat];
+            }
+            int suivant = trie.enfant(etat, c);
+            etat = suivant == CodeTrie.AUCUN ? 0 : suivant;
+
+            int total = 0;
+            int gardees = 0;
+            for (int t = trie.estTerminal(etat) ? etat : sortie[etat]; t != CodeTrie.AUCUN; t = sortie[t]) {
+                int avant = comptes[j - profondeur[t]];
+                if (avant == 0) continue;
+                total += avant;
+                if (gardees < 2) {
+                    contributions[2 * j + gardees++] = t;
+                }
+                if (total >= 2 && gardees == 2) break;
+            }
+            comptes[j] = (byte) Math.min(2, total);
+        }
+
+        int nombre = comptes[n];
+        if (nombre > 0 && trie.estTerminal(0)) {
+            // Avec le mot vide, toute factorisation se prolonge par ε : une infinité
+            nombre = 2;
+        }
+        return new Resultat(mot.toString(), nombre, comptes, contributions);
+    }
+
+    public boolean estAmbigu(CharSequence mot) {
+        return compter(mot).nombre() >= 2;
+    }
+
+    /**
+     * Résultat du comptage ; les factorisations sont reconstruites à la demande.
+     */
+    public final class Resultat {
+
+        private final String mot;
+        private final int nombre;
+        private final byte[] comptes;
+        private final int[] contributions;
+
+        private Resultat(String mot, int nombre, byte[] comptes, int[] contributions) {
+            this.mot = mot;
+            this.nombre = nombre;
+            this.comptes = comptes;
+            this.contributions = contributions;
+        }
+
+        /** 0, 1, ou 2 pour « au moins deux ». */
+        public int nombre() {
+            return nombre;
+        }
+
+        public boolean estAmbigu() {
+            return nombre >= 2;
+        }
+
+        /** Une factorisation du mot, ou null s'il n'en a pas. */
+        public List<String> factorisation() {
+            if (nombre == 0) return null;
+            return remonter(mot.length(), new ArrayList<>());
+        }
+
+        /**
+         * Deux factorisations différentes du mot (vide si le mot n'est pas ambigu).
+         */
+        public List<List<String>> deuxFactorisations() {
+            if (nombre < 2) return List.of();
+            if (comptes[mot.length()] < 2) {
+                // Ambiguïté due au mot vide du langage
+                List<String> premiere = factorisation();
+                List<String> seconde = new ArrayList<>(premiere);
+                seconde.add("");
+                return List.of(premiere, seconde);
+            }
+            // Remonte par le premier mot jusqu'à une position où deux mots contribuent
+            List<String> fin = new ArrayList<>();
+            int j = mot.length();
+            while (contributions[2 * j + 1] == CodeTrie.AUCUN) {
+                int t = contributions[2 * j];
+                fin.add(mot.substring(j - profondeur[t], j));
+                j -= profondeur[t];
+            }
+            List<List<String>> resultat = new ArrayList<>();
+            for (int k = 0; k < 2; k++) {
+                int t = contributions[2 * j + k];
+                List<String> mots = new ArrayList<>(fin);
+                mots.add(mot.substring(j - profondeur[t], j));
+                resultat.add(remonter(j - profondeur[t], mots));
+            }
+            return resultat;
+        }
+
+        /**
+         * Complète (à l'envers) une factorisation de la fin du mot par le premier mot de chaque
+         * position depuis j, puis la remet dans l'ordre.
+         */
+        private List<String> remonter(int j, List<String> mots) {
+            while (j > 0) {
+                int t = contributions[2 * j];
+                mots.add(mot.substring(j - profondeur[t], j));
+                j -= profondeur[t];
+            }
+            Collections.reverse(mots);
+            return mots;
+        }
+    }
+}
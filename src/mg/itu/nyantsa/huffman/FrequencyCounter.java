@@ -0,0 +1,323 @@
+package huffman;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Comptage des fréquences avec normalisation intégrée : chaque caractère est classé par une
+ * table (lettre a-z, espace ou ignoré) et compté dans un histogramme int[] sans construire de
+ * texte normalisé ni de Map. Les gros textes sont découpés en morceaux comptés en parallèle sur
+ * le ForkJoinPool commun, puis les histogrammes partiels sont additionnés.
+ *
+ * Pour l'alphabet MINUSCULES, le résultat est un long[128] indexé par le caractère normalisé
+ * (seuls 'a'..'z' et ' ' sont non nuls). Les alphabets OCTETS et UNICODE ont leurs propres
+ * comptages, indexés par octet ou par point de code.
+ */
+public class FrequencyCounter {
+
+    public static final int TAILLE_HISTOGRAMME = 128;
+
+    /** Nombre de caractères (ou d'octets) en dessous duquel un morceau est compté séquentiellement. */
+    static final int SEUIL = 1 << 20;
+
+    /** Taille des régions de fichier projetées en mémoire. */
+    private static final long TAILLE_REGION = 1L << 28;
+
+    private static final int IGNORE = 27;
+
+    /** Classe de chaque caractère : 0-25 pour a-z, 26 pour l'espace, 27 s'il est ignoré. */
+    private static final byte[] CLASSE = new byte[65536];
+
+    static {
+        for (int c = 0; c < CLASSE.length; c++) {
+            int n = HuffmanCodingCharacter.normaliserCaractere((char) c);
+            CLASSE[c] = (byte) (n < 0 ? IGNORE : (n == ' ' ? 26 : n - 'a'));
+        }
+    }
+
+    private FrequencyCounter() {
+    }
+
+    public static long[] compter(CharSequence texte) {
+        if (texte.length() <= SEUIL) {
+            return versHistogramme(compterSequence(texte, 0, texte.length()));
+        }
+        return versHistogramme(ForkJoinPool.commonPool().invoke(new TacheTexte(texte, 0, texte.length())));
+    }
+
+    /**
+     * Caractères présents dans l'histogramme, dans l'ordre de leur première apparition dans le
+     * texte (parcouru seulement jusqu'à les avoir tous vus).
+     */
+    static char[] ordreApparition(CharSequence texte, long[] histogramme) {
+        char[] ordre = new char[caracteresPresents(histogramme).length];
+        boolean[] vus = new boolean[IGNORE];
+        int n = 0;
+        for (int i = 0; i < texte.length() && n < ordre.length; i++) {
+            int classe = CLASSE[texte.charAt(i)];
+            if (classe != IGNORE && !vus[classe]) {
+                vus[classe] = true;
+                ordre[n++] = classe == 26 ? ' ' : (char) ('a' + classe);
+            }
+        }
+        return ordre;
+    }
+
+    /** Caractères présents dans l'histogramme, par ordre de caractère. */
+    static char[] caracteresPresents(long[] histogramme) {
+        int n = 0;
+        for (long compte : histogramme) {
+            if (compte > 0) n++;
+        }
+        char[] presents = new char[n];
+        n = 0;
+        for (char c = 0; c < histogramme.length; c++) {
+            if (histogramme[c] > 0) presents[n++] = c;
+        }
+        return presents;
+    }
+
+    /**
+     * Compte les octets d'un fichier (lus comme des caractères ISO-8859-1, ce qui donne le même
+     * résultat que le texte UTF-8 normalisé) en projetant le fichier en mémoire par régions.
+     */
+    public static long[] compterFichier(Path chemin) throws IOException {
+        long[] total = new long[IGNORE + 1];
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            for (long debut = 0; debut < taille; debut += TAILLE_REGION) {
+                long longueur = Math.min(TAILLE_REGION, taille - debut);
+                MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, debut, longueur);
+                int[] partiel = ForkJoinPool.commonPool().invoke(new TacheOctets(region, 0, (int) longueur));
+                for (int i = 0; i < partiel.length; i++) {
+                    total[i] += partiel[i];
+                }
+            }
+        }
+        return versHistogramme(total);
+    }
+
+    /**
+     * Histogramme brut des 256 valeurs d'octets (alphabet OCTETS), compté en parallèle.
+     */
+    public static long[] compterOctets(byte[] donnees) {
+        int[] compte = donnees.length <= SEUIL
+            ? compterOctetsBruts(donnees, 0, donnees.length)
+            : ForkJoinPool.commonPool().invoke(new TacheOctetsBruts(donnees, 0, donnees.length));
+        long[] histogramme = new long[256];
+        for (int i = 0; i < 256; i++) histogramme[i] = compte[i];
+        return histogramme;
+    }
+
+    /**
+     * Histogramme des points de code (alphabet UNICODE) : un long[] indexé par point de code,
+     * dimensionné au plus grand point de code rencontré.
+     */
+    public static long[] compterCodePoints(CharSequence texte) {
+        int[] compte = texte.length() <= SEUIL
+            ? compterCodePointsSequence(texte, 0, texte.length())
+            : ForkJoinPool.commonPool().invoke(new TacheCodePoints(texte, 0, texte.length()));
+        int max = -1;
+        for (int i = 0; i < compte.length; i++) {
+            if (compte[i] != 0) max = i;
+        }
+        long[] histogramme = new long[max + 1];
+        for (int i = 0; i <= max; i++) histogramme[i] = compte[i];
+        return histogramme;
+    }
+
+    /**
+     * Nombre total de caractères gardés dans un histogramme.
+     */
+    public static long total(long[] histogramme) {
+        long total = 0;
+        for (long n : histogramme) total += n;
+        return total;
+    }
+
+    static int[] compterSequence(CharSequence texte, int debut, int fin) {
+        int[] compte = new int[IGNORE + 1];
+        if (texte instanceof String) {
+            String s = (String) texte;
+            for (int i = debut; i < fin; i++) {
+                compte[CLASSE[s.charAt(i)]]++;
+            }
+        } else {
+            for (int i = debut; i < fin; i++) {
+                compte[CLASSE[texte.charAt(i)]]++;
+            }
+        }
+        return compte;
+    }
+
+    private static int[] compterOctetsBruts(byte[] donnees, int debut, int fin) {
+        int[] compte = new int[256];
+        for (int i = debut; i < fin; i++) {
+            compte[donnees[i] & 0xFF]++;
+        }
+        return compte;
+    }
+
+    /**
+     * Compte les points de code de [debut, fin) ; un morceau ne commence jamais au milieu d'une
+     * paire de substitution (voir coupure).
+     */
+    private static int[] compterCodePointsSequence(CharSequence texte, int debut, int fin) {
+        int[] compte = new int[Character.MAX_CODE_POINT + 1];
+        for (int i = debut; i < fin; ) {
+            int cp = Character.codePointAt(texte, i);
+            compte[cp]++;
+            i += Character.charCount(cp);
+        }
+        return compte;
+    }
+
+    private static int coupure(CharSequence texte, int milieu) {
+        if (milieu > 0 && Character.isHighSurrogate(texte.charAt(milieu - 1))
+                && Character.isLowSurrogate(texte.charAt(milieu))) {
+            return milieu + 1;
+        }
+        return milieu;
+    }
+
+    private static int[] compterOctets(MappedByteBuffer region, int debut, int fin) {
+        int[] parOctet = new int[256];
+        for (int i = debut; i < fin; i++) {
+            parOctet[region.get(i) & 0xFF]++;
+        }
+        int[] compte = new int[IGNORE + 1];
+        for (int b = 0; b < 256; b++) {
+            compte[CLASSE[b]] += parOctet[b];
+        }
+        return compte;
+    }
+
+    private static long[] versHistogramme(int[] compte) {
+        long[] total = new long[compte.length];
+        for (int i = 0; i < compte.length; i++) total[i] = compte[i];
+        return versHistogramme(total);
+    }
+
+    private static long[] versHistogramme(long[] compte) {
+        long[] histogramme = new long[TAILLE_HISTOGRAMME];
+        for (int i = 0; i < 26; i++) {
+            histogramme['a' + i] = compte[i];
+        }
+        histogramme[' '] = compte[26];
+        return histogramme;
+    }
+
+    private static int[] additionner(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+        return a;
+    }
+
+    private static final class TacheTexte extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence texte;
+        private final int debut;
+        private final int fin;
+
+        TacheTexte(CharSequence texte, int debut, int fin) {
+            this.texte = texte;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fin - debut <= SEUIL) {
+                return compterSequence(texte, debut, fin);
+            }
+            int milieu = (debut + fin) >>> 1;
+            TacheTexte gauche = new TacheTexte(texte, debut, milieu);
+            gauche.fork();
+            int[] droite = new TacheTexte(texte, milieu, fin).compute();
+            return additionner(gauche.join(), droite);
+        }
+    }
+
+    private static final class TacheOctetsBruts extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] donnees;
+        private final int debut;
+        private final int fin;
+
+        TacheOctetsBruts(byte[] donnees, int debut, int fin) {
+            this.donnees = donnees;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fin - debut <= SEUIL) {
+                return compterOctetsBruts(donnees, debut, fin);
+            }
+            int milieu = (debut + fin) >>> 1;
+            TacheOctetsBruts gauche = new TacheOctetsBruts(donnees, debut, milieu);
+            gauche.fork();
+            int[] droite = new TacheOctetsBruts(donnees, milieu, fin).compute();
+            return additionner(gauche.join(), droite);
+        }
+    }
+
+    private static final class TacheCodePoints extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence texte;
+        private final int debut;
+        private final int fin;
+
+        TacheCodePoints(CharSequence texte, int debut, int fin) {
+            this.texte = texte;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fin - debut <= 4 * SEUIL) {
+                return compterCodePointsSequence(texte, debut, fin);
+            }
+            int milieu = coupure(texte, (debut + fin) >>> 1);
+            TacheCodePoints gauche = new TacheCodePoints(texte, debut, milieu);
+            gauche.fork();
+            int[] droite = new TacheCodePoints(texte, milieu, fin).compute();
+            return additionner(gauche.join(), droite);
+        }
+    }
+
+    private static final class TacheOctets extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedByteBuffer region;
+        private final int debut;
+        private final int fin;
+
+        TacheOctets(MappedByteBuffer region, int debut, int fin) {
+            this.region = region;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fin - debut <= SEUIL) {
+                return compterOctets(region, debut, fin);
+            }
+            int milieu = (debut + fin) >>> 1;
+            TacheOctets gauche = new TacheOctets(region, debut, milieu);
+            gauche.fork();
+            int[] droite = new TacheOctets(region, milieu, fin).compute();
+            return additionner(gauche.join(), droite);
+        }
+    }
+}
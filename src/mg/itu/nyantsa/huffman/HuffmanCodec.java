@@ -0,0 +1,259 @@
+package huffman;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codeur Huffman pour un alphabet donné ({@link Alphabet}) : même construction rapide des
+ * longueurs (deux files, {@link HuffmanLengths}), codes canoniques et décodage par tables
+ * ({@link HuffmanDecoder}) pour les trois modes.
+ *
+ * Les données sont manipulées en octets : le texte est attendu en UTF-8 et restitué en UTF-8.
+ *
+ * La longueur des codes peut être bornée (package-merge, {@link HuffmanLengths#limitees}) ; par
+ * défaut elle l'est à {@link HuffmanDecoder#LONGUEUR_MAX} pour que la table reste décodable.
+ * Le coût de la limite sur le texte de référence est donné par {@link #surcoutLimitation()}.
+ */
+public final class HuffmanCodec {
+
+    private final Alphabet alphabet;
+    private final HuffmanTable table;
+    private final HuffmanDecoder decodeur;
+    private final int indiceEchappement;
+
+    /** Bits du texte de référence avec les codes optimaux et avec les codes retenus (0 sans référence). */
+    private final long bitsOptimaux;
+    private final long bitsReference;
+
+    private HuffmanCodec(Alphabet alphabet, HuffmanTable table) {
+        this(alphabet, table, 0, 0);
+    }
+
+    private HuffmanCodec(Alphabet alphabet, HuffmanTable table, long bitsOptimaux, long bitsReference) {
+        this.alphabet = alphabet;
+        this.table = table;
+        this.decodeur = new HuffmanDecoder(table);
+        this.indiceEchappement = table.indiceDe(Alphabet.ECHAPPEMENT);
+        if (alphabet == Alphabet.UNICODE && indiceEchappement < 0) {
+            throw new IllegalArgumentException("Une table UNICODE doit contenir le symbole d'échappement");
+        }
+        this.bitsOptimaux = bitsOptimaux;
+        this.bitsReference = bitsReference;
+    }
+
+    public static HuffmanCodec depuisTable(Alphabet alphabet, HuffmanTable table) {
+        return new HuffmanCodec(alphabet, table);
+    }
+
+    public static HuffmanCodec construire(Alphabet alphabet, String reference) {
+        return construire(alphabet, reference.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Construit un code canonique à partir des fréquences d'un texte (ou de données) de référence,
+     * avec des codes d'au plus {@link HuffmanDecoder#LONGUEUR_MAX} bits.
+     */
+    public static HuffmanCodec construire(Alphabet alphabet, byte[] reference) {
+        return construire(alphabet, reference, HuffmanDecoder.LONGUEUR_MAX);
+    }
+
+    public static HuffmanCodec construire(Alphabet alphabet, String reference, int longueurMax) {
+        return construire(alphabet, reference.getBytes(StandardCharsets.UTF_8), longueurMax);
+    }
+
+    /**
+     * Construit un code canonique dont aucun code ne dépasse longueurMax bits.
+     *
+     * @throws IllegalArgumentException si longueurMax dépasse la limite du décodeur ou si
+     *         l'alphabet ne tient pas dans des codes de cette longueur
+     */
+    public static HuffmanCodec construire(Alphabet alphabet, byte[] reference, int longueurMax) {
+        if (longueurMax > HuffmanDecoder.LONGUEUR_MAX) {
+            throw new IllegalArgumentException("Longueur maximale trop grande pour le décodeur : "
+                + longueurMax + " (maximum " + HuffmanDecoder.LONGUEUR_MAX + ")");
+        }
+        long[] frequences = frequences(alphabet, reference);
+        int[] optimales = HuffmanLengths.optimales(frequences);
+        int[] longueurs = HuffmanLengths.limitees(frequences, longueurMax);
+        return new HuffmanCodec(alphabet, tableCanonique(frequences, longueurs),
+            HuffmanLengths.coutEnBits(frequences, optimales), HuffmanLengths.coutEnBits(frequences, longueurs));
+    }
+
+    /**
+     * Fréquences indexées par symbole pour l'alphabet choisi.
+     * OCTETS : +1 sur chaque octet pour que toute donnée binaire reste codable.
+     * UNICODE : le symbole d'échappement reçoit une occurrence.
+     */
+    static long[] frequences(Alphabet alphabet, byte[] reference) {
+        switch (alphabet) {
+            case MINUSCULES:
+                return FrequencyCounter.compter(new String(reference, StandardCharsets.ISO_8859_1));
+            case OCTETS: {
+                long[] f = FrequencyCounter.compterOctets(reference);
+                for (int i = 0; i < f.length; i++) f[i]++;
+                return f;
+            }
+            default: {
+                long[] parCodePoint = FrequencyCounter.compterCodePoints(new String(reference, StandardCharsets.UTF_8));
+                long[] f = Arrays.copyOf(parCodePoint, Alphabet.ECHAPPEMENT + 1);
+                f[Alphabet.ECHAPPEMENT] = 1;
+                return f;
+            }
+        }
+    }
+
+    /**
+     * Table canonique des symboles de longueur non nulle (le symbole est l'indice dans le tableau).
+     */
+    static HuffmanTable tableCanonique(long[] frequences, int[] longueurs) {
+        int n = 0;
+        for (int l : longueurs) if (l > 0) n++;
+        int[] symboles = new int[n];
+        int[] l = new int[n];
+        int k = 0;
+        for (int s = 0; s < longueurs.length; s++) {
+            if (longueurs[s] > 0) {
+                symboles[k] = s;
+                l[k] = longueurs[s];
+                k++;
+            }
+        }
+        return HuffmanTable.canonique(symboles, l);
+    }
+
+    public Alphabet alphabet() {
+        return alphabet;
+    }
+
+    public HuffmanTable table() {
+        return table;
+    }
+
+    public HuffmanDecoder decodeur() {
+        return decodeur;
+    }
+
+    /**
+     * Taille en bits du texte de référence avec les codes retenus (0 pour un codec construit
+     * depuis une table).
+     */
+    public long bitsReference() {
+        return bitsReference;
+    }
+
+    /**
+     * Surcoût relatif de la limite de longueur sur le texte de référence : 0 si les codes
+     * optimaux respectaient déjà la limite.
+     */
+    public double surcoutLimitation() {
+        return bitsOptimaux == 0 ? 0 : (double) (bitsReference - bitsOptimaux) / bitsOptimaux;
+    }
+
+    public BitBuffer encoderTexte(String texte) {
+        return encoder(texte.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String decoderTexte(BitBuffer bits) {
+        return new String(decoder(bits), StandardCharsets.UTF_8);
+    }
+
+    public BitBuffer encoder(byte[] donnees) {
+        BitBuffer bits = new BitBuffer(Math.max(64, (long) donnees.length * 6));
+        switch (alphabet) {
+            case MINUSCULES:
+                for (byte b : donnees) {
+                    int c = HuffmanCodingCharacter.normaliserCaractere((char) (b & 0xFF));
+                    if (c < 0) continue;
+                    int i = table.indiceDe(c);
+                    if (i >= 0) bits.ajouter(table.codes[i], table.longueurs[i]);
+                }
+                break;
+            case OCTETS:
+                for (byte b : donnees) {
+                    int i = table.indiceDe(b & 0xFF);
+                    if (i < 0) {
+                        throw new IllegalArgumentException("Octet absent de la table : " + (b & 0xFF));
+                    }
+                    bits.ajouter(table.codes[i], table.longueurs[i]);
+                }
+                break;
+            default: {
+                String texte = new String(donnees, StandardCharsets.UTF_8);
+                for (int p = 0; p < texte.length(); ) {
+                    int cp = texte.codePointAt(p);
+                    p += Character.charCount(cp);
+                    ajouterCodePoint(bits, cp);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private void ajouterCodePoint(BitBuffer bits, int cp) {
+        int i = table.indiceDe(cp);
+        if (i >= 0) {
+            bits.ajouter(table.codes[i], table.longueurs[i]);
+        } else {
+            bits.ajouter(table.codes[indiceEchappement], table.longueurs[indiceEchappement]);
+            bits.ajouter(cp, Alphabet.BITS_ECHAPPEMENT);
+        }
+    }
+
+    public byte[] decoder(BitBuffer bits) {
+        if (alphabet != Alphabet.UNICODE) {
+            int[] indices = decodeur.decoderIndices(bits, 0, bits.longueur());
+            byte[] sortie = new byte[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                sortie[i] = (byte) table.symboles[indices[i]];
+            }
+            return sortie;
+        }
+        int[] codePoints = decoderUnicode(bits);
+        return new String(codePoints, 0, codePoints.length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Décodage UNICODE : comme HuffmanDecoder, mais une entrée multi-symboles est coupée au
+     * premier échappement, qui est suivi de 21 bits bruts.
+     */
+    private int[] decoderUnicode(BitBuffer bits) {
+        long fin = bits.longueur();
+        long garde = Math.max(HuffmanDecoder.BITS_NIVEAU1, decodeur.longueurMax());
+        int[] sortie = new int[(int) Math.min(fin + 1, 1 << 20)];
+        int n = 0;
+        long pos = 0;
+        while (pos < fin) {
+            if (n + 3 > sortie.length) sortie = Arrays.copyOf(sortie, sortie.length * 2 + 3);
+            long fenetre = bits.lire64(pos);
+            if (fin - pos >= garde) {
+                long e = decodeur.entreeMulti(fenetre);
+                int nb = (int) (e >>> 6) & 3;
+                boolean echappement = false;
+                for (int k = 0; k < nb; k++) {
+                    int idx = (int) (e >>> (16 * (k + 1))) & 0xFFFF;
+                    if (idx == indiceEchappement) {
+                        echappement = true;
+                        break;
+                    }
+                    sortie[n++] = table.symboles[idx];
+                    pos += table.longueurs[idx];
+                }
+                if (nb != 0 && !echappement) continue;
+                fenetre = bits.lire64(pos);
+            }
+            int r = decodeur.decoderUn(fenetre);
+            if (r < 0 || (r & 0xFF) > fin - pos) break;
+            pos += r & 0xFF;
+            int idx = r >>> 8;
+            if (idx == indiceEchappement) {
+                if (fin - pos < Alphabet.BITS_ECHAPPEMENT) break;
+                int cp = (int) (bits.lire64(pos) >>> (64 - Alphabet.BITS_ECHAPPEMENT));
+                sortie[n++] = cp <= Character.MAX_CODE_POINT ? cp : 0xFFFD;
+                pos += Alphabet.BITS_ECHAPPEMENT;
+            } else {
+                sortie[n++] = table.symboles[idx];
+            }
+        }
+        return Arrays.copyOf(sortie, n);
+    }
+}
@@ -2,32 +2,83 @@ package huffman;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
-import java.util.Properties;
 import java.util.Scanner;
 
-public class HuffmanCodingCharacter {
+public class HuffmanCodingCharacter implements EntropyCoder {
+
+    public static final String ID = "huffman";
+
+    /** Table utilisée par les méthodes d'instance ({@link EntropyCoder}). */
+    private final HuffmanTable table;
+    private final HuffmanDecoder decodeur;
+
+    /**
+     * Codeur sur une table fixe, partagée hors bande entre l'émetteur et le récepteur.
+     */
+    public HuffmanCodingCharacter(HuffmanTable table) {
+        this(new HuffmanDecoder(table));
+    }
+
+    private HuffmanCodingCharacter(HuffmanDecoder decodeur) {
+        this.table = decodeur.table();
+        this.decodeur = decodeur;
+    }
+
+    /**
+     * Codeur sur la table de configuration (CHEMIN_TABLE), avec le décodeur gardé en cache.
+     */
+    public static HuffmanCodingCharacter depuisConfiguration() throws IOException {
+        return new HuffmanCodingCharacter(lireDecodeurHuffman());
+    }
+
+    /**
+     * Codeur sur la table d'un fichier (.properties ou binaire), avec le décodeur gardé en cache
+     * par {@link HuffmanTables}.
+     */
+    public static HuffmanCodingCharacter depuisFichier(Path chemin) throws IOException {
+        return new HuffmanCodingCharacter(HuffmanTables.decodeur(chemin));
+    }
+
+    @Override
+    public String identifiant() {
+        return ID;
+    }
+
+    @Override
+    public BitBuffer encoderBits(CharSequence texte) {
+        return new ParallelHuffmanEncoder(table).encoder(texte);
+    }
+
+    @Override
+    public String decoderBits(BitBuffer bits) {
+        return decodeur.decoder(bits);
+    }
+
     /**
      * Classe pour représenter un nœud dans l'arbre de Huffman
      */
     static class HuffmanNode implements Comparable<HuffmanNode> {
         char caractere;
-        int frequence;
+        long frequence;
         HuffmanNode gauche, droite;
         
-        public HuffmanNode(char caractere, int frequence) {
+        public HuffmanNode(char caractere, long frequence) {
             this.caractere = caractere;
             this.frequence = frequence;
             this.gauche = null;
             this.droite = null;
         }
         
-        public HuffmanNode(int frequence, HuffmanNode gauche, HuffmanNode droite) {
+        public HuffmanNode(long frequence, HuffmanNode gauche, HuffmanNode droite) {
             this.caractere = '\0';
             this.frequence = frequence;
             this.gauche = gauche;
@@ -36,7 +87,7 @@ public class HuffmanCodingCharacter {
         
         @Override
         public int compareTo(HuffmanNode autre) 
-        {    return this.frequence - autre.frequence; }
+        {    return Long.compare(this.frequence, autre.frequence); }
         
         public boolean estFeuille() 
         {   return gauche == null && droite == null; }
@@ -53,16 +104,29 @@ public class HuffmanCodingCharacter {
         
         StringBuilder texteNormalise = new StringBuilder();
         for (char c : texte.toCharArray()) {
-            char charMinuscule = Character.toLowerCase(c);
-
-            // on Garde seulement les lettres (a-z) et les espaces (mitovy fona maj na min a=A iray ihany)
-            if ((charMinuscule >= 'a' && charMinuscule <= 'z') || charMinuscule == ' ') {
-                texteNormalise.append(charMinuscule);
+            int charMinuscule = normaliserCaractere(c);
+            if (charMinuscule >= 0) {
+                texteNormalise.append((char) charMinuscule);
             }
         }
         
         return texteNormalise.toString();
     }
+
+    /**
+     * Normalise un seul caractère.
+     *
+     * @return le caractère en minuscule s'il est gardé, -1 sinon
+     */
+    static int normaliserCaractere(char c) {
+        char charMinuscule = Character.toLowerCase(c);
+
+        // on Garde seulement les lettres (a-z) et les espaces (mitovy fona maj na min a=A iray ihany)
+        if ((charMinuscule >= 'a' && charMinuscule <= 'z') || charMinuscule == ' ') {
+            return charMinuscule;
+        }
+        return -1;
+    }
     
     /**
      * Construit l'arbre de Huffman à partir d'un texte.
@@ -71,32 +135,38 @@ public class HuffmanCodingCharacter {
      * @return La racine de l'arbre de Huffman
      */
     private static HuffmanNode construireArbreHuffman(String texte) {
-        // Normalisation du texte 
-        String texteNormalise = normaliserTexte(texte);
-        
-        // Calcul les fréquences des caractères
-        Map<Character, Integer> frequences = new HashMap<>();
-        for (char c : texteNormalise.toCharArray()) {
-            frequences.put(c, frequences.getOrDefault(c, 0) + 1);
-        }
-        
-        // Si le texte normalisé est vide, on  return null
-        if (frequences.isEmpty()) {
-            return null;
+        // Normalisation et calcul des fréquences en une seule passe
+        long[] histogramme = FrequencyCounter.compter(texte);
+        return construireArbreHuffman(histogramme, FrequencyCounter.ordreApparition(texte, histogramme));
+    }
+
+    /**
+     * Construit l'arbre de Huffman à partir d'un histogramme indexé par caractère normalisé ;
+     * ordre donne les caractères présents dans l'ordre de leur première apparition.
+     */
+    private static HuffmanNode construireArbreHuffman(long[] histogramme, char[] ordre) {
+        // Les feuilles sont ajoutées dans l'ordre d'un HashMap rempli dans l'ordre du texte, comme
+        // avant : à fréquences égales, la file de priorité, et donc les codes, en dépendent
+        Map<Character, Long> frequences = new HashMap<>();
+        for (char c : ordre) {
+            frequences.put(c, histogramme[c]);
         }
-        
-        // Créer une file de priorité pour les nœuds
         PriorityQueue<HuffmanNode> fileNoeuds = new PriorityQueue<>();
-        for (Map.Entry<Character, Integer> entry : frequences.entrySet()) {
+        for (Map.Entry<Character, Long> entry : frequences.entrySet()) {
             fileNoeuds.add(new HuffmanNode(entry.getKey(), entry.getValue()));
         }
+
+        // Si le texte normalisé est vide, on  return null
+        if (fileNoeuds.isEmpty()) {
+            return null;
+        }
         
         // Construction de l'arbre de Huffman
         while (fileNoeuds.size() > 1) {
             HuffmanNode gauche = fileNoeuds.poll();
             HuffmanNode droite = fileNoeuds.poll();
             
-            int sommeFrequences = gauche.frequence + droite.frequence;
+            long sommeFrequences = gauche.frequence + droite.frequence;
             fileNoeuds.add(new HuffmanNode(sommeFrequences, gauche, droite));
         }
         
@@ -162,14 +232,46 @@ public class HuffmanCodingCharacter {
         Map<Character, String> tableCodage = genererTableCodage(racine);
         
         // Encodage du texte normalisé
-        StringBuilder texteCodé = new StringBuilder();
-        for (char c : texteNormalise.toCharArray()) {
-            texteCodé.append(tableCodage.get(c));
-        }
-        
-        return new AbstractMap.SimpleEntry<>(texteCodé.toString(), tableCodage);
+        return new AbstractMap.SimpleEntry<>(encoderFromTable(texteNormalise, tableCodage), tableCodage);
     }
     
+    /**
+     * Encode un texte avec des codes canoniques d'au plus longueurMax bits (package-merge).
+     * Sans effet sur les longueurs si l'arbre optimal respecte déjà la limite ; le coût de la
+     * limite est donné par {@link #surcoutLimitation(String, int)}.
+     *
+     * @throws IllegalArgumentException si les caractères présents ne tiennent pas dans cette longueur
+     */
+    public static Map.Entry<String, Map<Character, String>> encoder(String texte, int longueurMax) {
+        if (texte == null || texte.isEmpty()) {
+            return new AbstractMap.SimpleEntry<>("", new HashMap<>());
+        }
+        long[] histogramme = FrequencyCounter.compter(texte);
+        if (FrequencyCounter.total(histogramme) == 0) {
+            return new AbstractMap.SimpleEntry<>("", new HashMap<>());
+        }
+        HuffmanTable table = HuffmanCodec.tableCanonique(histogramme,
+            HuffmanLengths.limitees(histogramme, longueurMax));
+        Map<Character, String> tableCodage = table.versMap();
+        return new AbstractMap.SimpleEntry<>(encoderFromTable(texte, tableCodage), tableCodage);
+    }
+
+    /**
+     * Coût de la limite de longueur sur le texte : nombre de bits du texte encodé avec des codes
+     * d'au plus longueurMax bits, moins celui du code optimal sans limite (0 si l'arbre optimal
+     * respecte déjà la limite).
+     */
+    public static long surcoutLimitation(String texte, int longueurMax) {
+        long[] histogramme = FrequencyCounter.compter(texte == null ? "" : texte);
+        int[] limitees = HuffmanLengths.limitees(histogramme, longueurMax);
+        int[] optimales = HuffmanLengths.optimales(histogramme);
+        long surcout = 0;
+        for (int c = 0; c < histogramme.length; c++) {
+            surcout += histogramme[c] * (limitees[c] - optimales[c]);
+        }
+        return surcout;
+    }
+
     /**
      * Décode un texte encodé avec Huffman en utilisant la table de codage.
      * 
@@ -179,6 +281,22 @@ public class HuffmanCodingCharacter {
      */
     //  on donnes a et b et modulo et u0 ,longeuer bites message cacher,*/
     public static String decoder(String texteCodé, Map<Character, String> tableCodage) {
+        // Décodage par tables ; le parcours bit à bit ne sert plus que pour les tables hors limites
+        HuffmanDecoder decodeur;
+        BitBuffer bits;
+        try {
+            decodeur = new HuffmanDecoder(HuffmanTable.depuisMap(tableCodage));
+            bits = BitBuffer.depuisChaine(texteCodé);
+        } catch (IllegalArgumentException e) {
+            return decoderBitParBit(texteCodé, tableCodage);
+        }
+        return decodeur.decoder(bits);
+    }
+
+    /**
+     * Décodage historique, un bit à la fois (codes de plus de 27 bits ou entrée non binaire).
+     */
+    private static String decoderBitParBit(String texteCodé, Map<Character, String> tableCodage) {
         // Inverser la table de codage
         Map<String, Character> tableDecodage = new HashMap<>();
         for (Map.Entry<Character, String> entry : tableCodage.entrySet()) {
@@ -216,6 +334,11 @@ public class HuffmanCodingCharacter {
      * Le texte sera automatiquement normalisé.
      */
     public static String encoderFromTable(String texte, Map<Character, String> tableCodage) {
+        // Encodage parallèle en deux passes, sauf pour une table que l'encodeur ne sait pas représenter
+        HuffmanTable table = tablePourEncodeurParallele(tableCodage);
+        if (table != null) {
+            return new ParallelHuffmanEncoder(table).encoder(texte).enChaine();
+        }
         String texteNormalise = normaliserTexte(texte);
         StringBuilder binaire = new StringBuilder();
         for (char c : texteNormalise.toCharArray()) {
@@ -227,6 +350,45 @@ public class HuffmanCodingCharacter {
         return binaire.toString();
     }
     
+    /**
+     * Table compacte équivalente à tableCodage, ou null si un code est vide, non binaire ou trop long.
+     */
+    private static HuffmanTable tablePourEncodeurParallele(Map<Character, String> tableCodage) {
+        try {
+            HuffmanTable table = HuffmanTable.depuisMap(tableCodage);
+            if (table.taille() == tableCodage.size() && table.longueurMax() <= ParallelHuffmanEncoder.LONGUEUR_MAX) {
+                return table;
+            }
+        } catch (IllegalArgumentException e) {
+            // code de plus de 64 bits : encodage séquentiel
+        }
+        return null;
+    }
+
+    /**
+     * Encode un flux de texte de taille quelconque vers un flux de bits compactés
+     * (format de {@link HuffmanOutputStream}), en mémoire constante.
+     *
+     * @return le nombre de bits de code écrits
+     */
+    public static long encoderFlux(InputStream texte, OutputStream sortie, HuffmanTable table) throws IOException {
+        try (HuffmanOutputStream encodeur = new HuffmanOutputStream(sortie, table)) {
+            texte.transferTo(encodeur);
+            return encodeur.bitsEcrits();
+        }
+    }
+
+    /**
+     * Décode un flux produit par encoderFlux vers le texte, en mémoire constante.
+     *
+     * @return le nombre d'octets de texte écrits
+     */
+    public static long decoderFlux(InputStream bits, OutputStream texte, HuffmanDecoder decodeur) throws IOException {
+        try (HuffmanInputStream entree = new HuffmanInputStream(bits, decodeur)) {
+            return entree.transferTo(texte);
+        }
+    }
+
     /**
      * Méthode utilitaire pour afficher le texte normalisé
      */
@@ -238,39 +400,37 @@ public class HuffmanCodingCharacter {
      * Calcule les fréquences relatives des caractères
      */
     public static Map<Character, Double> calculerFrequencesRelatives(String texte) {
-        String texteNormalise = normaliserTexte(texte);
-        Map<Character, Integer> frequencesAbsolues = new HashMap<>();
-        
-        // Compter les occurrences
-        for (char c : texteNormalise.toCharArray()) {
-            frequencesAbsolues.put(c, frequencesAbsolues.getOrDefault(c, 0) + 1);
-        }
+        // Compter les occurrences (normalisation comprise)
+        long[] histogramme = FrequencyCounter.compter(texte == null ? "" : texte);
         
         // Convertir en fréquences relatives
         Map<Character, Double> frequencesRelatives = new HashMap<>();
-        int total = texteNormalise.length();
-        for (Map.Entry<Character, Integer> entry : frequencesAbsolues.entrySet()) {
-            frequencesRelatives.put(entry.getKey(), (double) entry.getValue() / total);
+        long total = FrequencyCounter.total(histogramme);
+        for (char c = 0; c < histogramme.length; c++) {
+            if (histogramme[c] > 0) {
+                frequencesRelatives.put(c, (double) histogramme[c] / total);
+            }
         }
         
         return frequencesRelatives;
     }
+
+    /**
+     * Construit la table de codage d'un texte de référence lu directement depuis un fichier,
+     * sans le charger en mémoire (comptage parallèle sur le fichier projeté).
+     */
+    public static Map<Character, String> construireTableDepuisFichier(Path chemin) throws IOException {
+        long[] histogramme = FrequencyCounter.compterFichier(chemin);
+        // Sans le texte, l'ordre d'apparition est inconnu : ordre des caractères
+        return genererTableCodage(construireArbreHuffman(histogramme, FrequencyCounter.caracteresPresents(histogramme)));
+    }
     
     /**
      * Calcule l'entropie de Shannon du texte 
      * H(X) = -Σ p(x) * log2(p(x)) 
      */
     public static double calculerEntropie(String texte) {
-        Map<Character, Double> frequences = calculerFrequencesRelatives(texte);
-        double entropie = 0.0;
-        
-        for (double p : frequences.values()) {
-            if (p > 0) {
-                entropie -= p * (Math.log(p) / Math.log(2));
-            }
-        }
-        
-        return entropie;
+        return HuffmanStats.calculer(texte, Map.of()).entropie();
     }
     
     /**
@@ -278,20 +438,7 @@ public class HuffmanCodingCharacter {
      * L = Σ p(x) * longueur(code(x))
      */
     public static double calculerLongueurMoyenne(String texte, Map<Character, String> tableCodage) {
-        Map<Character, Double> frequences = calculerFrequencesRelatives(texte);
-        double longueurMoyenne = 0.0;
-        
-        for (Map.Entry<Character, Double> entry : frequences.entrySet()) {
-            char caractere = entry.getKey();
-            double probabilite = entry.getValue();
-            
-            if (tableCodage.containsKey(caractere)) {
-                int longueurCode = tableCodage.get(caractere).length();
-                longueurMoyenne += probabilite * longueurCode;
-            }
-        }
-        
-        return longueurMoyenne;
+        return HuffmanStats.calculer(texte, tableCodage).longueurMoyenne();
     }
     
     /**
@@ -299,28 +446,24 @@ public class HuffmanCodingCharacter {
      * Efficacité = H(X) / L * 100%
      */
     public static double calculerEfficacite(String texte, Map<Character, String> tableCodage) {
-        double entropie = calculerEntropie(texte);
-        double longueurMoyenne = calculerLongueurMoyenne(texte, tableCodage);
-        
-        if (longueurMoyenne == 0) return 0;
-        return (entropie / longueurMoyenne) * 100;
+        return HuffmanStats.calculer(texte, tableCodage).efficacite();
     }
     
     /**
      * Affiche la distribution des longueurs de codes
      */
     public static void afficherDistributionLongueurs(Map<Character, String> tableCodage) {
-        Map<Integer, Integer> distributionLongueurs = new HashMap<>();
-        
-        // on compte les codes par longueur
-        for (String code : tableCodage.values()) {
-            int longueur = code.length();
-            distributionLongueurs.put(longueur, distributionLongueurs.getOrDefault(longueur, 0) + 1);
-        }
-        
+        afficherDistributionLongueurs(HuffmanStats.depuisHistogramme(
+            new long[FrequencyCounter.TAILLE_HISTOGRAMME], tableCodage));
+    }
+
+    private static void afficherDistributionLongueurs(HuffmanStats stats) {
+        int[] distribution = stats.distributionLongueurs();
         System.out.println("\n=== DISTRIBUTION DES LONGUEURS DE CODES ===");
-        for (Map.Entry<Integer, Integer> entry : distributionLongueurs.entrySet()) {
-            System.out.println("Longueur " + entry.getKey() + " bits : " + entry.getValue() + " caractères");
+        for (int longueur = 0; longueur < distribution.length; longueur++) {
+            if (distribution[longueur] > 0) {
+                System.out.println("Longueur " + longueur + " bits : " + distribution[longueur] + " caractères");
+            }
         }
     }
     
@@ -329,32 +472,33 @@ public class HuffmanCodingCharacter {
      * Σ 2^(-longueur) ≤ 1
      */
     public static boolean verifierInegaliteKraft(Map<Character, String> tableCodage) {
-        double sommeKraft = 0.0;
-        
-        for (String code : tableCodage.values()) {
-            sommeKraft += Math.pow(2, -code.length());
-        }
-        
-        return sommeKraft <= 1.0;
+        // Somme entière Σ 2^(Lmax - l) <= 2^Lmax, sans arrondi de Math.pow
+        return HuffmanStats.depuisHistogramme(new long[FrequencyCounter.TAILLE_HISTOGRAMME], tableCodage)
+            .kraftRespectee();
     }
     
     /**
      * Analyse complète du codage de Huffman
      */
     public static void analyserCodeHuffman(String texte, Map<Character, String> tableCodage) {
+        analyserCodeHuffman(HuffmanStats.calculer(texte, tableCodage), tableCodage);
+    }
+
+    /**
+     * Analyse complète à partir de statistiques déjà calculées (un seul passage sur le texte,
+     * éventuellement cumulées sur plusieurs fichiers avec HuffmanStats.fusionner).
+     */
+    public static void analyserCodeHuffman(HuffmanStats stats, Map<Character, String> tableCodage) {
         System.out.println("\n=== ANALYSE THÉORIQUE DU CODAGE DE HUFFMAN ===");
         
         // Statistiques de base
-        String texteNormalise = normaliserTexte(texte);
-        int nombreCaracteres = calculerFrequencesRelatives(texte).size();
-        
-        System.out.println("Nombre de caractères distincts : " + nombreCaracteres);
-        System.out.println("Longueur du texte normalisé : " + texteNormalise.length());
+        System.out.println("Nombre de caractères distincts : " + stats.caracteresDistincts());
+        System.out.println("Longueur du texte normalisé : " + stats.total());
         
         // Calculs théoriques
-        double entropie = calculerEntropie(texte);
-        double longueurMoyenne = calculerLongueurMoyenne(texte, tableCodage);
-        double efficacite = calculerEfficacite(texte, tableCodage);
+        double entropie = stats.entropie();
+        double longueurMoyenne = stats.longueurMoyenne();
+        double efficacite = stats.efficacite();
         
         System.out.println(String.format("Entropie de Shannon H(X) : %.4f bits/symbole", entropie));
         System.out.println(String.format("Longueur moyenne L : %.4f bits/symbole", longueurMoyenne));
@@ -365,24 +509,23 @@ public class HuffmanCodingCharacter {
             entropie, entropie + 1));
         
         // Vérifications
-        boolean kraftValide = verifierInegaliteKraft(tableCodage);
+        boolean kraftValide = stats.kraftRespectee();
         System.out.println("Inégalité de Kraft respectée : " + (kraftValide ? "OUI" : "NON"));
         
         boolean huffmanOptimal = longueurMoyenne <= entropie + 1;
         System.out.println("Codage de Huffman optimal : " + (huffmanOptimal ? "OUI" : "NON"));
         
         // Distribution des longueurs
-        afficherDistributionLongueurs(tableCodage);
+        afficherDistributionLongueurs(stats);
 
         System.out.println("\n=== ANALYSE PAR CARACTÈRE ===");
-        Map<Character, Double> frequences = calculerFrequencesRelatives(texte);
         System.out.println("Caractère | Fréquence | Code Huffman | Longueur | Contribution");
         System.out.println("----------|-----------|--------------|----------|-------------");
         
         for (Map.Entry<Character, String> entry : tableCodage.entrySet()) {
             char c = entry.getKey();
             String code = entry.getValue();
-            double freq = frequences.get(c);
+            double freq = stats.frequence(c);
             double contribution = freq * code.length();
             
             String charDisplay = (c == ' ') ? "ESPACE" : "'" + c + "'";
@@ -391,25 +534,36 @@ public class HuffmanCodingCharacter {
         }
     }
 
+    public static final String CHEMIN_TABLE = "src/mg/itu/nyantsa/config/config.properties";
+
     public static Map<Character, String> lireTableHuffman() throws IOException {
-        String cheminRelatif = "src/mg/itu/nyantsa/config/config.properties";
-        String cheminAbsolu = Paths.get(cheminRelatif).toAbsolutePath().toString();
-    
-        Properties properties = new Properties();
-        properties.load(new FileInputStream(cheminAbsolu));
-    
-        Map<Character, String> tableCodage = new HashMap<>();
-        for (String key : properties.stringPropertyNames()) {
-            if (key.length() == 1) {
-                char caractere = key.charAt(0);
-                String code = properties.getProperty(key);
-                tableCodage.put(caractere, code);
-            }
+        String cheminAbsolu = Paths.get(CHEMIN_TABLE).toAbsolutePath().toString();
+
+        try (FileInputStream in = new FileInputStream(cheminAbsolu)) {
+            return HuffmanTables.lireProperties(in);
         }
-        return tableCodage;
+    }
+
+    /**
+     * Vérification préfixe de la table de configuration (faite au chargement, puis gardée en cache).
+     * Une table non préfixe reste utilisable : le code le plus court l'emporte au décodage.
+     */
+    public static PrefixCodeCheck.Resultat validerTableHuffman() throws IOException {
+        return HuffmanTables.validation(Paths.get(CHEMIN_TABLE));
+    }
+
+    /**
+     * Décodeur de la table de configuration, chargé une seule fois tant que le fichier ne change pas.
+     */
+    public static HuffmanDecoder lireDecodeurHuffman() throws IOException {
+        return HuffmanTables.decodeur(Paths.get(CHEMIN_TABLE));
     }
     
 
+    /**
+     * Analyse le code de Huffman d'un fichier ; avec un argument, les codes sont limités à ce
+     * nombre de bits et le coût de la limite est affiché.
+     */
     public static void main(String[] args) throws IOException {
         Scanner scanner = new Scanner(System.in);
         System.out.print("Entrez le chemin du fichier : ");
@@ -418,7 +572,17 @@ public class HuffmanCodingCharacter {
     
         String texte = new String(Files.readAllBytes(Paths.get(cheminFichier)));
     
-        Map.Entry<String, Map<Character, String>> resultat = HuffmanCodingCharacter.encoder(texte);
+        Map.Entry<String, Map<Character, String>> resultat;
+        if (args.length > 0) {
+            int longueurMax = Integer.parseInt(args[0]);
+            resultat = HuffmanCodingCharacter.encoder(texte, longueurMax);
+            long surcout = surcoutLimitation(texte, longueurMax);
+            long bits = resultat.getKey().length();
+            System.out.println(String.format("Limite de %d bits : %d bits de plus que le code optimal (%.3f %%)",
+                longueurMax, surcout, bits == surcout ? 0 : 100.0 * surcout / (bits - surcout)));
+        } else {
+            resultat = HuffmanCodingCharacter.encoder(texte);
+        }
         Map<Character, String> tableCodage = resultat.getValue();
         analyserCodeHuffman(texte, tableCodage);
     
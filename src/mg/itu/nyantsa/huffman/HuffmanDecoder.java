@@ -0,0 +1,246 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * Décodeur Huffman par tables de correspondance sur des bits compactés.
+ *
+ * Une fenêtre de {@link #BITS_NIVEAU1} bits indexe une table qui donne directement jusqu'à trois
+ * symboles complets et le nombre de bits consommés. Les codes plus longs que la fenêtre passent
+ * par une seconde table propre à leur préfixe. Les tables sont construites à partir des codes
+ * réels de la table, canonique ou non : la table fournie dans config.properties se décode telle quelle.
+ *
+ * En cas de conflit (table qui n'est pas un code préfixe), le code le plus court l'emporte, comme
+ * dans le décodeur bit à bit. Un motif qui ne correspond à aucun code arrête le décodage.
+ */
+public final class HuffmanDecoder {
+
+    static final int BITS_NIVEAU1 = 11;
+    static final int BITS_NIVEAU2_MAX = 16;
+    /** Longueur de code maximale acceptée par les tables de décodage. */
+    public static final int LONGUEUR_MAX = BITS_NIVEAU1 + BITS_NIVEAU2_MAX;
+    private static final int MASQUE_NIVEAU1 = (1 << BITS_NIVEAU1) - 1;
+    private static final int SYMBOLES_PAR_ENTREE = 3;
+    private static final int INVALIDE = -1;
+
+    private final HuffmanTable table;
+    private final int longueurMax;
+
+    /** Entrée >= 0 : (indice << 8) | longueur ; -1 : invalide ; <= -2 : sous-table -(e + 2). */
+    private final int[] niveau1;
+    private final int[] niveau2;
+    private final int[] sousDebut;
+    private final int[] sousLargeur;
+
+    /** Bits 0-5 : bits consommés, 6-7 : nombre de symboles, 16/32/48 : indices des symboles. */
+    private final long[] multi;
+
+    public HuffmanDecoder(HuffmanTable table) {
+        if (table.longueurMax() > LONGUEUR_MAX) {
+            throw new IllegalArgumentException("Codes trop longs pour le décodage par table : "
+                + table.longueurMax() + " bits (maximum " + LONGUEUR_MAX + ")");
+        }
+        if (table.taille() > (1 << 23)) {
+            throw new IllegalArgumentException("Trop de symboles : " + table.taille());
+        }
+        this.table = table;
+        this.longueurMax = table.longueurMax();
+
+        // Les codes les plus longs d'abord : un code plus court écrase ensuite les entrées qu'il couvre
+        Integer[] ordre = new Integer[table.taille()];
+        for (int i = 0; i < ordre.length; i++) ordre[i] = i;
+        Arrays.sort(ordre, (x, y) -> Integer.compare(table.longueurs[y], table.longueurs[x]));
+
+        niveau1 = new int[1 << BITS_NIVEAU1];
+        Arrays.fill(niveau1, INVALIDE);
+
+        // Largeur de sous-table nécessaire pour chaque préfixe de BITS_NIVEAU1 bits
+        int[] largeurParPrefixe = new int[1 << BITS_NIVEAU1];
+        for (int i = 0; i < table.taille(); i++) {
+            int l = table.longueurs[i];
+            if (l > BITS_NIVEAU1) {
+                int prefixe = (int) (table.codes[i] >>> (l - BITS_NIVEAU1));
+                largeurParPrefixe[prefixe] = Math.max(largeurParPrefixe[prefixe], l - BITS_NIVEAU1);
+            }
+        }
+        int nbSous = 0;
+        int taille2 = 0;
+        int[] debutParPrefixe = new int[1 << BITS_NIVEAU1];
+        for (int p = 0; p < largeurParPrefixe.length; p++) {
+            if (largeurParPrefixe[p] > 0) {
+                debutParPrefixe[p] = taille2;
+                taille2 += 1 << largeurParPrefixe[p];
+                nbSous++;
+            }
+        }
+        niveau2 = new int[taille2];
+        Arrays.fill(niveau2, INVALIDE);
+        sousDebut = new int[nbSous];
+        sousLargeur = new int[nbSous];
+        int t = 0;
+        for (int p = 0; p < largeurParPrefixe.length; p++) {
+            if (largeurParPrefixe[p] > 0) {
+                sousDebut[t] = debutParPrefixe[p];
+                sousLargeur[t] = largeurParPrefixe[p];
+                niveau1[p] = -(t + 2);
+                t++;
+            }
+        }
+
+        for (int i : ordre) {
+            int l = table.longueurs[i];
+            long code = table.codes[i];
+            int valeur = (i << 8) | l;
+            if (l <= BITS_NIVEAU1) {
+                int debut = (int) (code << (BITS_NIVEAU1 - l));
+                Arrays.fill(niveau1, debut, debut + (1 << (BITS_NIVEAU1 - l)), valeur);
+            } else {
+                int prefixe = (int) (code >>> (l - BITS_NIVEAU1));
+                int largeur = largeurParPrefixe[prefixe];
+                int suffixe = (int) (code & ((1L << (l - BITS_NIVEAU1)) - 1));
+                int debut = debutParPrefixe[prefixe] + (suffixe << (largeur - (l - BITS_NIVEAU1)));
+                Arrays.fill(niveau2, debut, debut + (1 << (largeur - (l - BITS_NIVEAU1))), valeur);
+            }
+        }
+
+        multi = construireMulti();
+    }
+
+    public HuffmanTable table() {
+        return table;
+    }
+
+    /**
+     * Décode une chaîne de '0' et '1' (format de l'extraction).
+     */
+    public String decoder(String bits) {
+        return decoder(BitBuffer.depuisChaine(bits));
+    }
+
+    public String decoder(BitBuffer bits) {
+        int[] symboles = decoderSymboles(bits, 0, bits.longueur());
+        int n = symboles.length;
+        char[] chars = new char[n];
+        boolean bmp = true;
+        for (int i = 0; i < n; i++) {
+            int s = symboles[i];
+            if (s > 0xFFFF) {
+                bmp = false;
+                break;
+            }
+            chars[i] = (char) s;
+        }
+        return bmp ? new String(chars) : new String(symboles, 0, n);
+    }
+
+    /**
+     * Décode les bits [debut, fin) et renvoie les valeurs des symboles.
+     */
+    public int[] decoderSymboles(BitBuffer bits, long debut, long fin) {
+        int[] indices = decoderIndices(bits, debut, fin);
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = table.symboles[indices[i]];
+        }
+        return indices;
+    }
+
+    /**
+     * Décode les bits [debut, fin) et renvoie les indices des symboles dans la table.
+     */
+    int[] decoderIndices(BitBuffer bits, long debut, long fin) {
+        int longueurMin = Math.max(1, longueurMin());
+        long estimation = (fin - debut) / longueurMin + 1;
+        int[] sortie = new int[(int) Math.min(estimation, 1 << 20)];
+        int n = 0;
+        long pos = debut;
+        long garde = Math.max(BITS_NIVEAU1, longueurMax);
+
+        // Boucle rapide : la fenêtre entière est faite de bits réels
+        while (fin - pos >= garde) {
+            if (n + SYMBOLES_PAR_ENTREE > sortie.length) {
+                sortie = Arrays.copyOf(sortie, sortie.length * 2);
+            }
+            long fenetre = bits.lire64(pos);
+            long e = multi[(int) (fenetre >>> (64 - BITS_NIVEAU1))];
+            int nb = (int) (e >>> 6) & 3;
+            if (nb != 0) {
+                sortie[n++] = (int) (e >>> 16) & 0xFFFF;
+                if (nb > 1) sortie[n++] = (int) (e >>> 32) & 0xFFFF;
+                if (nb > 2) sortie[n++] = (int) (e >>> 48) & 0xFFFF;
+                pos += e & 63;
+                continue;
+            }
+            int r = decoderUn(fenetre);
+            if (r < 0) return Arrays.copyOf(sortie, n);
+            sortie[n++] = r >>> 8;
+            pos += r & 0xFF;
+        }
+
+        // Fin du flux : un symbole à la fois en vérifiant qu'il tient dans les bits restants
+        while (pos < fin) {
+            int r = decoderUn(bits.lire64(pos));
+            if (r < 0 || (r & 0xFF) > fin - pos) break;
+            if (n == sortie.length) {
+                sortie = Arrays.copyOf(sortie, sortie.length * 2 + 1);
+            }
+            sortie[n++] = r >>> 8;
+            pos += r & 0xFF;
+        }
+        return Arrays.copyOf(sortie, n);
+    }
+
+    /**
+     * Décode un symbole à partir d'une fenêtre de 64 bits alignée sur le poids fort.
+     *
+     * @return (indice << 8) | longueur, ou -1 si aucun code ne correspond
+     */
+    int decoderUn(long fenetre) {
+        int e = niveau1[(int) (fenetre >>> (64 - BITS_NIVEAU1))];
+        if (e >= INVALIDE) return e;
+        int t = -e - 2;
+        int largeur = sousLargeur[t];
+        int idx = (int) ((fenetre << BITS_NIVEAU1) >>> (64 - largeur));
+        return niveau2[sousDebut[t] + idx];
+    }
+
+    /**
+     * Entrée de la table multi-symboles pour une fenêtre de 64 bits (voir le champ multi).
+     * Valable seulement si au moins max(BITS_NIVEAU1, longueurMax) bits de la fenêtre sont réels.
+     */
+    long entreeMulti(long fenetre) {
+        return multi[(int) (fenetre >>> (64 - BITS_NIVEAU1))];
+    }
+
+    int longueurMax() {
+        return longueurMax;
+    }
+
+    private int longueurMin() {
+        int min = Integer.MAX_VALUE;
+        for (int l : table.longueurs) min = Math.min(min, l);
+        return min == Integer.MAX_VALUE ? 1 : min;
+    }
+
+    private long[] construireMulti() {
+        long[] m = new long[1 << BITS_NIVEAU1];
+        if (table.taille() > 0xFFFF) return m;
+        for (int w = 0; w < m.length; w++) {
+            int consommes = 0;
+            int nb = 0;
+            long entree = 0;
+            while (nb < SYMBOLES_PAR_ENTREE) {
+                int e = niveau1[(w << consommes) & MASQUE_NIVEAU1];
+                if (e < 0) break;
+                int l = e & 0xFF;
+                if (l > BITS_NIVEAU1 - consommes) break;
+                entree |= (long) (e >>> 8) << (16 * (nb + 1));
+                consommes += l;
+                nb++;
+            }
+            if (nb > 0) {
+                m[w] = entree | ((long) nb << 6) | consommes;
+            }
+        }
+        return m;
+    }
+}
@@ -0,0 +1,202 @@
+package huffman;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flux de décodage Huffman : lit les bits produits par {@link HuffmanOutputStream} et restitue
+ * le texte décodé avec une mémoire constante : en UTF-8 pour les alphabets MINUSCULES et UNICODE,
+ * octet par octet pour l'alphabet OCTETS.
+ *
+ * Comme le décodeur en mémoire, un motif qui ne correspond à aucun code termine le flux.
+ * Si la table contient le symbole d'échappement (alphabet UNICODE), celui-ci est suivi des
+ * 21 bits du point de code.
+ */
+public class HuffmanInputStream extends InputStream {
+
+    private static final int TAILLE_TAMPON = 8192;
+
+    private final InputStream source;
+    private final HuffmanDecoder decodeur;
+    private final int garde;
+    private final int indiceEchappement;
+    private final boolean octetsBruts;
+
+    private final byte[] tampon = new byte[TAILLE_TAMPON];
+    private int lecture;
+    private int remplissage;
+    private int octetEnAttente = -2;
+
+    /** Bits non consommés, alignés sur le poids fort. */
+    private long fenetre;
+    private int bitsDisponibles;
+    private boolean finDesDonnees;
+    private boolean termine;
+
+    private final byte[] sortieEnAttente = new byte[16];
+    private int sortieDebut;
+    private int sortieFin;
+
+    public HuffmanInputStream(InputStream source, HuffmanDecoder decodeur) {
+        this(source, decodeur, Alphabet.MINUSCULES);
+    }
+
+    public HuffmanInputStream(InputStream source, HuffmanDecoder decodeur, Alphabet alphabet) {
+        this.source = source;
+        this.octetsBruts = alphabet == Alphabet.OCTETS;
+        this.decodeur = decodeur;
+        this.garde = Math.max(HuffmanDecoder.BITS_NIVEAU1, decodeur.longueurMax());
+        this.indiceEchappement = decodeur.table().indiceDe(Alphabet.ECHAPPEMENT);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (sortieDebut == sortieFin && !decoderSuivants()) {
+            return -1;
+        }
+        return sortieEnAttente[sortieDebut++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        int n = 0;
+        while (n < len) {
+            if (sortieDebut == sortieFin && !decoderSuivants()) {
+                break;
+            }
+            int copie = Math.min(len - n, sortieFin - sortieDebut);
+            System.arraycopy(sortieEnAttente, sortieDebut, b, off + n, copie);
+            sortieDebut += copie;
+            n += copie;
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Décode un à trois symboles dans sortieEnAttente.
+     *
+     * @return false à la fin du message
+     */
+    private boolean decoderSuivants() throws IOException {
+        if (termine) return false;
+        remplir();
+        sortieDebut = 0;
+        sortieFin = 0;
+        HuffmanTable table = decodeur.table();
+
+        if (bitsDisponibles >= garde) {
+            long e = decodeur.entreeMulti(fenetre);
+            int nb = (int) (e >>> 6) & 3;
+            int emis = 0;
+            for (int k = 0; k < nb; k++) {
+                int idx = (int) (e >>> (16 * (k + 1))) & 0xFFFF;
+                if (idx == indiceEchappement) break;
+                emettre(table.symboles[idx]);
+                consommer(table.longueurs[idx]);
+                emis++;
+            }
+            if (emis > 0) return true;
+        }
+        if (bitsDisponibles == 0) {
+            termine = true;
+            return false;
+        }
+        int r = decodeur.decoderUn(fenetre);
+        if (r < 0 || (r & 0xFF) > bitsDisponibles) {
+            termine = true;
+            return false;
+        }
+        consommer(r & 0xFF);
+        if ((r >>> 8) == indiceEchappement) {
+            remplir();
+            if (bitsDisponibles < Alphabet.BITS_ECHAPPEMENT) {
+                termine = true;
+                return false;
+            }
+            int cp = (int) (fenetre >>> (64 - Alphabet.BITS_ECHAPPEMENT));
+            consommer(Alphabet.BITS_ECHAPPEMENT);
+            emettre(cp <= Character.MAX_CODE_POINT ? cp : 0xFFFD);
+        } else {
+            emettre(table.symboles[r >>> 8]);
+        }
+        return true;
+    }
+
+    private void consommer(int bits) {
+        fenetre <<= bits;
+        bitsDisponibles -= bits;
+    }
+
+    private void emettre(int symbole) {
+        if (symbole < 0x80 || octetsBruts) {
+            sortieEnAttente[sortieFin++] = (byte) symbole;
+        } else if (symbole < 0x800) {
+            sortieEnAttente[sortieFin++] = (byte) (0xC0 | (symbole >>> 6));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | (symbole & 0x3F));
+        } else if (symbole < 0x10000) {
+            sortieEnAttente[sortieFin++] = (byte) (0xE0 | (symbole >>> 12));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | ((symbole >>> 6) & 0x3F));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | (symbole & 0x3F));
+        } else {
+            sortieEnAttente[sortieFin++] = (byte) (0xF0 | (symbole >>> 18));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | ((symbole >>> 12) & 0x3F));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | ((symbole >>> 6) & 0x3F));
+            sortieEnAttente[sortieFin++] = (byte) (0x80 | (symbole & 0x3F));
+        }
+    }
+
+    /**
+     * Complète la fenêtre jusqu'à au moins 57 bits, sauf en fin de flux.
+     */
+    private void remplir() throws IOException {
+        while (!finDesDonnees && bitsDisponibles <= 56) {
+            int b = octetDeDonnees();
+            if (b < 0) break;
+            fenetre |= (long) b << (56 - bitsDisponibles);
+            bitsDisponibles += 8;
+        }
+    }
+
+    /**
+     * Renvoie le prochain octet de données, ou -1 quand il ne reste que l'octet final de bourrage
+     * (les bits de bourrage sont alors retirés de la fenêtre).
+     */
+    private int octetDeDonnees() throws IOException {
+        if (octetEnAttente == -2) {
+            octetEnAttente = octetBrut();
+        }
+        int courant = octetEnAttente;
+        if (courant < 0) {
+            finDesDonnees = true;
+            return -1;
+        }
+        octetEnAttente = octetBrut();
+        if (octetEnAttente < 0) {
+            // courant est l'octet final : nombre de bits de bourrage du dernier octet de données
+            int bourrage = Math.min(courant & 7, bitsDisponibles);
+            bitsDisponibles -= bourrage;
+            fenetre &= bitsDisponibles == 0 ? 0 : -1L << (64 - bitsDisponibles);
+            finDesDonnees = true;
+            return -1;
+        }
+        return courant;
+    }
+
+    private int octetBrut() throws IOException {
+        if (lecture == remplissage) {
+            remplissage = source.read(tampon, 0, TAILLE_TAMPON);
+            lecture = 0;
+            if (remplissage <= 0) {
+                remplissage = 0;
+                return -1;
+            }
+        }
+        return tampon[lecture++] & 0xFF;
+    }
+}
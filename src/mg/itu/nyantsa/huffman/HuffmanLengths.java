@@ -0,0 +1,191 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * Calcul des longueurs de codes Huffman sur des tableaux primitifs.
+ *
+ * Les fréquences sont triées une fois, puis l'arbre est construit avec deux files : les feuilles
+ * triées et les nœuds internes, créés dans l'ordre croissant de poids. Chaque fusion prend les
+ * deux plus petits éléments en tête des files, en O(1), sans objet nœud ni PriorityQueue.
+ */
+public class HuffmanLengths {
+
+    private HuffmanLengths() {
+    }
+
+    /**
+     * Longueurs optimales pour chaque fréquence (0 pour une fréquence nulle).
+     * Un seul symbole présent reçoit un code d'un bit.
+     */
+    public static int[] optimales(long[] frequences) {
+        int n = frequences.length;
+        int[] longueurs = new int[n];
+
+        int presents = 0;
+        for (long f : frequences) {
+            if (f < 0) throw new IllegalArgumentException("Fréquence négative : " + f);
+            if (f > 0) presents++;
+        }
+        if (presents == 0) return longueurs;
+
+        int[] feuilles = trierParFrequence(frequences, presents);
+        if (presents == 1) {
+            longueurs[feuilles[0]] = 1;
+            return longueurs;
+        }
+
+        // Nœuds 0..presents-1 : feuilles triées ; presents..2*presents-2 : nœuds internes
+        int total = 2 * presents - 1;
+        long[] poids = new long[total];
+        int[] parent = new int[total];
+        for (int i = 0; i < presents; i++) {
+            poids[i] = frequences[feuilles[i]];
+        }
+
+        int teteFeuilles = 0;
+        int teteInternes = presents;
+        for (int interne = presents; interne < total; interne++) {
+            int gauche;
+            if (teteInternes >= interne || (teteFeuilles < presents && poids[teteFeuilles] <= poids[teteInternes])) {
+                gauche = teteFeuilles++;
+            } else {
+                gauche = teteInternes++;
+            }
+            int droite;
+            if (teteInternes >= interne || (teteFeuilles < presents && poids[teteFeuilles] <= poids[teteInternes])) {
+                droite = teteFeuilles++;
+            } else {
+                droite = teteInternes++;
+            }
+            poids[interne] = poids[gauche] + poids[droite];
+            parent[gauche] = interne;
+            parent[droite] = interne;
+        }
+
+        // Profondeurs : la racine est le dernier nœud, un parent est toujours créé après ses enfants
+        int[] profondeur = new int[total];
+        for (int i = total - 2; i >= 0; i--) {
+            profondeur[i] = profondeur[parent[i]] + 1;
+        }
+        for (int i = 0; i < presents; i++) {
+            longueurs[feuilles[i]] = profondeur[i];
+        }
+        return longueurs;
+    }
+
+    /**
+     * Longueurs optimales sous la contrainte longueur <= longueurMax (algorithme package-merge).
+     *
+     * Niveau 1 : les feuilles triées. Niveau k : les feuilles fusionnées avec les paquets formés
+     * en regroupant deux à deux les éléments du niveau k - 1. On garde les 2n - 2 premiers éléments
+     * du dernier niveau ; en redescendant, les p paquets retenus à un niveau retiennent les 2p
+     * premiers éléments du niveau inférieur, et chaque feuille retenue à un niveau gagne un bit.
+     */
+    public static int[] limitees(long[] frequences, int longueurMax) {
+        int[] optimales = optimales(frequences);
+        int max = 0;
+        int presents = 0;
+        for (int l : optimales) {
+            max = Math.max(max, l);
+            if (l > 0) presents++;
+        }
+        if (max <= longueurMax) return optimales;
+        if (longueurMax < 1 || (longueurMax < 31 && presents > (1 << longueurMax))) {
+            throw new IllegalArgumentException(presents + " symboles ne tiennent pas dans des codes de "
+                + longueurMax + " bits au plus");
+        }
+
+        int[] feuilles = trierParFrequence(frequences, presents);
+        long[] poidsFeuilles = new long[presents];
+        for (int i = 0; i < presents; i++) poidsFeuilles[i] = frequences[feuilles[i]];
+
+        // estFeuille[k][j] : le j-ème élément du niveau k est une feuille (sinon un paquet)
+        boolean[][] estFeuille = new boolean[longueurMax][];
+        long[] poids = poidsFeuilles.clone();
+        estFeuille[0] = new boolean[presents];
+        Arrays.fill(estFeuille[0], true);
+        for (int k = 1; k < longueurMax; k++) {
+            int paquets = poids.length / 2;
+            int taille = presents + paquets;
+            long[] fusion = new long[taille];
+            boolean[] drapeaux = new boolean[taille];
+            int f = 0;
+            int p = 0;
+            for (int j = 0; j < taille; j++) {
+                long poidsPaquet = p < paquets ? poids[2 * p] + poids[2 * p + 1] : Long.MAX_VALUE;
+                if (f < presents && poidsFeuilles[f] <= poidsPaquet) {
+                    fusion[j] = poidsFeuilles[f++];
+                    drapeaux[j] = true;
+                } else {
+                    fusion[j] = poidsPaquet;
+                    p++;
+                }
+            }
+            poids = fusion;
+            estFeuille[k] = drapeaux;
+        }
+
+        int[] longueursTriees = new int[presents];
+        int retenus = 2 * presents - 2;
+        for (int k = longueurMax - 1; k >= 0; k--) {
+            int nbFeuilles = 0;
+            for (int j = 0; j < retenus; j++) {
+                if (estFeuille[k][j]) longueursTriees[nbFeuilles++]++;
+            }
+            retenus = 2 * (retenus - nbFeuilles);
+        }
+
+        int[] longueurs = new int[frequences.length];
+        for (int i = 0; i < presents; i++) {
+            longueurs[feuilles[i]] = longueursTriees[i];
+        }
+        return longueurs;
+    }
+
+    /**
+     * Nombre total de bits pour coder les fréquences avec ces longueurs.
+     */
+    public static long coutEnBits(long[] frequences, int[] longueurs) {
+        long total = 0;
+        for (int i = 0; i < frequences.length; i++) {
+            total += frequences[i] * longueurs[i];
+        }
+        return total;
+    }
+
+    /**
+     * Indices des fréquences non nulles, triés par fréquence croissante (puis par indice).
+     */
+    static int[] trierParFrequence(long[] frequences, int presents) {
+        long[] cles = new long[presents];
+        int k = 0;
+        boolean compactes = frequences.length <= (1 << 24);
+        for (int i = 0; i < frequences.length; i++) {
+            if (frequences[i] > 0) {
+                if (compactes && frequences[i] < (1L << 39)) {
+                    cles[k++] = (frequences[i] << 24) | i;
+                } else {
+                    compactes = false;
+                    break;
+                }
+            }
+        }
+        int[] ordre = new int[presents];
+        if (compactes) {
+            // Fréquence et indice dans une seule clé long : tri primitif sans comparateur
+            Arrays.sort(cles);
+            for (int i = 0; i < presents; i++) ordre[i] = (int) (cles[i] & 0xFFFFFF);
+            return ordre;
+        }
+        Integer[] boites = new Integer[presents];
+        k = 0;
+        for (int i = 0; i < frequences.length; i++) {
+            if (frequences[i] > 0) boites[k++] = i;
+        }
+        Arrays.sort(boites, (x, y) -> frequences[x] != frequences[y]
+            ? Long.compare(frequences[x], frequences[y]) : Integer.compare(x, y));
+        for (int i = 0; i < presents; i++) ordre[i] = boites[i];
+        return ordre;
+    }
+}
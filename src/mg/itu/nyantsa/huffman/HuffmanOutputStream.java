@@ -0,0 +1,181 @@
+package huffman;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flux d'encodage Huffman : les octets du texte écrits dans ce flux sont normalisés, encodés
+ * puis compactés en bits vers le flux de sortie, au fil de l'eau et avec des tampons de taille fixe.
+ *
+ * Format produit : les bits du message (premier bit = poids fort du premier octet), le dernier
+ * octet de données complété par des zéros, puis un octet final donnant le nombre de bits de
+ * bourrage (0 à 7). {@link HuffmanInputStream} relit ce format.
+ *
+ * Les octets reçus sont interprétés selon l'alphabet : normalisés un à un (MINUSCULES, ce qui
+ * donne le même résultat que la normalisation du texte complet car les octets d'un caractère
+ * UTF-8 multi-octets ne sont jamais des lettres a-z), codés tels quels (OCTETS), ou décodés en
+ * points de code UTF-8 au fil de l'eau (UNICODE, les séquences invalides deviennent U+FFFD).
+ */
+public class HuffmanOutputStream extends OutputStream {
+
+    private static final int TAILLE_TAMPON = 8192;
+
+    private final OutputStream sortie;
+    private final HuffmanTable table;
+    private final Alphabet alphabet;
+    private final int indiceEchappement;
+    private final byte[] tampon = new byte[TAILLE_TAMPON];
+    private int remplissage;
+
+    private long accumulateur;
+    private int bitsEnAttente;
+    private long bitsEcrits;
+    private boolean ferme;
+
+    /** Point de code UTF-8 en cours de lecture (alphabet UNICODE). */
+    private int codePoint;
+    private int octetsRestants;
+
+    public HuffmanOutputStream(OutputStream sortie, HuffmanTable table) {
+        this(sortie, table, Alphabet.MINUSCULES);
+    }
+
+    public HuffmanOutputStream(OutputStream sortie, HuffmanTable table, Alphabet alphabet) {
+        this.sortie = sortie;
+        this.table = table;
+        this.alphabet = alphabet;
+        this.indiceEchappement = table.indiceDe(Alphabet.ECHAPPEMENT);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        switch (alphabet) {
+            case MINUSCULES: {
+                int c = HuffmanCodingCharacter.normaliserCaractere((char) (b & 0xFF));
+                if (c >= 0) ecrireSymbole(c);
+                break;
+            }
+            case OCTETS:
+                ecrireSymbole(b & 0xFF);
+                break;
+            default:
+                ecrireOctetUtf8(b & 0xFF);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(b[i]);
+        }
+    }
+
+    /**
+     * Encode un symbole déjà normalisé. Un symbole absent de la table est ignoré en MINUSCULES
+     * (comme dans encoderFromTable), échappé en UNICODE, et refusé en OCTETS.
+     */
+    public void ecrireSymbole(int symbole) throws IOException {
+        int i = table.indiceDe(symbole);
+        if (i >= 0) {
+            ecrireBits(table.codes[i], table.longueurs[i]);
+        } else if (alphabet == Alphabet.UNICODE && indiceEchappement >= 0) {
+            ecrireBits(table.codes[indiceEchappement], table.longueurs[indiceEchappement]);
+            ecrireBits(symbole, Alphabet.BITS_ECHAPPEMENT);
+        } else if (alphabet == Alphabet.OCTETS) {
+            throw new IOException("Octet absent de la table Huffman : " + symbole);
+        }
+    }
+
+    private void ecrireOctetUtf8(int b) throws IOException {
+        if (octetsRestants > 0) {
+            if ((b & 0xC0) == 0x80) {
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                if (--octetsRestants == 0) ecrireSymbole(codePoint);
+                return;
+            }
+            // Séquence interrompue : caractère de remplacement, puis b est relu comme un début
+            octetsRestants = 0;
+            ecrireSymbole(0xFFFD);
+        }
+        if (b < 0x80) {
+            ecrireSymbole(b);
+        } else if ((b & 0xE0) == 0xC0) {
+            codePoint = b & 0x1F;
+            octetsRestants = 1;
+        } else if ((b & 0xF0) == 0xE0) {
+            codePoint = b & 0x0F;
+            octetsRestants = 2;
+        } else if ((b & 0xF8) == 0xF0) {
+            codePoint = b & 0x07;
+            octetsRestants = 3;
+        } else {
+            ecrireSymbole(0xFFFD);
+        }
+    }
+
+    /**
+     * Écrit les longueur bits de poids faible de bits.
+     */
+    public void ecrireBits(long bits, int longueur) throws IOException {
+        if (ferme) {
+            throw new IOException("Flux Huffman déjà fermé");
+        }
+        if (longueur > 32) {
+            ecrireBits(bits >>> 32, longueur - 32);
+            ecrireBits(bits & 0xFFFFFFFFL, 32);
+            return;
+        }
+        accumulateur = (accumulateur << longueur) | (bits & ((1L << longueur) - 1));
+        bitsEnAttente += longueur;
+        bitsEcrits += longueur;
+        while (bitsEnAttente >= 8) {
+            bitsEnAttente -= 8;
+            tampon[remplissage++] = (byte) (accumulateur >>> bitsEnAttente);
+            if (remplissage == TAILLE_TAMPON) {
+                viderTampon();
+            }
+        }
+    }
+
+    public long bitsEcrits() {
+        return bitsEcrits;
+    }
+
+    /**
+     * Envoie les octets complets ; les bits d'un octet incomplet restent en attente.
+     */
+    @Override
+    public void flush() throws IOException {
+        viderTampon();
+        sortie.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ferme) return;
+        if (octetsRestants > 0) {
+            octetsRestants = 0;
+            ecrireSymbole(0xFFFD);
+        }
+        int bourrage = 0;
+        if (bitsEnAttente > 0) {
+            bourrage = 8 - bitsEnAttente;
+            tampon[remplissage++] = (byte) (accumulateur << bourrage);
+            bitsEnAttente = 0;
+            if (remplissage == TAILLE_TAMPON) {
+                viderTampon();
+            }
+        }
+        tampon[remplissage++] = (byte) bourrage;
+        viderTampon();
+        ferme = true;
+        sortie.close();
+    }
+
+    private void viderTampon() throws IOException {
+        if (remplissage > 0) {
+            sortie.write(tampon, 0, remplissage);
+            remplissage = 0;
+        }
+    }
+}
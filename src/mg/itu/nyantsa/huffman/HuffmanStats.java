@@ -0,0 +1,165 @@
+package huffman;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Statistiques d'un texte codé avec une table Huffman, calculées en un seul passage sur le texte :
+ * histogramme des caractères normalisés, entropie, longueur moyenne, somme de Kraft et
+ * distribution des longueurs de codes.
+ *
+ * Immuable. La somme de Kraft est calculée en entiers (Σ 2^(Lmax - l) comparé à 2^Lmax) et non
+ * avec Math.pow. Deux statistiques obtenues avec la même table peuvent être fusionnées, par
+ * exemple pour cumuler plusieurs fichiers sans les relire.
+ */
+public final class HuffmanStats {
+
+    private final long[] histogramme;
+    private final long total;
+    /** Longueur du code de chaque caractère normalisé (0 s'il n'a pas de code). */
+    private final int[] longueurs;
+    /** Nombre de codes de chaque longueur, sur toute la table. */
+    private final int[] distribution;
+    private final boolean kraftRespectee;
+    private final double sommeKraft;
+
+    private final double entropie;
+    private final double longueurMoyenne;
+
+    private HuffmanStats(long[] histogramme, int[] longueurs, int[] distribution) {
+        this.histogramme = histogramme;
+        this.longueurs = longueurs;
+        this.distribution = distribution;
+        this.total = FrequencyCounter.total(histogramme);
+
+        double h = 0;
+        long bits = 0;
+        for (int c = 0; c < histogramme.length; c++) {
+            long n = histogramme[c];
+            if (n == 0) continue;
+            double p = (double) n / total;
+            h -= p * (Math.log(p) / Math.log(2));
+            bits += n * longueurs[c];
+        }
+        this.entropie = h;
+        this.longueurMoyenne = total == 0 ? 0 : (double) bits / total;
+
+        int lmax = distribution.length - 1;
+        if (lmax <= 62) {
+            long somme = 0;
+            for (int l = 1; l <= lmax; l++) {
+                somme += (long) distribution[l] << (lmax - l);
+            }
+            this.kraftRespectee = somme <= 1L << lmax;
+            this.sommeKraft = (double) somme / (1L << lmax);
+        } else {
+            BigInteger somme = BigInteger.ZERO;
+            for (int l = 1; l <= lmax; l++) {
+                somme = somme.add(BigInteger.valueOf(distribution[l]).shiftLeft(lmax - l));
+            }
+            this.kraftRespectee = somme.compareTo(BigInteger.ONE.shiftLeft(lmax)) <= 0;
+            this.sommeKraft = Math.scalb(somme.doubleValue(), -lmax);
+        }
+    }
+
+    /**
+     * Statistiques d'un texte (normalisé au passage) pour une table de codage.
+     */
+    public static HuffmanStats calculer(CharSequence texte, Map<Character, String> tableCodage) {
+        return depuisHistogramme(FrequencyCounter.compter(texte == null ? "" : texte), tableCodage);
+    }
+
+    /**
+     * Statistiques à partir d'un histogramme déjà compté (par exemple FrequencyCounter.compterFichier).
+     */
+    public static HuffmanStats depuisHistogramme(long[] histogramme, Map<Character, String> tableCodage) {
+        if (histogramme.length != FrequencyCounter.TAILLE_HISTOGRAMME) {
+            throw new IllegalArgumentException("Histogramme de " + histogramme.length + " cases au lieu de "
+                + FrequencyCounter.TAILLE_HISTOGRAMME);
+        }
+        int[] longueurs = new int[FrequencyCounter.TAILLE_HISTOGRAMME];
+        int lmax = 0;
+        for (Map.Entry<Character, String> entry : tableCodage.entrySet()) {
+            int l = entry.getValue().length();
+            lmax = Math.max(lmax, l);
+            if (entry.getKey() < longueurs.length) {
+                longueurs[entry.getKey()] = l;
+            }
+        }
+        int[] distribution = new int[lmax + 1];
+        for (String code : tableCodage.values()) {
+            distribution[code.length()]++;
+        }
+        return new HuffmanStats(histogramme.clone(), longueurs, distribution);
+    }
+
+    /**
+     * Cumule deux statistiques calculées avec la même table.
+     */
+    public HuffmanStats fusionner(HuffmanStats autre) {
+        if (!Arrays.equals(longueurs, autre.longueurs) || !Arrays.equals(distribution, autre.distribution)) {
+            throw new IllegalArgumentException("Statistiques calculées avec des tables différentes");
+        }
+        long[] somme = histogramme.clone();
+        for (int c = 0; c < somme.length; c++) {
+            somme[c] += autre.histogramme[c];
+        }
+        return new HuffmanStats(somme, longueurs, distribution);
+    }
+
+    public long occurrences(char c) {
+        return c < histogramme.length ? histogramme[c] : 0;
+    }
+
+    public double frequence(char c) {
+        return total == 0 ? 0 : (double) occurrences(c) / total;
+    }
+
+    /** Nombre de caractères gardés après normalisation. */
+    public long total() {
+        return total;
+    }
+
+    public int caracteresDistincts() {
+        int n = 0;
+        for (long f : histogramme) {
+            if (f > 0) n++;
+        }
+        return n;
+    }
+
+    /** Entropie de Shannon H(X), en bits par symbole. */
+    public double entropie() {
+        return entropie;
+    }
+
+    /** Longueur moyenne L = Σ p(x) * longueur(code(x)), en bits par symbole. */
+    public double longueurMoyenne() {
+        return longueurMoyenne;
+    }
+
+    /** H(X) / L en pourcentage (0 si L est nul). */
+    public double efficacite() {
+        return longueurMoyenne == 0 ? 0 : entropie / longueurMoyenne * 100;
+    }
+
+    public double sommeKraft() {
+        return sommeKraft;
+    }
+
+    public boolean kraftRespectee() {
+        return kraftRespectee;
+    }
+
+    /**
+     * Nombre de codes de la table ayant chaque longueur (indice = longueur en bits).
+     */
+    public int[] distributionLongueurs() {
+        return distribution.clone();
+    }
+
+    public long[] histogramme() {
+        return histogramme.clone();
+    }
+}
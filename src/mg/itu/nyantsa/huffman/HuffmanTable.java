@@ -0,0 +1,305 @@
+package huffman;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Table de codage sous forme de tableaux primitifs : pour chaque entrée, le symbole,
+ * la longueur du code et le code lui-même (aligné à droite dans un long).
+ *
+ * Une table canonique est entièrement décrite par les longueurs : les codes sont attribués
+ * dans l'ordre (longueur, symbole), chacun valant le précédent + 1, décalé à chaque
+ * changement de longueur.
+ *
+ * Format binaire (voir {@link #ecrire(OutputStream)}) :
+ * "HFTB", version (1 octet), drapeaux (1 octet), nombre d'entrées (4 octets), puis par entrée
+ * le symbole (2 ou 4 octets), la longueur (1 octet) et, si la table n'est pas canonique,
+ * le code sur ceil(longueur / 8) octets.
+ */
+public final class HuffmanTable {
+
+    public static final int LONGUEUR_MAX_CODE = 64;
+
+    static final int MAGIC = 0x48465442; // "HFTB"
+    static final int VERSION = 1;
+    private static final int DRAPEAU_CANONIQUE = 1;
+    private static final int DRAPEAU_SYMBOLES_32 = 2;
+
+    final int[] symboles;
+    final int[] longueurs;
+    final long[] codes;
+    private final int longueurMax;
+    private volatile int[] indexParSymbole;
+    private volatile Map<Integer, Integer> indexEtendu;
+
+    HuffmanTable(int[] symboles, int[] longueurs, long[] codes) {
+        this.symboles = symboles;
+        this.longueurs = longueurs;
+        this.codes = codes;
+        int max = 0;
+        for (int l : longueurs) max = Math.max(max, l);
+        this.longueurMax = max;
+    }
+
+    /**
+     * Construit la table à partir d'une table caractère -> code ("0101").
+     * Les codes vides ou non binaires sont ignorés : le décodeur bit à bit ne pouvait pas
+     * les reconnaître non plus.
+     */
+    public static HuffmanTable depuisMap(Map<Character, String> tableCodage) {
+        int n = 0;
+        int[] symboles = new int[tableCodage.size()];
+        int[] longueurs = new int[tableCodage.size()];
+        long[] codes = new long[tableCodage.size()];
+
+        for (Map.Entry<Character, String> entry : tableCodage.entrySet()) {
+            String code = entry.getValue();
+            if (code == null || code.isEmpty() || !estBinaire(code)) continue;
+            if (code.length() > LONGUEUR_MAX_CODE) {
+                throw new IllegalArgumentException("Code trop long pour '" + entry.getKey() + "' : " + code.length() + " bits");
+            }
+            symboles[n] = entry.getKey();
+            longueurs[n] = code.length();
+            codes[n] = Long.parseUnsignedLong(code, 2);
+            n++;
+        }
+        return new HuffmanTable(Arrays.copyOf(symboles, n),
+                                Arrays.copyOf(longueurs, n),
+                                Arrays.copyOf(codes, n));
+    }
+
+    /**
+     * Attribue les codes canoniques à partir des longueurs (symboles distincts).
+     */
+    public static HuffmanTable canonique(int[] symboles, int[] longueurs) {
+        if (symboles.length != longueurs.length) {
+            throw new IllegalArgumentException("Autant de longueurs que de symboles sont attendues");
+        }
+        int n = symboles.length;
+        Integer[] ordre = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            if (longueurs[i] <= 0 || longueurs[i] > LONGUEUR_MAX_CODE) {
+                throw new IllegalArgumentException("Longueur invalide pour le symbole " + symboles[i] + " : " + longueurs[i]);
+            }
+            ordre[i] = i;
+        }
+        int[] tries = symboles.clone();
+        Arrays.sort(tries);
+        for (int k = 1; k < n; k++) {
+            if (tries[k] == tries[k - 1]) {
+                throw new IllegalArgumentException("Symbole en double : " + tries[k]);
+            }
+        }
+        Arrays.sort(ordre, (x, y) -> longueurs[x] != longueurs[y]
+            ? Integer.compare(longueurs[x], longueurs[y])
+            : Integer.compare(symboles[x], symboles[y]));
+
+        int[] s = new int[n];
+        int[] l = new int[n];
+        long[] c = new long[n];
+        long code = 0;
+        int longueurPrecedente = n > 0 ? longueurs[ordre[0]] : 0;
+        for (int k = 0; k < n; k++) {
+            int i = ordre[k];
+            if (k > 0) {
+                code++;
+                code <<= longueurs[i] - longueurPrecedente;
+            }
+            if (longueurs[i] < 64 && (code >>> longueurs[i]) != 0) {
+                throw new IllegalArgumentException("Les longueurs ne respectent pas l'inégalité de Kraft");
+            }
+            s[k] = symboles[i];
+            l[k] = longueurs[i];
+            c[k] = code;
+            longueurPrecedente = longueurs[i];
+        }
+        return new HuffmanTable(s, l, c);
+    }
+
+    /**
+     * La table canonique qui a les mêmes longueurs de codes que celle-ci.
+     */
+    public HuffmanTable versCanonique() {
+        return canonique(symboles, longueurs);
+    }
+
+    public boolean estCanonique() {
+        try {
+            HuffmanTable c = versCanonique();
+            for (int i = 0; i < symboles.length; i++) {
+                int j = c.indiceDe(symboles[i]);
+                if (j < 0 || c.codes[j] != codes[i]) return false;
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indice d'un symbole dans la table, ou -1 s'il n'y figure pas.
+     */
+    public int indiceDe(int symbole) {
+        int[] index = indexParSymbole();
+        if (symbole >= 0 && symbole < index.length) {
+            return index[symbole];
+        }
+        if (symbole < 0 || symbole > 0xFFFF) {
+            Integer i = indexEtendu().get(symbole);
+            return i == null ? -1 : i;
+        }
+        return -1;
+    }
+
+    /**
+     * Table directe symbole -> indice pour les symboles de 0 à 0xFFFF (construite à la première utilisation).
+     */
+    private int[] indexParSymbole() {
+        int[] index = indexParSymbole;
+        if (index == null) {
+            int max = -1;
+            for (int s : symboles) {
+                if (s >= 0 && s <= 0xFFFF) max = Math.max(max, s);
+            }
+            index = new int[max + 1];
+            Arrays.fill(index, -1);
+            for (int i = 0; i < symboles.length; i++) {
+                if (symboles[i] >= 0 && symboles[i] <= 0xFFFF) index[symboles[i]] = i;
+            }
+            indexParSymbole = index;
+        }
+        return index;
+    }
+
+    private Map<Integer, Integer> indexEtendu() {
+        Map<Integer, Integer> index = indexEtendu;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = 0; i < symboles.length; i++) {
+                if (symboles[i] < 0 || symboles[i] > 0xFFFF) index.put(symboles[i], i);
+            }
+            indexEtendu = index;
+        }
+        return index;
+    }
+
+    /**
+     * Écrit la table au format binaire compact ; une table canonique ne stocke que les longueurs.
+     */
+    public void ecrire(OutputStream sortie) throws IOException {
+        boolean canonique = estCanonique();
+        boolean symboles32 = false;
+        for (int s : symboles) {
+            if (s < 0 || s > 0xFFFF) symboles32 = true;
+        }
+        DataOutputStream out = new DataOutputStream(sortie);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte((canonique ? DRAPEAU_CANONIQUE : 0) | (symboles32 ? DRAPEAU_SYMBOLES_32 : 0));
+        out.writeInt(symboles.length);
+        for (int i = 0; i < symboles.length; i++) {
+            if (symboles32) out.writeInt(symboles[i]);
+            else out.writeShort(symboles[i]);
+            out.writeByte(longueurs[i]);
+            if (!canonique) {
+                for (int o = (longueurs[i] + 7) / 8 - 1; o >= 0; o--) {
+                    out.writeByte((int) (codes[i] >>> (8 * o)));
+                }
+            }
+        }
+        out.flush();
+    }
+
+    public static HuffmanTable lire(InputStream entree) throws IOException {
+        DataInputStream in = new DataInputStream(entree);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Fichier de table Huffman invalide (signature HFTB absente)");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Version de table Huffman non supportée : " + version);
+        }
+        int drapeaux = in.readUnsignedByte();
+        boolean canonique = (drapeaux & DRAPEAU_CANONIQUE) != 0;
+        boolean symboles32 = (drapeaux & DRAPEAU_SYMBOLES_32) != 0;
+        int n = in.readInt();
+        if (n < 0 || n > (1 << 24)) {
+            throw new IOException("Nombre d'entrées invalide : " + n);
+        }
+        int[] s = new int[n];
+        int[] l = new int[n];
+        long[] c = new long[n];
+        for (int i = 0; i < n; i++) {
+            s[i] = symboles32 ? in.readInt() : in.readUnsignedShort();
+            l[i] = in.readUnsignedByte();
+            if (l[i] == 0 || l[i] > LONGUEUR_MAX_CODE) {
+                throw new IOException("Longueur de code invalide : " + l[i]);
+            }
+            if (!canonique) {
+                long code = 0;
+                for (int o = 0; o < (l[i] + 7) / 8; o++) {
+                    code = (code << 8) | in.readUnsignedByte();
+                }
+                c[i] = code;
+            }
+        }
+        if (canonique) {
+            try {
+                return canonique(s, l);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Table canonique incohérente : " + e.getMessage(), e);
+            }
+        }
+        return new HuffmanTable(s, l, c);
+    }
+
+    public Map<Character, String> versMap() {
+        Map<Character, String> table = new HashMap<>();
+        for (int i = 0; i < symboles.length; i++) {
+            table.put((char) symboles[i], codeEnChaine(i));
+        }
+        return table;
+    }
+
+    public int taille() {
+        return symboles.length;
+    }
+
+    public int symbole(int i) {
+        return symboles[i];
+    }
+
+    public int longueur(int i) {
+        return longueurs[i];
+    }
+
+    public long code(int i) {
+        return codes[i];
+    }
+
+    public int longueurMax() {
+        return longueurMax;
+    }
+
+    public String codeEnChaine(int i) {
+        StringBuilder sb = new StringBuilder(longueurs[i]);
+        for (int b = longueurs[i] - 1; b >= 0; b--) {
+            sb.append((char) ('0' + ((codes[i] >>> b) & 1)));
+        }
+        return sb.toString();
+    }
+
+    static boolean estBinaire(String code) {
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c != '0' && c != '1') return false;
+        }
+        return true;
+    }
+}
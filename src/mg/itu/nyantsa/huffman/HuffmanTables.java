@@ -0,0 +1,158 @@
+package huffman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chargement des tables Huffman depuis un fichier, avec cache en mémoire.
+ *
+ * Deux formats sont reconnus : le format binaire {@link HuffmanTable} ("HFTB") et le fichier
+ * .properties historique (clé d'un caractère = code). Une table chargée est gardée avec son
+ * décodeur tant que le fichier ne change pas (même taille, même date de modification) ; sa
+ * propriété préfixe est vérifiée au chargement ({@link #validation(Path)}).
+ */
+public class HuffmanTables {
+
+    private static final Map<Cle, Chargee> CACHE = new ConcurrentHashMap<>();
+
+    private HuffmanTables() {
+    }
+
+    public static HuffmanTable table(Path chemin) throws IOException {
+        return charger(chemin).table;
+    }
+
+    /**
+     * Décodeur prêt à l'emploi pour la table du fichier (construit une seule fois).
+     */
+    public static HuffmanDecoder decodeur(Path chemin) throws IOException {
+        return charger(chemin).decodeur();
+    }
+
+    /**
+     * Vérification préfixe de la table du fichier, faite une fois à chaque chargement.
+     */
+    public static PrefixCodeCheck.Resultat validation(Path chemin) throws IOException {
+        return charger(chemin).validation;
+    }
+
+    public static void viderCache() {
+        CACHE.clear();
+    }
+
+    private static Chargee charger(Path chemin) throws IOException {
+        Path absolu = chemin.toAbsolutePath().normalize();
+        Cle cle = new Cle(absolu.toString(), Files.getLastModifiedTime(absolu).toMillis(), Files.size(absolu));
+        Chargee chargee = CACHE.get(cle);
+        if (chargee == null) {
+            chargee = new Chargee(lireFichier(absolu));
+            CACHE.keySet().removeIf(k -> k.chemin.equals(cle.chemin));
+            CACHE.put(cle, chargee);
+        }
+        return chargee;
+    }
+
+    private static HuffmanTable lireFichier(Path chemin) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(chemin))) {
+            in.mark(4);
+            int signature = (in.read() << 24) | (in.read() << 16) | (in.read() << 8) | in.read();
+            in.reset();
+            if (signature == HuffmanTable.MAGIC) {
+                return HuffmanTable.lire(in);
+            }
+            return HuffmanTable.depuisMap(lireProperties(in));
+        }
+    }
+
+    /**
+     * Lecture du format .properties : seules les clés d'un caractère sont des symboles.
+     */
+    static Map<Character, String> lireProperties(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        Map<Character, String> tableCodage = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.length() == 1) {
+                tableCodage.put(key.charAt(0), properties.getProperty(key));
+            }
+        }
+        return tableCodage;
+    }
+
+    public static void ecrire(HuffmanTable table, Path chemin) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chemin))) {
+            table.ecrire(out);
+        }
+    }
+
+    /**
+     * Convertit une table (.properties ou binaire) au format binaire :
+     * java huffman.HuffmanTables entree.properties sortie.hftb
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : java huffman.HuffmanTables <table d'entrée> <table binaire de sortie>");
+            return;
+        }
+        HuffmanTable table = table(Paths.get(args[0]));
+        ecrire(table, Paths.get(args[1]));
+        System.out.println(table.taille() + " codes écrits dans " + args[1]
+            + (table.estCanonique() ? " (canonique : longueurs seules)" : " (codes explicites)"));
+    }
+
+    private static final class Chargee {
+        final HuffmanTable table;
+        final PrefixCodeCheck.Resultat validation;
+        private volatile HuffmanDecoder decodeur;
+
+        Chargee(HuffmanTable table) {
+            this.table = table;
+            this.validation = PrefixCodeCheck.verifierTable(table);
+        }
+
+        HuffmanDecoder decodeur() {
+            HuffmanDecoder d = decodeur;
+            if (d == null) {
+                d = new HuffmanDecoder(table);
+                decodeur = d;
+            }
+            return d;
+        }
+    }
+
+    private static final class Cle {
+        final String chemin;
+        final long modification;
+        final long taille;
+
+        Cle(String chemin, long modification, long taille) {
+            this.chemin = chemin;
+            this.modification = modification;
+            this.taille = taille;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cle)) return false;
+            Cle c = (Cle) o;
+            return modification == c.modification && taille == c.taille && chemin.equals(c.chemin);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chemin, modification, taille);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package huffman;
+
+import java.util.stream.IntStream;
+
+/**
+ * Encodeur Huffman parallèle en deux passes, pour l'alphabet MINUSCULES.
+ *
+ * Le texte est découpé en morceaux. Première passe : la longueur en bits de chaque morceau, par
+ * simple somme des longueurs de codes. Une somme préfixe donne ensuite la position de départ de
+ * chaque morceau, et la seconde passe écrit les morceaux en parallèle dans un seul tableau de
+ * mots. Un mot entièrement couvert par un morceau n'est écrit que par lui ; les deux mots de bord
+ * qu'un morceau peut partager avec ses voisins sont gardés à part et combinés à la fin.
+ *
+ * Le résultat est identique bit à bit à l'encodage séquentiel (encoderFromTable).
+ */
+public final class ParallelHuffmanEncoder {
+
+    /** Nombre de caractères par morceau. */
+    static final int TAILLE_MORCEAU = 1 << 18;
+
+    /** Longueur maximale d'un code : le code et sa longueur tiennent dans un long. */
+    public static final int LONGUEUR_MAX = 57;
+
+    /** (code << 6) | longueur pour chaque caractère normalisé, 0 s'il n'a pas de code. */
+    private final long[] entrees = new long[FrequencyCounter.TAILLE_HISTOGRAMME];
+
+    /** Même entrée indexée par le caractère brut, pour les caractères ASCII. */
+    private final long[] entreesAscii = new long[128];
+
+    public ParallelHuffmanEncoder(HuffmanTable table) {
+        if (table.longueurMax() > LONGUEUR_MAX) {
+            throw new IllegalArgumentException("Codes trop longs pour l'encodeur parallèle : "
+                + table.longueurMax() + " bits (maximum " + LONGUEUR_MAX + ")");
+        }
+        for (int i = 0; i < table.taille(); i++) {
+            int s = table.symboles[i];
+            if (s >= 0 && s < entrees.length) {
+                entrees[s] = (table.codes[i] << 6) | table.longueurs[i];
+            }
+        }
+        for (char c = 0; c < 128; c++) {
+            entreesAscii[c] = entreeNormalisee(c);
+        }
+    }
+
+    private long entree(char c) {
+        return c < 128 ? entreesAscii[c] : entreeNormalisee(c);
+    }
+
+    private long entreeNormalisee(char c) {
+        int n = HuffmanCodingCharacter.normaliserCaractere(c);
+        return n < 0 ? 0 : entrees[n];
+    }
+
+    /**
+     * Encode le texte (normalisé au passage, les caractères sans code sont ignorés).
+     */
+    public BitBuffer encoder(CharSequence texte) {
+        int n = texte.length();
+        int morceaux = Math.max(1, (n + TAILLE_MORCEAU - 1) / TAILLE_MORCEAU);
+
+        long[] debuts = new long[morceaux + 1];
+        IntStream.range(0, morceaux).parallel().forEach(m -> debuts[m + 1] = compterBits(texte, m));
+        for (int m = 0; m < morceaux; m++) {
+            debuts[m + 1] += debuts[m];
+        }
+        long total = debuts[morceaux];
+        if (total > (long) (Integer.MAX_VALUE - 8) * 64) {
+            throw new IllegalArgumentException("Texte encodé trop long : " + total + " bits");
+        }
+
+        long[] mots = new long[(int) Math.max(1, (total + 63) >>> 6)];
+        long[] bords = new long[2 * morceaux];
+        IntStream.range(0, morceaux).parallel().forEach(m -> ecrire(texte, m, debuts[m], debuts[m + 1], mots, bords));
+        for (int m = 0; m < morceaux; m++) {
+            if ((debuts[m] & 63) != 0) {
+                mots[(int) (debuts[m] >>> 6)] |= bords[2 * m];
+            }
+            if ((debuts[m + 1] & 63) != 0) {
+                mots[(int) (debuts[m + 1] >>> 6)] |= bords[2 * m + 1];
+            }
+        }
+        return BitBuffer.envelopper(mots, total);
+    }
+
+    private long compterBits(CharSequence texte, int morceau) {
+        int debut = morceau * TAILLE_MORCEAU;
+        int fin = Math.min(texte.length(), debut + TAILLE_MORCEAU);
+        long bits = 0;
+        for (int i = debut; i < fin; i++) {
+            bits += entree(texte.charAt(i)) & 63;
+        }
+        return bits;
+    }
+
+    /**
+     * Écrit les codes du morceau à partir du bit debutBits. Les mots complets vont directement
+     * dans mots ; le premier et le dernier mot, s'ils sont partagés, vont dans bords.
+     */
+    private void ecrire(CharSequence texte, int morceau, long debutBits, long finBits, long[] mots, long[] bords) {
+        if (debutBits == finBits) return;
+        int motPartageDebut = (debutBits & 63) != 0 ? (int) (debutBits >>> 6) : -1;
+        int motPartageFin = (finBits & 63) != 0 ? (int) (finBits >>> 6) : -1;
+
+        int debut = morceau * TAILLE_MORCEAU;
+        int fin = Math.min(texte.length(), debut + TAILLE_MORCEAU);
+        int w = (int) (debutBits >>> 6);
+        int rempli = (int) (debutBits & 63);
+        long accumulateur = 0;
+        for (int i = debut; i < fin; i++) {
+            long e = entree(texte.charAt(i));
+            int l = (int) (e & 63);
+            if (l == 0) continue;
+            long code = e >>> 6;
+            int libre = 64 - rempli;
+            if (l < libre) {
+                accumulateur |= code << (libre - l);
+                rempli += l;
+            } else {
+                int reste = l - libre;
+                accumulateur |= code >>> reste;
+                deposer(w++, accumulateur, morceau, motPartageDebut, motPartageFin, mots, bords);
+                accumulateur = reste == 0 ? 0 : code << (64 - reste);
+                rempli = reste;
+            }
+        }
+        if (rempli > 0) {
+            deposer(w, accumulateur, morceau, motPartageDebut, motPartageFin, mots, bords);
+        }
+    }
+
+    private static void deposer(int w, long valeur, int morceau, int motPartageDebut, int motPartageFin,
+                                long[] mots, long[] bords) {
+        if (w == motPartageDebut) {
+            bords[2 * morceau] |= valeur;
+        } else if (w == motPartageFin) {
+            bords[2 * morceau + 1] |= valeur;
+        } else {
+            mots[w] = valeur;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package huffman;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Vérification de la propriété préfixe en un passage sur les mots (temps proportionnel à la
+ * somme des longueurs), sans comparer les mots deux à deux.
+ *
+ * Pour un langage quelconque, les mots sont rangés dans un {@link CodeTrie} : le langage est
+ * préfixe si aucun nœud terminal n'a d'enfant. Pour une table de codage, un trie binaire est
+ * construit code par code ; le premier code vide, non binaire, en double ou en conflit de
+ * préfixe est signalé avec les deux symboles concernés. Le résultat indique aussi si le code
+ * est complet (Σ 2^-l = 1, chaque nœud interne a deux enfants), ce qui est le cas d'une table
+ * Huffman.
+ */
+public final class PrefixCodeCheck {
+
+    private static final int AUCUN = -1;
+
+    private PrefixCodeCheck() {
+    }
+
+    /**
+     * Vérifie un langage (alphabet quelconque).
+     */
+    public static Resultat verifier(Collection<String> langage) {
+        return verifier(CodeTrie.depuis(langage));
+    }
+
+    public static Resultat verifier(CodeTrie trie) {
+        if (trie.estTerminal(trie.racine()) && trie.nombreMots() > 1) {
+            int autre = terminalSous(trie, trie.racine());
+            return new Resultat(Probleme.PREFIXE, "", trie.mot(autre), -1, -1, false, trie.nombreMots());
+        }
+        for (int noeud = 1; noeud < trie.nombreNoeuds(); noeud++) {
+            if (trie.estTerminal(noeud) && trie.premierEnfant(noeud) != CodeTrie.AUCUN) {
+                return new Resultat(Probleme.PREFIXE, trie.mot(noeud), trie.mot(terminalSous(trie, noeud)),
+                                    -1, -1, false, trie.nombreMots());
+            }
+        }
+        return new Resultat(Probleme.AUCUN, null, null, -1, -1, false, trie.nombreMots());
+    }
+
+    /**
+     * Un nœud terminal strictement sous noeud (il en existe un sous tout enfant d'un trie).
+     */
+    private static int terminalSous(CodeTrie trie, int noeud) {
+        int n = trie.premierEnfant(noeud);
+        while (!trie.estTerminal(n)) {
+            n = trie.premierEnfant(n);
+        }
+        return n;
+    }
+
+    /**
+     * Vérifie une table caractère -> code ("0101"), telle que lue par
+     * {@link HuffmanCodingCharacter#lireTableHuffman()}.
+     */
+    public static Resultat verifierTable(Map<Character, String> tableCodage) {
+        TrieBinaire trie = new TrieBinaire(tableCodage.size());
+        for (Map.Entry<Character, String> entry : tableCodage.entrySet()) {
+            String code = entry.getValue();
+            int symbole = entry.getKey();
+            if (code == null || code.isEmpty()) {
+                return new Resultat(Probleme.CODE_VIDE, null, "", -1, symbole, false, tableCodage.size());
+            }
+            if (!HuffmanTable.estBinaire(code) || code.length() > HuffmanTable.LONGUEUR_MAX_CODE) {
+                Probleme probleme = code.length() > HuffmanTable.LONGUEUR_MAX_CODE ? Probleme.TROP_LONG : Probleme.NON_BINAIRE;
+                return new Resultat(probleme, null, code, -1, symbole, false, tableCodage.size());
+            }
+            Resultat conflit = trie.inserer(symbole, Long.parseUnsignedLong(code, 2), code.length());
+            if (conflit != null) return conflit;
+        }
+        return trie.resultat();
+    }
+
+    /**
+     * Vérifie une table déjà compactée (codes en long).
+     */
+    public static Resultat verifierTable(HuffmanTable table) {
+        TrieBinaire trie = new TrieBinaire(table.taille());
+        for (int i = 0; i < table.taille(); i++) {
+            if (table.longueur(i) == 0) {
+                return new Resultat(Probleme.CODE_VIDE, null, "", -1, table.symbole(i), false, table.taille());
+            }
+            Resultat conflit = trie.inserer(table.symbole(i), table.code(i), table.longueur(i));
+            if (conflit != null) return conflit;
+        }
+        return trie.resultat();
+    }
+
+    private static String enChaine(long code, int longueur) {
+        char[] bits = new char[longueur];
+        for (int i = 0; i < longueur; i++) {
+            bits[i] = (char) ('0' + ((code >>> (longueur - 1 - i)) & 1));
+        }
+        return new String(bits);
+    }
+
+    /**
+     * Trie binaire des codes d'une table : deux enfants par nœud, symbole du code qui s'y termine.
+     */
+    private static final class TrieBinaire {
+        private int[] enfants;
+        private int[] symbole;
+        private int[] longueur;
+        private long[] code;
+        private int noeuds = 1;
+        private int codes;
+
+        TrieBinaire(int tailleTable) {
+            int capacite = Math.max(16, tailleTable * 4);
+            enfants = new int[2 * capacite];
+            symbole = new int[capacite];
+            longueur = new int[capacite];
+            code = new long[capacite];
+            Arrays.fill(enfants, AUCUN);
+            Arrays.fill(symbole, AUCUN);
+        }
+
+        /** Insère un code ; renvoie le conflit rencontré, ou null. */
+        Resultat inserer(int sym, long bits, int l) {
+            int noeud = 0;
+            for (int i = l - 1; i >= 0; i--) {
+                if (symbole[noeud] != AUCUN) {
+                    return conflit(Probleme.PREFIXE, noeud, sym, bits, l);
+                }
+                int b = (int) (bits >>> i) & 1;
+                int suivant = enfants[2 * noeud + b];
+                if (suivant == AUCUN) {
+                    suivant = nouveauNoeud(bits >>> i, l - i);
+                    enfants[2 * noeud + b] = suivant;
+                }
+                noeud = suivant;
+            }
+            if (symbole[noeud] != AUCUN) {
+                return conflit(Probleme.DOUBLON, noeud, sym, bits, l);
+            }
+            if (enfants[2 * noeud] != AUCUN || enfants[2 * noeud + 1] != AUCUN) {
+                // Le nouveau code est préfixe d'un code déjà inséré
+                int n = noeud;
+                while (symbole[n] == AUCUN) {
+                    n = enfants[2 * n] != AUCUN ? enfants[2 * n] : enfants[2 * n + 1];
+                }
+                return new Resultat(Probleme.PREFIXE, enChaine(bits, l), enChaine(code[n], longueur[n]),
+                                    sym, symbole[n], false, codes + 1);
+            }
+            symbole[noeud] = sym;
+            codes++;
+            return null;
+        }
+
+        private Resultat conflit(Probleme probleme, int noeud, int sym, long bits, int l) {
+            return new Resultat(probleme, enChaine(code[noeud], longueur[noeud]), enChaine(bits, l),
+                                symbole[noeud], sym, false, codes + 1);
+        }
+
+        private int nouveauNoeud(long prefixe, int l) {
+            if (noeuds == symbole.length) {
+                int capacite = noeuds * 2;
+                int ancienne = enfants.length;
+                enfants = Arrays.copyOf(enfants, 2 * capacite);
+                Arrays.fill(enfants, ancienne, enfants.length, AUCUN);
+                symbole = Arrays.copyOf(symbole, capacite);
+                Arrays.fill(symbole, noeuds, capacite, AUCUN);
+                longueur = Arrays.copyOf(longueur, capacite);
+                code = Arrays.copyOf(code, capacite);
+            }
+            longueur[noeuds] = l;
+            code[noeuds] = prefixe;
+            return noeuds++;
+        }
+
+        /** Table préfixe : complète si aucun nœud interne n'a un seul enfant. */
+        Resultat resultat() {
+            boolean complet = codes > 0;
+            for (int n = 0; n < noeuds && complet; n++) {
+                if (symbole[n] == AUCUN && (enfants[2 * n] == AUCUN) != (enfants[2 * n + 1] == AUCUN)) {
+                    complet = false;
+                }
+            }
+            return new Resultat(Probleme.AUCUN, null, null, -1, -1, complet, codes);
+        }
+    }
+
+    public enum Probleme {
+        AUCUN,
+        /** Un code est préfixe d'un autre. */
+        PREFIXE,
+        /** Deux symboles ont le même code. */
+        DOUBLON,
+        CODE_VIDE,
+        NON_BINAIRE,
+        TROP_LONG
+    }
+
+    /**
+     * Issue de la vérification. Pour un conflit, prefixe() est le mot (ou code) le plus court et
+     * mot() l'autre ; les symboles ne sont renseignés (>= 0) que pour une table de codage.
+     */
+    public static final class Resultat {
+
+        private final Probleme probleme;
+        private final String prefixe;
+        private final String mot;
+        private final int symbolePrefixe;
+        private final int symboleMot;
+        private final boolean complet;
+        private final int motsVerifies;
+
+        Resultat(Probleme probleme, String prefixe, String mot, int symbolePrefixe, int symboleMot,
+                 boolean complet, int motsVerifies) {
+            this.probleme = probleme;
+            this.prefixe = prefixe;
+            this.mot = mot;
+            this.symbolePrefixe = symbolePrefixe;
+            this.symboleMot = symboleMot;
+            this.complet = complet;
+            this.motsVerifies = motsVerifies;
+        }
+
+        public boolean estPrefixe() {
+            return probleme == Probleme.AUCUN;
+        }
+
+        public Probleme probleme() {
+            return probleme;
+        }
+
+        public String prefixe() {
+            return prefixe;
+        }
+
+        public String mot() {
+            return mot;
+        }
+
+        public int symbolePrefixe() {
+            return symbolePrefixe;
+        }
+
+        public int symboleMot() {
+            return symboleMot;
+        }
+
+        /** Table préfixe dont les longueurs vérifient Kraft avec égalité. */
+        public boolean estComplet() {
+            return complet;
+        }
+
+        /** Nombre de mots ou de codes examinés avant de conclure. */
+        public int motsVerifies() {
+            return motsVerifies;
+        }
+
+        public String description() {
+            switch (probleme) {
+                case AUCUN:
+                    return "Code préfixe" + (complet ? " complet" : "") + " (" + motsVerifies + " mots)";
+                case PREFIXE:
+                    return "\"" + prefixe + "\"" + symboles(symbolePrefixe) + " est préfixe de \"" + mot + "\"" + symboles(symboleMot);
+                case DOUBLON:
+                    return "Code \"" + mot + "\" partagé par" + symboles(symbolePrefixe) + " et" + symboles(symboleMot);
+                case CODE_VIDE:
+                    return "Code vide pour" + symboles(symboleMot);
+                case NON_BINAIRE:
+                    return "Code non binaire \"" + mot + "\" pour" + symboles(symboleMot);
+                default:
+                    return "Code trop long (" + mot.length() + " bits) pour" + symboles(symboleMot);
+            }
+        }
+
+        private static String symboles(int symbole) {
+            if (symbole < 0) return "";
+            return symbole == ' ' ? " (ESPACE)" : " ('" + new String(Character.toChars(symbole)) + "')";
+        }
+
+        @Override
+        public String toString() {
+            return description();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package huffman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test de Sardinas–Patterson : un langage est un code (décodable de façon unique) si et
+ * seulement si aucun suffixe pendant n'est le mot vide.
+ *
+ * Un suffixe pendant d est ce qui dépasse quand deux suites de mots du langage se suivent sans
+ * s'accorder : concat(A) = concat(B) · d. On part des paires w, x = w · d, puis on prolonge B
+ * par un mot préfixe de d (reste d') ou par un mot dont d est préfixe (les rôles de A et B
+ * s'échangent). Chaque suffixe pendant est un suffixe d'un mot du langage : il y en a au plus
+ * la somme des longueurs, et chacun n'est exploré qu'une fois (ensemble des suffixes vus rangé
+ * dans un {@link CodeTrie}). Le test est donc polynomial, sans borne arbitraire sur la longueur
+ * des mots essayés.
+ *
+ * Quand le mot vide est atteint, la chaîne de suffixes est rejouée pour donner un mot ambigu et
+ * deux factorisations différentes. Le parcours en largeur donne une chaîne de longueur minimale.
+ */
+public final class SardinasPatterson {
+
+    private final CodeTrie langage;
+    private final CodeTrie vus = new CodeTrie();
+
+    /** Suffixe pendant de chaque état : mot du langage (nœud terminal) et position de début. */
+    private int[] etatMot = new int[64];
+    private int[] etatDebut = new int[64];
+    /** État précédent (AUCUN pour une paire initiale) et mot ajouté à B pour y arriver. */
+    private int[] etatParent = new int[64];
+    private int[] etatAjout = new int[64];
+    private boolean[] etatBascule = new boolean[64];
+    private int etats;
+
+    private SardinasPatterson(CodeTrie langage) {
+        this.langage = langage;
+    }
+
+    public static Resultat verifier(Collection<String> langage) {
+        return verifier(CodeTrie.depuis(langage));
+    }
+
+    public static Resultat verifier(CodeTrie langage) {
+        if (langage.estTerminal(langage.racine())) {
+            // Le mot vide se factorise en ε comme en ε · ε
+            return new Resultat(false, "", List.of(""), List.of("", ""), 0, 0);
+        }
+        return new SardinasPatterson(langage).executer();
+    }
+
+    private Resultat executer() {
+        int[] pile = new int[16];
+        // Paires initiales : w préfixe propre de x, suffixe pendant x[|w|..]
+        for (int w = 1; w < langage.nombreNoeuds(); w++) {
+            if (!langage.estTerminal(w)) continue;
+            int debut = langage.profondeur(w);
+            pile = descendantsTerminaux(w, pile);
+            for (int k = 1; k <= pile[0]; k++) {
+                ajouterEtat(pile[k], debut, CodeTrie.AUCUN, w, false);
+            }
+        }
+
+        for (int s = 0; s < etats; s++) {
+            char[] lettres = lettres(etatMot[s]);
+            int debut = etatDebut[s];
+            int m = lettres.length - debut;
+
+            // Mots du langage préfixes de d : B avance, d perd ce préfixe
+            int noeud = langage.racine();
+            for (int i = 0; i < m && noeud != CodeTrie.AUCUN; i++) {
+                noeud = langage.enfant(noeud, lettres[debut + i]);
+                if (noeud == CodeTrie.AUCUN || !langage.estTerminal(noeud)) continue;
+                if (i + 1 == m) {
+                    return ambiguite(s, noeud);
+                }
+                ajouterEtat(etatMot[s], debut + i + 1, s, noeud, false);
+            }
+
+            // Mots du langage dont d est préfixe propre : B passe devant A
+            if (noeud != CodeTrie.AUCUN) {
+                pile = descendantsTerminaux(noeud, pile);
+                for (int k = 1; k <= pile[0]; k++) {
+                    ajouterEtat(pile[k], m, s, pile[k], true);
+                }
+            }
+        }
+        return new Resultat(true, null, null, null, etats, octetsUtilises());
+    }
+
+    /**
+     * Nœuds terminaux strictement sous noeud, rangés dans pile[1..pile[0]] (la pile sert aussi
+     * au parcours et peut être agrandie).
+     */
+    private int[] descendantsTerminaux(int noeud, int[] pile) {
+        int[] aVisiter = new int[16];
+        int sommet = 0;
+        int trouves = 0;
+        for (int e = langage.premierEnfant(noeud); e != CodeTrie.AUCUN; e = langage.frereSuivant(e)) {
+            if (sommet == aVisiter.length) aVisiter = Arrays.copyOf(aVisiter, sommet * 2);
+            aVisiter[sommet++] = e;
+        }
+        while (sommet > 0) {
+            int n = aVisiter[--sommet];
+            if (langage.estTerminal(n)) {
+                if (trouves + 1 == pile.length) pile = Arrays.copyOf(pile, pile.length * 2);
+                pile[++trouves] = n;
+            }
+            for (int e = langage.premierEnfant(n); e != CodeTrie.AUCUN; e = langage.frereSuivant(e)) {
+                if (sommet == aVisiter.length) aVisiter = Arrays.copyOf(aVisiter, sommet * 2);
+                aVisiter[sommet++] = e;
+            }
+        }
+        pile[0] = trouves;
+        return pile;
+    }
+
+    private void ajouterEtat(int mot, int debut, int parent, int ajout, boolean bascule) {
+        char[] lettres = lettres(mot);
+        if (!vus.ajouter(lettres, debut, lettres.length)) return;
+        if (etats == etatMot.length) {
+            int capacite = etats * 2;
+            etatMot = Arrays.copyOf(etatMot, capacite);
+            etatDebut = Arrays.copyOf(etatDebut, capacite);
+            etatParent = Arrays.copyOf(etatParent, capacite);
+            etatAjout = Arrays.copyOf(etatAjout, capacite);
+            etatBascule = Arrays.copyOf(etatBascule, capacite);
+        }
+        etatMot[etats] = mot;
+        etatDebut[etats] = debut;
+        etatParent[etats] = parent;
+        etatAjout[etats] = ajout;
+        etatBascule[etats] = bascule;
+        etats++;
+    }
+
+    /** Place occupée par l'état du test : trie des suffixes vus et tableaux des états. */
+    private long octetsUtilises() {
+        return vus.octetsUtilises() + (long) etatMot.length * (4 + 4 + 4 + 4 + 1);
+    }
+
+    private char[] lettres(int noeud) {
+        return langage.mot(noeud).toCharArray();
+    }
+
+    /**
+     * Rejoue la chaîne de suffixes menant à l'état s, puis ajoute le dernier mot qui épuise d.
+     */
+    private Resultat ambiguite(int s, int dernierMot) {
+        List<Integer> chaine = new ArrayList<>();
+        for (int e = s; e != CodeTrie.AUCUN; e = etatParent[e]) {
+            chaine.add(e);
+        }
+        Collections.reverse(chaine);
+
+        int initial = chaine.get(0);
+        List<String> devant = new ArrayList<>(List.of(langage.mot(etatMot[initial])));
+        List<String> derriere = new ArrayList<>(List.of(langage.mot(etatAjout[initial])));
+        for (int k = 1; k < chaine.size(); k++) {
+            int e = chaine.get(k);
+            derriere.add(langage.mot(etatAjout[e]));
+            if (etatBascule[e]) {
+                List<String> echange = devant;
+                devant = derriere;
+                derriere = echange;
+            }
+        }
+        derriere.add(langage.mot(dernierMot));
+        return new Resultat(false, String.join("", devant), devant, derriere, etats, octetsUtilises());
+    }
+
+    /**
+     * Issue du test : code ou non, et pour un langage ambigu un mot ayant deux factorisations.
+     */
+    public static final class Resultat {
+
+        private final boolean code;
+        private final String motAmbigu;
+        private final List<String> factorisation1;
+        private final List<String> factorisation2;
+        private final int suffixesExplores;
+        private final long octetsUtilises;
+
+        Resultat(boolean code, String motAmbigu, List<String> factorisation1, List<String> factorisation2,
+                 int suffixesExplores, long octetsUtilises) {
+            this.code = code;
+            this.motAmbigu = motAmbigu;
+            this.factorisation1 = factorisation1 == null ? null : List.copyOf(factorisation1);
+            this.factorisation2 = factorisation2 == null ? null : List.copyOf(factorisation2);
+            this.suffixesExplores = suffixesExplores;
+            this.octetsUtilises = octetsUtilises;
+        }
+
+        public boolean estCode() {
+            return code;
+        }
+
+        /** Mot ayant deux factorisations, ou null si le langage est un code. */
+        public String motAmbigu() {
+            return motAmbigu;
+        }
+
+        public List<String> factorisation1() {
+            return factorisation1;
+        }
+
+        public List<String> factorisation2() {
+            return factorisation2;
+        }
+
+        /** Nombre de suffixes pendants distincts rencontrés. */
+        public int suffixesExplores() {
+            return suffixesExplores;
+        }
+
+        /** Place occupée par l'état du test (suffixes vus et chaînage des états), en octets. */
+        public long octetsUtilises() {
+            return octetsUtilises;
+        }
+    }
+}
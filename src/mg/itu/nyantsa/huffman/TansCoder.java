@@ -0,0 +1,260 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * Codeur ANS à tables (tANS, à la manière de FSE) pour le texte normalisé.
+ *
+ * Les fréquences du message sont ramenées à une somme L = 2^R et les symboles sont répartis
+ * dans une table de L états. Chaque symbole coûte alors log2(L / q) bits en moyenne, sans
+ * l'arrondi au bit entier de Huffman : on s'approche de l'entropie à quelques millièmes près
+ * sur un texte long. Le décodage est un accès de table et une lecture de bits par symbole.
+ *
+ * Les bits produits sont autonomes : nombre de symboles (32 bits), présence des 27 symboles
+ * (27 bits), fréquence normalisée - 1 de chaque symbole présent (R bits), état initial du
+ * décodeur (R bits), puis les bits du message. L'en-tête (quelques centaines de bits) ne
+ * s'amortit que sur des messages de plusieurs centaines de caractères.
+ */
+public final class TansCoder implements EntropyCoder {
+
+    public static final String ID = "tans";
+
+    static final int SYMBOLES = 27;
+    private static final int BITS_NOMBRE = 32;
+    public static final int BITS_TABLE_DEFAUT = 11;
+
+    private final int bitsTable;
+
+    public TansCoder() {
+        this(BITS_TABLE_DEFAUT);
+    }
+
+    public TansCoder(int bitsTable) {
+        if (bitsTable < 5 || bitsTable > 16) {
+            throw new IllegalArgumentException("Taille de table tANS invalide : 2^" + bitsTable);
+        }
+        this.bitsTable = bitsTable;
+    }
+
+    @Override
+    public String identifiant() {
+        return ID;
+    }
+
+    @Override
+    public BitBuffer encoderBits(CharSequence texte) {
+        int[] symboles = symboles(texte);
+        int n = symboles.length;
+        long[] comptes = new long[SYMBOLES];
+        for (int s : symboles) comptes[s]++;
+        int[] q = normaliser(comptes, bitsTable);
+        if (n == 0) {
+            // Message vide : le nombre de symboles et une présence vide suffisent
+            BitBuffer vide = new BitBuffer(BITS_NOMBRE + SYMBOLES);
+            vide.ajouter(0, BITS_NOMBRE + SYMBOLES);
+            return vide;
+        }
+        Tables tables = new Tables(q, bitsTable);
+
+        // Encodage à rebours ; les paquets de bits sont relus dans l'ordre inverse par le décodeur
+        int[] valeurs = new int[n];
+        byte[] tailles = new byte[n];
+        int etat = tables.l;
+        for (int i = n - 1; i >= 0; i--) {
+            int s = symboles[i];
+            int nb = tables.decalage[s] - (etat < tables.seuil[s] ? 1 : 0);
+            valeurs[i] = etat & ((1 << nb) - 1);
+            tailles[i] = (byte) nb;
+            etat = tables.encodage[tables.debut[s] + (etat >>> nb) - q[s]];
+        }
+
+        BitBuffer bits = new BitBuffer(BITS_NOMBRE + SYMBOLES + (SYMBOLES + 1) * bitsTable + (long) n * 5);
+        bits.ajouter(n, BITS_NOMBRE);
+        for (int s = 0; s < SYMBOLES; s++) {
+            bits.ajouterBit(q[s] > 0 ? 1 : 0);
+        }
+        for (int s = 0; s < SYMBOLES; s++) {
+            if (q[s] > 0) bits.ajouter(q[s] - 1, bitsTable);
+        }
+        bits.ajouter(etat - tables.l, bitsTable);
+        for (int i = 0; i < n; i++) {
+            bits.ajouter(valeurs[i], tailles[i]);
+        }
+        return bits;
+    }
+
+    @Override
+    public String decoderBits(BitBuffer bits) {
+        long fin = bits.longueur();
+        long pos = 0;
+        if (fin < BITS_NOMBRE + SYMBOLES) {
+            throw new IllegalArgumentException("En-tête tANS incomplet : " + fin + " bits");
+        }
+        long n = bits.lire64(pos) >>> (64 - BITS_NOMBRE);
+        pos += BITS_NOMBRE;
+        int[] q = new int[SYMBOLES];
+        boolean[] presents = new boolean[SYMBOLES];
+        for (int s = 0; s < SYMBOLES; s++) {
+            presents[s] = bits.bit(pos++) == 1;
+        }
+        for (int s = 0; s < SYMBOLES; s++) {
+            if (!presents[s]) continue;
+            if (pos + bitsTable > fin) {
+                throw new IllegalArgumentException("En-tête tANS incomplet");
+            }
+            q[s] = (int) (bits.lire64(pos) >>> (64 - bitsTable)) + 1;
+            pos += bitsTable;
+        }
+        if (n == 0) return "";
+        Tables tables;
+        try {
+            tables = new Tables(q, bitsTable);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("En-tête tANS incohérent : " + e.getMessage(), e);
+        }
+        if (n > limiteSymboles(q, fin - pos)) {
+            throw new IllegalArgumentException("Nombre de symboles tANS invalide : " + n);
+        }
+        int etat = (int) (bits.lire64(pos) >>> (64 - bitsTable));
+        pos += bitsTable;
+
+        char[] texte = new char[(int) n];
+        for (int i = 0; i < n; i++) {
+            int entree = tables.decodage[etat];
+            int s = entree & 0xFF;
+            int nb = (entree >>> 8) & 0xFF;
+            texte[i] = s == SYMBOLES - 1 ? ' ' : (char) ('a' + s);
+            int lus = nb == 0 ? 0 : (int) (bits.lire64(pos) >>> (64 - nb));
+            pos += nb;
+            etat = tables.base[etat] + lus;
+        }
+        if (pos > fin) {
+            throw new IllegalArgumentException("Message tANS tronqué : " + pos + " bits attendus, " + fin + " disponibles");
+        }
+        return new String(texte);
+    }
+
+    /**
+     * Nombre maximal de symboles que bitsRestants peuvent coder : chaque symbole coûte au moins
+     * log2(L / qmax) bits en moyenne (à l'état initial près), sauf pour un symbole unique.
+     */
+    private long limiteSymboles(int[] q, long bitsRestants) {
+        int qmax = 0;
+        for (int f : q) qmax = Math.max(qmax, f);
+        if (qmax == 1 << bitsTable) return Integer.MAX_VALUE - 8;
+        double coutMin = bitsTable - Math.log(qmax) / Math.log(2);
+        return (long) Math.min(Integer.MAX_VALUE - 8, (bitsRestants + bitsTable) / coutMin + 1);
+    }
+
+    /**
+     * Symboles 0-25 pour a-z, 26 pour l'espace ; les autres caractères sont ignorés.
+     */
+    private static int[] symboles(CharSequence texte) {
+        int[] symboles = new int[texte.length()];
+        int n = 0;
+        for (int i = 0; i < texte.length(); i++) {
+            int c = HuffmanCodingCharacter.normaliserCaractere(texte.charAt(i));
+            if (c >= 0) symboles[n++] = c == ' ' ? SYMBOLES - 1 : c - 'a';
+        }
+        return Arrays.copyOf(symboles, n);
+    }
+
+    /**
+     * Ramène les comptes à une somme 2^bitsTable, chaque symbole présent gardant au moins 1.
+     * L'écart d'arrondi est corrigé unité par unité, sur le symbole dont le coût varie le moins.
+     */
+    static int[] normaliser(long[] comptes, int bitsTable) {
+        int l = 1 << bitsTable;
+        long total = 0;
+        for (long c : comptes) total += c;
+        int[] q = new int[comptes.length];
+        if (total == 0) return q;
+        int somme = 0;
+        int plusFrequent = 0;
+        for (int s = 0; s < comptes.length; s++) {
+            if (comptes[s] == 0) continue;
+            q[s] = (int) Math.max(1, Math.round((double) comptes[s] * l / total));
+            somme += q[s];
+            if (comptes[s] > comptes[plusFrequent]) plusFrequent = s;
+        }
+        while (somme != l) {
+            // Coût d'une unité de plus ou de moins : comptes[s] * |log(q / q')|
+            int meilleur = -1;
+            double meilleurCout = Double.MAX_VALUE;
+            for (int s = 0; s < q.length; s++) {
+                if (q[s] == 0 || (somme > l && q[s] == 1)) continue;
+                int nouveau = somme > l ? q[s] - 1 : q[s] + 1;
+                double cout = comptes[s] * Math.abs(Math.log((double) q[s] / nouveau));
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    meilleur = s;
+                }
+            }
+            if (meilleur < 0) meilleur = plusFrequent;
+            q[meilleur] += somme > l ? -1 : 1;
+            somme += somme > l ? -1 : 1;
+        }
+        return q;
+    }
+
+    /**
+     * Tables de codage et de décodage pour des fréquences normalisées q (somme L = 2^R).
+     */
+    private static final class Tables {
+        final int l;
+        /** Décodage : symbole (bits 0-7) et nombre de bits à lire (bits 8-15) par état. */
+        final int[] decodage;
+        /** Décodage : base du prochain état. */
+        final int[] base;
+        /** Encodage : états successeurs, rangés par symbole à partir de debut[s]. */
+        final int[] encodage;
+        final int[] debut = new int[SYMBOLES];
+        /** Encodage : nombre de bits à émettre (decalage, ou decalage - 1 sous le seuil). */
+        final int[] decalage = new int[SYMBOLES];
+        final int[] seuil = new int[SYMBOLES];
+
+        Tables(int[] q, int r) {
+            l = 1 << r;
+            int somme = 0;
+            for (int s = 0; s < SYMBOLES; s++) {
+                if (q[s] < 0) throw new IllegalArgumentException("Fréquence négative");
+                debut[s] = somme;
+                somme += q[s];
+            }
+            if (somme != l) {
+                throw new IllegalArgumentException("Les fréquences normalisées font " + somme + " au lieu de " + l);
+            }
+
+            // Répartition des symboles dans les états (pas premier avec L)
+            int[] symboleEtat = new int[l];
+            int pas = (l >>> 1) + (l >>> 3) + 3;
+            int position = 0;
+            for (int s = 0; s < SYMBOLES; s++) {
+                for (int k = 0; k < q[s]; k++) {
+                    symboleEtat[position] = s;
+                    position = (position + pas) & (l - 1);
+                }
+            }
+
+            decodage = new int[l];
+            base = new int[l];
+            encodage = new int[l];
+            int[] suivant = q.clone();
+            for (int x = 0; x < l; x++) {
+                int s = symboleEtat[x];
+                int n = suivant[s]++;
+                int nb = r - (31 - Integer.numberOfLeadingZeros(n));
+                decodage[x] = (nb << 8) | s;
+                base[x] = (n << nb) - l;
+                encodage[debut[s] + n - q[s]] = x + l;
+            }
+            for (int s = 0; s < SYMBOLES; s++) {
+                if (q[s] == 0) continue;
+                // Pour un état X de [L, 2L), on émet decalage bits si X >= seuil, sinon un de moins
+                int k = r - (31 - Integer.numberOfLeadingZeros(q[s]));
+                decalage[s] = k;
+                seuil[s] = q[s] << k;
+            }
+        }
+    }
+}
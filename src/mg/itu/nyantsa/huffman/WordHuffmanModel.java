@@ -0,0 +1,325 @@
+package huffman;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle Huffman par mots, avec repli sur les caractères, pour le texte normalisé
+ * (lettres a-z et espace, comme {@link HuffmanCodingCharacter}).
+ *
+ * Les symboles 0-25 sont les lettres, 26 l'espace, et les suivants des mots du dictionnaire,
+ * espace final compris ou non ("le " et "le" sont deux entrées distinctes). Un mot absent du
+ * dictionnaire est épelé lettre par lettre ; le décodage concatène simplement les expansions,
+ * il n'y a donc jamais d'ambiguïté.
+ *
+ * Le dictionnaire est une table de hachage à adressage ouvert sur les caractères : la recherche
+ * d'un mot se fait directement dans le texte normalisé, sans créer de String. Les codes sont
+ * canoniques et bornés à {@link HuffmanDecoder#LONGUEUR_MAX} bits, le décodage passe par
+ * {@link HuffmanDecoder}.
+ */
+public final class WordHuffmanModel {
+
+    static final int SYMBOLE_ESPACE = 26;
+    static final int PREMIER_MOT = 27;
+    public static final int TAILLE_DICTIONNAIRE_DEFAUT = 4096;
+    /** Longueur maximale d'un mot du dictionnaire (écrite sur un octet) ; les plus longs sont épelés. */
+    static final int MOT_MAX = 255;
+
+    private static final int MAGIC = 0x4846574D; // "HFWM"
+
+    private final char[][] expansions;
+    private final int[] cases;
+    private final int masque;
+    private final HuffmanTable table;
+    private final HuffmanDecoder decodeur;
+    /** Code et longueur de chaque symbole. */
+    private final long[] codes;
+    private final int[] longueurs;
+
+    private WordHuffmanModel(List<String> mots, HuffmanTable table) {
+        this.expansions = new char[PREMIER_MOT + mots.size()][];
+        for (int s = 0; s < 26; s++) {
+            expansions[s] = new char[] {(char) ('a' + s)};
+        }
+        expansions[SYMBOLE_ESPACE] = new char[] {' '};
+        int taille = Integer.highestOneBit(Math.max(4, mots.size() * 2 - 1)) << 1;
+        this.cases = new int[taille];
+        this.masque = taille - 1;
+        for (int i = 0; i < mots.size(); i++) {
+            char[] mot = mots.get(i).toCharArray();
+            expansions[PREMIER_MOT + i] = mot;
+            int h = hacher(mot, 0, mot.length) & masque;
+            while (cases[h] != 0) h = (h + 1) & masque;
+            cases[h] = PREMIER_MOT + i + 1;
+        }
+        this.table = table;
+        this.decodeur = new HuffmanDecoder(table);
+        this.codes = new long[expansions.length];
+        this.longueurs = new int[expansions.length];
+        for (int i = 0; i < table.taille(); i++) {
+            int s = table.symboles[i];
+            if (s < 0 || s >= expansions.length) {
+                throw new IllegalArgumentException("Symbole hors du modèle : " + s);
+            }
+            codes[s] = table.codes[i];
+            longueurs[s] = table.longueurs[i];
+        }
+        for (int s = 0; s < PREMIER_MOT; s++) {
+            if (longueurs[s] == 0) {
+                throw new IllegalArgumentException("Le modèle doit coder chaque lettre et l'espace");
+            }
+        }
+    }
+
+    public static WordHuffmanModel construire(String reference) {
+        return construire(reference, TAILLE_DICTIONNAIRE_DEFAUT);
+    }
+
+    /**
+     * Construit le modèle à partir d'un texte de référence : les mots (avec ou sans espace final)
+     * qui font gagner le plus de symboles, puis un code canonique sur les fréquences de la
+     * référence découpée avec ce dictionnaire. Chaque lettre reçoit une occurrence de plus pour
+     * que tout texte reste codable. Les mots de plus de {@link #MOT_MAX} caractères, espace
+     * compris, n'entrent pas dans le dictionnaire.
+     */
+    public static WordHuffmanModel construire(String reference, int tailleDictionnaire) {
+        char[] texte = normaliser(reference);
+
+        Map<String, long[]> occurrences = new HashMap<>();
+        for (int i = 0; i < texte.length; ) {
+            if (texte[i] == ' ') {
+                i++;
+                continue;
+            }
+            int fin = finDeMot(texte, i);
+            int finJeton = fin < texte.length ? fin + 1 : fin;
+            if (fin - i >= 2 && finJeton - i <= MOT_MAX) {
+                occurrences.computeIfAbsent(new String(texte, i, finJeton - i), k -> new long[1])[0]++;
+            }
+            i = fin;
+        }
+        List<Map.Entry<String, long[]>> candidats = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : occurrences.entrySet()) {
+            if (e.getValue()[0] >= 2) candidats.add(e);
+        }
+        // Gain approximatif : symboles évités, à égalité par ordre alphabétique (résultat déterministe)
+        candidats.sort((x, y) -> {
+            long gx = x.getValue()[0] * (x.getKey().length() - 1);
+            long gy = y.getValue()[0] * (y.getKey().length() - 1);
+            return gx != gy ? Long.compare(gy, gx) : x.getKey().compareTo(y.getKey());
+        });
+        List<String> mots = new ArrayList<>();
+        for (int i = 0; i < Math.min(tailleDictionnaire, candidats.size()); i++) {
+            mots.add(candidats.get(i).getKey());
+        }
+
+        // Découpage de la référence avec un code provisoire quelconque, pour compter les symboles
+        long[] uniformes = new long[PREMIER_MOT + mots.size()];
+        Arrays.fill(uniformes, 1);
+        WordHuffmanModel decoupage = new WordHuffmanModel(mots,
+            HuffmanCodec.tableCanonique(uniformes, HuffmanLengths.optimales(uniformes)));
+        long[] frequences = new long[uniformes.length];
+        for (int s = 0; s < PREMIER_MOT; s++) frequences[s] = 1;
+        decoupage.decouper(texte, s -> frequences[s]++);
+
+        int[] longueurs = HuffmanLengths.limitees(frequences, HuffmanDecoder.LONGUEUR_MAX);
+        return new WordHuffmanModel(mots, HuffmanCodec.tableCanonique(frequences, longueurs));
+    }
+
+    public int tailleDictionnaire() {
+        return expansions.length - PREMIER_MOT;
+    }
+
+    public HuffmanTable table() {
+        return table;
+    }
+
+    public BitBuffer encoder(CharSequence texte) {
+        char[] normalise = normaliser(texte);
+        BitBuffer bits = new BitBuffer(Math.max(64, (long) normalise.length * 3));
+        decouper(normalise, s -> bits.ajouter(codes[s], longueurs[s]));
+        return bits;
+    }
+
+    public String decoder(BitBuffer bits) {
+        int[] indices = decodeur.decoderIndices(bits, 0, bits.longueur());
+        StringBuilder texte = new StringBuilder(indices.length * 3);
+        for (int idx : indices) {
+            texte.append(expansions[table.symboles[idx]]);
+        }
+        return texte.toString();
+    }
+
+    private interface Emetteur {
+        void symbole(int s);
+    }
+
+    /**
+     * Découpe le texte normalisé en symboles : un mot suivi d'un espace est cherché avec son
+     * espace, puis sans, puis épelé.
+     */
+    private void decouper(char[] texte, Emetteur emetteur) {
+        for (int i = 0; i < texte.length; ) {
+            if (texte[i] == ' ') {
+                emetteur.symbole(SYMBOLE_ESPACE);
+                i++;
+                continue;
+            }
+            int fin = finDeMot(texte, i);
+            int mot = fin < texte.length ? chercher(texte, i, fin + 1) : -1;
+            if (mot >= 0) {
+                emetteur.symbole(mot);
+                i = fin + 1;
+                continue;
+            }
+            mot = chercher(texte, i, fin);
+            if (mot >= 0) {
+                emetteur.symbole(mot);
+            } else {
+                for (int k = i; k < fin; k++) {
+                    emetteur.symbole(texte[k] - 'a');
+                }
+            }
+            i = fin;
+        }
+    }
+
+    private int chercher(char[] texte, int debut, int fin) {
+        if (fin - debut < 2) return -1;
+        int h = hacher(texte, debut, fin) & masque;
+        while (cases[h] != 0) {
+            char[] mot = expansions[cases[h] - 1];
+            if (mot.length == fin - debut && egaux(mot, texte, debut)) {
+                return cases[h] - 1;
+            }
+            h = (h + 1) & masque;
+        }
+        return -1;
+    }
+
+    private static boolean egaux(char[] mot, char[] texte, int debut) {
+        for (int k = 0; k < mot.length; k++) {
+            if (mot[k] != texte[debut + k]) return false;
+        }
+        return true;
+    }
+
+    private static int hacher(char[] texte, int debut, int fin) {
+        int h = 0;
+        for (int k = debut; k < fin; k++) {
+            h = 31 * h + texte[k];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int finDeMot(char[] texte, int debut) {
+        int fin = debut;
+        while (fin < texte.length && texte[fin] != ' ') fin++;
+        return fin;
+    }
+
+    private static char[] normaliser(CharSequence texte) {
+        char[] sortie = new char[texte.length()];
+        int n = 0;
+        for (int i = 0; i < texte.length(); i++) {
+            int c = HuffmanCodingCharacter.normaliserCaractere(texte.charAt(i));
+            if (c >= 0) sortie[n++] = (char) c;
+        }
+        return n == sortie.length ? sortie : Arrays.copyOf(sortie, n);
+    }
+
+    /**
+     * Écrit le modèle : signature, dictionnaire, puis la table au format HFTB.
+     */
+    public void ecrire(OutputStream sortie) throws IOException {
+        DataOutputStream out = new DataOutputStream(sortie);
+        out.writeInt(MAGIC);
+        out.writeInt(tailleDictionnaire());
+        for (int s = PREMIER_MOT; s < expansions.length; s++) {
+            byte[] mot = new String(expansions[s]).getBytes(StandardCharsets.US_ASCII);
+            if (mot.length > MOT_MAX) {
+                throw new IllegalStateException("Mot de " + mot.length + " caractères, au-delà de " + MOT_MAX);
+            }
+            out.writeByte(mot.length);
+            out.write(mot);
+        }
+        table.ecrire(out);
+    }
+
+    public static WordHuffmanModel lire(InputStream entree) throws IOException {
+        DataInputStream in = new DataInputStream(entree);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Fichier de modèle par mots invalide (signature HFWM absente)");
+        }
+        int n = in.readInt();
+        if (n < 0 || n > (1 << 20)) {
+            throw new IOException("Taille de dictionnaire invalide : " + n);
+        }
+        List<String> mots = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int longueur = in.readUnsignedByte();
+            if (longueur < 2) {
+                throw new IOException("Longueur de mot invalide dans le dictionnaire : " + longueur);
+            }
+            byte[] mot = new byte[longueur];
+            in.readFully(mot);
+            mots.add(new String(mot, StandardCharsets.US_ASCII));
+        }
+        try {
+            return new WordHuffmanModel(mots, HuffmanTable.lire(in));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Modèle par mots incohérent : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compare le modèle par caractères et le modèle par mots sur un fichier texte : bits par
+     * caractère normalisé, taux de compression (par rapport à 8 bits par caractère) et débits.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage : java huffman.WordHuffmanModel <texte de référence> [texte à coder]");
+            return;
+        }
+        String reference = new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8);
+        String texte = args.length > 1
+            ? new String(Files.readAllBytes(Paths.get(args[1])), StandardCharsets.UTF_8) : reference;
+        long caracteres = FrequencyCounter.total(FrequencyCounter.compter(texte));
+
+        HuffmanCodec codecCaracteres = HuffmanCodec.construire(Alphabet.MINUSCULES, reference);
+        long t0 = System.nanoTime();
+        BitBuffer bitsCaracteres = codecCaracteres.encoderTexte(texte);
+        long t1 = System.nanoTime();
+        codecCaracteres.decoderTexte(bitsCaracteres);
+        long t2 = System.nanoTime();
+        afficher("caractères", caracteres, bitsCaracteres.longueur(), t1 - t0, t2 - t1);
+
+        WordHuffmanModel modele = construire(reference);
+        t0 = System.nanoTime();
+        BitBuffer bitsMots = modele.encoder(texte);
+        t1 = System.nanoTime();
+        String decode = modele.decoder(bitsMots);
+        t2 = System.nanoTime();
+        afficher("mots (" + modele.tailleDictionnaire() + ")", caracteres, bitsMots.longueur(), t1 - t0, t2 - t1);
+        if (decode.length() != caracteres) {
+            System.out.println("ATTENTION : le décodage ne restitue pas le texte normalisé");
+        }
+    }
+
+    private static void afficher(String modele, long caracteres, long bits, long nanosEncodage, long nanosDecodage) {
+        System.out.println(String.format("Modèle %-18s : %.4f bits/caractère, taux %.2f, encodage %.1f Mo/s, décodage %.1f Mo/s",
+            modele, caracteres == 0 ? 0 : (double) bits / caracteres, bits == 0 ? 0 : 8.0 * caracteres / bits,
+            caracteres * 1e3 / Math.max(1, nanosEncodage), caracteres * 1e3 / Math.max(1, nanosDecodage)));
+    }
+}
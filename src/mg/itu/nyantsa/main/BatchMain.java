@@ -0,0 +1,174 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import recurrence.LcgIndexGenerator;
+import steganography.PayloadHeader;
+
+/**
+ * Extraction non interactive d'une liste de porteuses décrite dans un manifeste, sans menu ni
+ * pause : une ligne JSON par porteuse sur la sortie standard, dans l'ordre de fin des
+ * traitements, puis une ligne de résumé.
+ *
+ * Manifeste : une porteuse par ligne, champs séparés par des points-virgules ; les lignes vides
+ * et celles qui commencent par # sont ignorées.
+ *
+ *   chemin;a;b;m;U0;longueur;table[;générateur]
+ *
+ * - longueur : nombre de bits à extraire comme dans le menu, ou 0 pour la lire dans l'en-tête
+ *   du message ({@link PayloadHeader}) ;
+ * - table : fichier de table Huffman (.properties ou binaire), "config" pour la table de
+ *   configuration, "tans" pour le codeur tANS, "-" pour garder les bits sans les décoder ;
+ * - générateur : lcg (défaut), splitmix, xoshiro ou feistel.
+ *
+ * Le type de porteuse suit l'extension ({@link steganography.StegoCarrier}). Les porteuses sont
+ * traitées par un groupe borné de fils : le travail est surtout fait d'entrées-sorties (pages du
+ * fichier projeté, lecture PNG), on prend donc par défaut deux fils par processeur.
+ *
+ * java main.BatchMain manifeste.txt [fils]
+ * (ou java main.Main avec les mêmes arguments)
+ */
+public final class BatchMain {
+
+    private static final String SEPARATEUR = ";";
+
+    private BatchMain() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0 || args.length > 2) {
+            System.err.println("Usage : java main.BatchMain <manifeste> [nombre de fils]");
+            return;
+        }
+        int fils = args.length == 2
+            ? Integer.parseInt(args[1])
+            : 2 * Runtime.getRuntime().availableProcessors();
+        // JSON : toujours en UTF-8, quel que soit l'encodage de la console
+        PrintStream sortie = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        Resume resume = executer(Paths.get(args[0]), fils, sortie);
+        sortie.println(resume.enJson());
+    }
+
+    /**
+     * Traite toutes les porteuses du manifeste avec au plus fils traitements simultanés ; une
+     * ligne JSON par porteuse est écrite dans sortie.
+     */
+    public static Resume executer(Path manifeste, int fils, PrintStream sortie) throws IOException, InterruptedException {
+        if (fils <= 0) {
+            throw new IllegalArgumentException("Le nombre de fils doit être positif : " + fils);
+        }
+        Resume resume = new Resume();
+        long debut = System.nanoTime();
+        ExecutorService executeur = Executors.newFixedThreadPool(fils);
+        try (BufferedReader lecteur = Files.newBufferedReader(manifeste, StandardCharsets.UTF_8)) {
+            String ligne;
+            int numero = 0;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                String texte = ligne.trim();
+                if (texte.isEmpty() || texte.startsWith("#")) continue;
+                int numeroLigne = numero;
+                executeur.execute(() -> {
+                    String resultat = traiter(numeroLigne, texte, resume);
+                    synchronized (sortie) {
+                        sortie.println(resultat);
+                    }
+                });
+            }
+        } finally {
+            executeur.shutdown();
+            executeur.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        resume.nanos = System.nanoTime() - debut;
+        return resume;
+    }
+
+    /**
+     * Une ligne du manifeste ; les erreurs sont rapportées dans la ligne JSON.
+     */
+    private static String traiter(int numero, String ligne, Resume resume) {
+        long debut = System.nanoTime();
+        String chemin = null;
+        try {
+            String[] champs = ligne.split(SEPARATEUR, -1);
+            if (champs.length < 7 || champs.length > 8) {
+                throw new IllegalArgumentException("7 ou 8 champs attendus, " + champs.length + " trouvés");
+            }
+            chemin = champs[0].trim();
+            Path porteuse = Paths.get(chemin);
+            long a = Long.parseLong(champs[1].trim());
+            long b = Long.parseLong(champs[2].trim());
+            long m = Long.parseLong(champs[3].trim());
+            long U0 = Long.parseLong(champs[4].trim());
+            int longueur = Integer.parseInt(champs[5].trim());
+            String table = champs[6].trim();
+            String generateur = champs.length == 8 ? champs[7].trim() : LcgIndexGenerator.ID;
+
+            Json json = new Json()
+                .champ("ligne", numero)
+                .champ("porteuse", chemin);
+            long bits = Extraction.extraire(json, porteuse, a, b, m, U0, longueur, table, generateur);
+            resume.compter(bits >= 0, Math.max(bits, 0));
+            return json.champ("ms", (System.nanoTime() - debut) / 1e6).fin();
+        } catch (IOException | RuntimeException e) {
+            resume.compter(false, 0);
+            return new Json()
+                .champ("ligne", numero)
+                .champ("porteuse", chemin)
+                .champ("statut", "erreur")
+                .champ("erreur", e.getMessage() == null ? e.toString() : e.getMessage())
+                .champ("ms", (System.nanoTime() - debut) / 1e6)
+                .fin();
+        }
+    }
+
+    /**
+     * Compteurs partagés par les traitements, et ligne de résumé.
+     */
+    public static final class Resume {
+        private final AtomicInteger reussis = new AtomicInteger();
+        private final AtomicInteger echecs = new AtomicInteger();
+        private final AtomicLong bits = new AtomicLong();
+        private long nanos;
+
+        void compter(boolean reussi, long bitsExtraits) {
+            (reussi ? reussis : echecs).incrementAndGet();
+            bits.addAndGet(bitsExtraits);
+        }
+
+        public int reussis() {
+            return reussis.get();
+        }
+
+        public int echecs() {
+            return echecs.get();
+        }
+
+        public String enJson() {
+            int total = reussis.get() + echecs.get();
+            double secondes = nanos / 1e9;
+            return new Json()
+                .champ("resume", true)
+                .champ("porteuses", total)
+                .champ("reussies", reussis.get())
+                .champ("echecs", echecs.get())
+                .champ("bits", bits.get())
+                .champ("ms", nanos / 1e6)
+                .champ("porteuses_par_s", secondes > 0 ? total / secondes : 0)
+                .champ("bits_par_s", secondes > 0 ? bits.get() / secondes : 0)
+                .fin();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package main;
+
+import huffman.BitBuffer;
+import huffman.EntropyCoder;
+import huffman.HuffmanCodingCharacter;
+import huffman.TansCoder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import recurrence.IndexGenerator;
+import recurrence.IndexGenerators;
+import recurrence.LcgIndexGenerator;
+import steganography.CarrierCache;
+import steganography.PayloadHeader;
+import steganography.StegoPipeline;
+
+/**
+ * Extraction d'une porteuse décrite par ses paramètres, résultat rangé dans un objet JSON :
+ * partagée par {@link BatchMain} (une ligne du manifeste) et {@link StegoServer} (une requête).
+ *
+ * La porteuse est lue par {@link CarrierCache} : capacité et extraction se font sur la même
+ * ouverture, et une porteuse déjà vue n'est ni relue ni décodée à nouveau.
+ */
+final class Extraction {
+
+    private Extraction() {
+    }
+
+    /**
+     * Extrait la porteuse et ajoute le statut, les bits et le message à json.
+     *
+     * @param longueur nombre de bits à extraire comme dans le menu, ou 0 pour la lire dans
+     *                 l'en-tête du message
+     * @param table    fichier de table Huffman, "config", "tans" ou "-" (bits non décodés)
+     * @return les bits extraits, ou -1 si l'en-tête est invalide
+     */
+    static long extraire(Json json, Path porteuse, long a, long b, long m, long U0, int longueur,
+                         String table, String generateur) throws IOException {
+        long debut = System.nanoTime();
+        if (generateur.equals(LcgIndexGenerator.ID) && m <= 0) {
+            throw new IllegalArgumentException("Le modulo doit être positif");
+        }
+        if (longueur < 0) {
+            throw new IllegalArgumentException("La longueur du message doit être positive ou nulle");
+        }
+
+        long maxSize = CarrierCache.capacite(porteuse);
+        IndexGenerator indices = IndexGenerators.create(generateur, a, b, m, U0, maxSize);
+
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        StegoPipeline.Bilan bilan = longueur == 0
+            ? CarrierCache.extraireAvecEnTete(porteuse, indices, octets)
+            : CarrierCache.extraireBits(porteuse, indices, longueur + 1L, octets);
+        long extraction = System.nanoTime();
+
+        PayloadHeader enTete = bilan.enTete();
+        if (enTete != null && !enTete.estValide()) {
+            json.champ("statut", "entete_invalide")
+                .champ("raison", enTete.statut().name())
+                .champ("bits_lus", enTete.bitsLus());
+            return -1;
+        }
+
+        BitBuffer bits = BitBuffer.depuisOctets(octets.toByteArray(), bilan.bits());
+        String codeur = enTete != null && enTete.identifiantCodeur() != null
+            ? enTete.identifiantCodeur()
+            : (table.equals("-") ? null : table.equals(TansCoder.ID) ? TansCoder.ID : HuffmanCodingCharacter.ID);
+
+        json.champ("statut", "ok")
+            .champ("bits", bilan.bits())
+            .champ("indices", bilan.indicesTires());
+        if (enTete != null) {
+            json.champ("crc", bilan.crcValide());
+        }
+        if (codeur == null) {
+            json.champ("message_binaire", bits.enChaine());
+        } else {
+            json.champ("codeur", codeur).champ("message", codeur(codeur, table).decoderBits(bits));
+        }
+        long fin = System.nanoTime();
+        json.champ("ms_extraction", (extraction - debut) / 1e6)
+            .champ("ms_decodage", (fin - extraction) / 1e6);
+        return bilan.bits();
+    }
+
+    /**
+     * Codeur entropique : tANS, ou Huffman sur la table du fichier (table de configuration pour
+     * "config", "-" ou "tans"). Les tables et leurs décodeurs restent en cache.
+     */
+    static EntropyCoder codeur(String codeur, String table) throws IOException {
+        if (codeur.equals(TansCoder.ID)) {
+            return new TansCoder();
+        }
+        if (!codeur.equals(HuffmanCodingCharacter.ID)) {
+            throw new IllegalArgumentException("Codeur inconnu : " + codeur);
+        }
+        return table.equals("config") || table.equals("-") || table.equals(TansCoder.ID)
+            ? HuffmanCodingCharacter.depuisConfiguration()
+            : HuffmanCodingCharacter.depuisFichier(Paths.get(table));
+    }
+}
@@ -0,0 +1,52 @@
+package main;
+
+import java.util.Locale;
+
+/**
+ * Objet JSON d'une ligne, construit champ par champ (sorties de {@link BatchMain} et de
+ * {@link StegoServer}).
+ */
+final class Json {
+    private final StringBuilder texte = new StringBuilder("{");
+
+    Json champ(String nom, Object valeur) {
+        if (texte.length() > 1) texte.append(',');
+        chaine(nom);
+        texte.append(':');
+        if (valeur == null) {
+            texte.append("null");
+        } else if (valeur instanceof Double) {
+            texte.append(String.format(Locale.ROOT, "%.3f", (Double) valeur));
+        } else if (valeur instanceof Number || valeur instanceof Boolean) {
+            texte.append(valeur);
+        } else {
+            chaine(valeur.toString());
+        }
+        return this;
+    }
+
+    private void chaine(String s) {
+        texte.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': texte.append("\\\""); break;
+                case '\\': texte.append("\\\\"); break;
+                case '\n': texte.append("\\n"); break;
+                case '\r': texte.append("\\r"); break;
+                case '\t': texte.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        texte.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        texte.append(c);
+                    }
+            }
+        }
+        texte.append('"');
+    }
+
+    String fin() {
+        return texte.append('}').toString();
+    }
+}
@@ -1,14 +1,28 @@
 package main;
 
+import huffman.BitBuffer;
+import huffman.EntropyCoder;
 import huffman.HuffmanCodingCharacter;
+import huffman.PrefixCodeCheck;
+import huffman.TansCoder;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
+import recurrence.FeistelIndexGenerator;
+import recurrence.IndexGenerator;
+import recurrence.IndexGenerators;
+import recurrence.LcgIndexGenerator;
 import recurrence.Recurrence;
-import steganography.AudioSteganography;
-import steganography.ImageSteganography;
+import recurrence.SplitMixIndexGenerator;
+import recurrence.XoshiroIndexGenerator;
+import steganography.PayloadHeader;
+import steganography.StegoCarrier;
+import steganography.StegoPipeline;
 
 public class Main {
     private static final String RESET = "\033[0m";
@@ -22,7 +36,17 @@ public class Main {
     
     private static Scanner scanner = new Scanner(System.in);
     private static final String basePath ="src/mg/itu/nyantsa/data";
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--serveur")) {
+            // Service HTTP local, caches gardés entre les requêtes
+            StegoServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0) {
+            // Mode non interactif : manifeste de porteuses, résultats en lignes JSON
+            BatchMain.main(args);
+            return;
+        }
         try {
             showWelcomeBanner();
             runApplication();
@@ -60,16 +84,20 @@ public class Main {
                 String mediaPath = getMediaPath(mediaChoice);
                 if (mediaPath == null) continue;
 
-                // Calcul de la capacité
+                // Ouverture du média et calcul de la capacité ; le média reste ouvert jusqu'à
+                // la fin de l'extraction
                 MediaInfo mediaInfo = getMediaCapacity(mediaChoice, mediaPath);
                 if (mediaInfo == null) continue;
 
-                // Configuration des paramètres de récurrence
-                RecurrenceParams params = getRecurrenceParams();
-                if (params == null) continue;
+                StegoCarrier carrier = mediaInfo.carrier;
+                try (carrier) {
+                    // Configuration des paramètres de récurrence
+                    RecurrenceParams params = getRecurrenceParams();
+                    if (params == null) continue;
 
-                // Génération et validation des indices
-                processIndices(mediaChoice, mediaPath, mediaInfo, params);
+                    // Génération et validation des indices
+                    processIndices(mediaChoice, mediaInfo, params);
+                }
 
                 // Demander si l'utilisateur veut continuer
                 if (!askContinue()) break;
@@ -129,25 +157,30 @@ public class Main {
         showSection("ANALYSE DU MÉDIA");
         showProgress("Analyse en cours...");
         
+        if ((mediaChoice == 0) != StegoCarrier.estAudio(Paths.get(mediaPath))) {
+            showError("Type de fichier", mediaChoice == 0 ? "Un fichier audio (.wav, .pcm, .raw) est attendu"
+                                                          : "Une image est attendue, pas un fichier audio");
+            return null;
+        }
+
         try {
-            long maxSize;
+            StegoCarrier carrier = StegoCarrier.ouvrir(Paths.get(mediaPath));
+            long maxSize = carrier.capacite();
             String fileName;
             
             if (mediaChoice == 1) {
-                maxSize = ImageSteganography.getImageCapacityInBits(mediaPath);
                 fileName = "indices_image.txt";
                 System.out.println(GREEN + "Image analysée avec succès");
                 System.out.println("   Capacité : " + maxSize + " bits" + RESET);
             } else {
-                maxSize = AudioSteganography.getSampleCount(mediaPath);
                 fileName = "indices_son.txt";
                 System.out.println(GREEN + "Audio analysé avec succès");
                 System.out.println("   Échantillons : " + maxSize + RESET);
             }
             
-            return new MediaInfo(maxSize, fileName);
+            return new MediaInfo(carrier, maxSize, fileName);
             
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             showError("Erreur d'analyse", "Impossible d'analyser le fichier : " + e.getMessage());
             return null;
         }
@@ -171,7 +204,7 @@ public class Main {
             System.out.print(CYAN + "Valeur initiale (U0) : " + RESET);
             long U0 = getLongInput();
             
-            System.out.print(CYAN + "Longueur du message à extraire : " + RESET);
+            System.out.print(CYAN + "Longueur du message à extraire (0 = lue dans l'en-tête) : " + RESET);
             int messageLength = getIntInput();
 
             if (m <= 0) {
@@ -179,13 +212,15 @@ public class Main {
                 return null;
             }
             
-            if (messageLength <= 0) {
-                showError("Paramètre invalide", "La longueur du message doit être positive");
+            if (messageLength < 0) {
+                showError("Paramètre invalide", "La longueur du message doit être positive ou nulle");
                 return null;
             }
 
+            String generatorId = selectIndexGenerator();
+
             showParametersSummary(a, b, m, U0, messageLength);
-            return new RecurrenceParams(a, b, m, U0, messageLength);
+            return new RecurrenceParams(a, b, m, U0, messageLength, generatorId);
             
         } catch (Exception e) {
             showError("Erreur de saisie", "Veuillez entrer des nombres valides");
@@ -193,6 +228,18 @@ public class Main {
         }
     }
 
+    private static String selectIndexGenerator() {
+        System.out.println(BLUE + "Générateur d'indices : 1 = suite Un (défaut), 2 = SplitMix, 3 = Xoshiro, 4 = Feistel" + RESET);
+        System.out.print(CYAN + "Votre choix (Entrée pour la suite Un) : " + RESET);
+        String choice = scanner.nextLine().trim();
+        switch (choice) {
+            case "2": return SplitMixIndexGenerator.ID;
+            case "3": return XoshiroIndexGenerator.ID;
+            case "4": return FeistelIndexGenerator.ID;
+            default: return LcgIndexGenerator.ID;
+        }
+    }
+
     private static void showParametersSummary(long a, long b, long m, long U0, int messageLength) {
         System.out.println();
         System.out.println(YELLOW + "RÉCAPITULATIF DES PARAMÈTRES :");
@@ -205,12 +252,26 @@ public class Main {
         System.out.println("└─────────────────────────────────────┘" + RESET);
     }
 
-    private static void processIndices(int mediaChoice, String mediaPath, MediaInfo mediaInfo, RecurrenceParams params) {
+    private static void processIndices(int mediaChoice, MediaInfo mediaInfo, RecurrenceParams params) {
         showSection("  GÉNÉRATION DES INDICES");
         showProgress("Génération des indices...");
 
         Recurrence rec = new Recurrence(params.a, params.b, params.m, params.U0);
-        List<Long> indices = rec.generateIndicesWithWrap(params.messageLength, mediaInfo.maxSize);
+        IndexGenerator generator = IndexGenerators.create(params.generatorId,
+                params.a, params.b, params.m, params.U0, mediaInfo.maxSize);
+        if (params.messageLength == 0) {
+            System.out.println();
+            extractWithHeader(mediaInfo.carrier, generator);
+            return;
+        }
+        List<Long> indices;
+        if (generator instanceof LcgIndexGenerator) {
+            indices = rec.generateIndicesWithWrapCached(params.messageLength, mediaInfo.maxSize);
+        } else {
+            long[] generated = new long[params.messageLength + 1];
+            IndexGenerators.fillParallel(generator, generated);
+            indices = Arrays.stream(generated).boxed().toList();
+        }
 
         System.out.println(GREEN + "" + indices.size() + " indices générés" + RESET);
 
@@ -227,41 +288,61 @@ public class Main {
         rec.saveIndicesToFile(indices, outputPath);
         System.out.println(GREEN + "Indices sauvegardés dans : " + mediaInfo.fileName + RESET);
 
+        // Le descripteur permet de reconstruire exactement le même générateur à l'extraction
+        String descriptorPath = outputPath.replaceAll("\\.txt$", "") + ".gen";
+        try {
+            Files.writeString(Paths.get(descriptorPath), generator.descriptor() + System.lineSeparator());
+            System.out.println(GREEN + "Générateur : " + generator.descriptor() + RESET);
+        } catch (IOException e) {
+            showError("Sauvegarde du générateur", e.getMessage());
+        }
+
         // Extraction du message
-        extractMessage(mediaChoice, mediaPath, indices);
+        extractMessage(mediaChoice, mediaInfo.carrier, indices);
     }
 
-    private static void extractMessage(int mediaChoice, String mediaPath, List<Long> indices) {
+    private static void extractMessage(int mediaChoice, StegoCarrier carrier, List<Long> indices) {
         showSection("  EXTRACTION DU MESSAGE");
         showProgress("Extraction en cours...");
 
         try {
-            List<Integer> intIndices = indices.stream().map(Long::intValue).toList();
-            String binaryMessage;
+            String binaryMessage = carrier.lireMessage(indices);
+            System.out.println(GREEN + (mediaChoice == 1 ? "Message extrait de l'image" : "Message extrait de l'audio") + RESET);
 
-            if (mediaChoice == 1) {
-                binaryMessage = ImageSteganography.extraireMessage(mediaPath, intIndices);
-                System.out.println(GREEN + "Message extrait de l'image" + RESET);
-            } else {
-                binaryMessage = AudioSteganography.extraireMessage(mediaPath, intIndices);
-                System.out.println(GREEN + "Message extrait de l'audio" + RESET);
-            }
+            showBinaryMessage(binaryMessage);
+            proposeHuffmanDecoding(binaryMessage);
 
-            System.out.println();
-            System.out.println(PURPLE + "  MESSAGE BINAIRE :");
-            System.out.println("┌" + "─".repeat(Math.min(binaryMessage.length() + 2, 78)) + "┐");
-            
-            if (binaryMessage.length() > 76) {
-                for (int i = 0; i < binaryMessage.length(); i += 76) {
-                    int end = Math.min(i + 76, binaryMessage.length());
-                    System.out.printf("│ %-76s │%n", binaryMessage.substring(i, end));
-                }
+        } catch (IllegalArgumentException e) {
+            showError("Erreur d'extraction", e.getMessage());
+        }
+    }
+
+    /**
+     * Extraction guidée par l'en-tête du message : pas de longueur à deviner, et arrêt après
+     * quelques bits si les paramètres ne sont pas les bons.
+     */
+    private static void extractWithHeader(StegoCarrier carrier, IndexGenerator generator) {
+        showSection("  EXTRACTION AVEC EN-TÊTE");
+        showProgress("Lecture de l'en-tête...");
+
+        try {
+            ByteArrayOutputStream bits = new ByteArrayOutputStream();
+            StegoPipeline.Bilan bilan = StegoPipeline.extraireAvecEnTete(carrier, generator, bits);
+            PayloadHeader header = bilan.enTete();
+            if (!header.estValide()) {
+                showError("En-tête introuvable", "Paramètres incorrects ou message sans en-tête (" + header + ")");
+                return;
+            }
+            System.out.println(GREEN + "En-tête lu : " + header.longueur() + " bits, codeur "
+                               + (header.identifiantCodeur() == null ? "aucun" : header.identifiantCodeur()) + RESET);
+            if (bilan.crcValide()) {
+                System.out.println(GREEN + "CRC32C correct" + RESET);
             } else {
-                System.out.printf("│ %-76s │%n", binaryMessage);
+                System.out.println(YELLOW + "ATTENTION : CRC32C incorrect, le message est altéré !" + RESET);
             }
-            
-            System.out.println("└" + "─".repeat(Math.min(binaryMessage.length() + 2, 78)) + "┘" + RESET);
 
+            String binaryMessage = BitBuffer.depuisOctets(bits.toByteArray(), bilan.bits()).enChaine();
+            showBinaryMessage(binaryMessage);
             proposeHuffmanDecoding(binaryMessage);
 
         } catch (IOException | IllegalArgumentException e) {
@@ -269,29 +350,58 @@ public class Main {
         }
     }
 
+    private static void showBinaryMessage(String binaryMessage) {
+        System.out.println();
+        System.out.println(PURPLE + "  MESSAGE BINAIRE :");
+        System.out.println("┌" + "─".repeat(Math.min(binaryMessage.length() + 2, 78)) + "┐");
+
+        if (binaryMessage.length() > 76) {
+            for (int i = 0; i < binaryMessage.length(); i += 76) {
+                int end = Math.min(i + 76, binaryMessage.length());
+                System.out.printf("│ %-76s │%n", binaryMessage.substring(i, end));
+            }
+        } else {
+            System.out.printf("│ %-76s │%n", binaryMessage);
+        }
+
+        System.out.println("└" + "─".repeat(Math.min(binaryMessage.length() + 2, 78)) + "┘" + RESET);
+    }
+
     private static void proposeHuffmanDecoding(String binaryMessage) {
         System.out.println();
-        System.out.print(CYAN + " Voulez-vous décoder avec Huffman ? (o/n) : " + RESET);
+        System.out.print(CYAN + " Voulez-vous décoder le message ? (o/n) : " + RESET);
         String response = scanner.nextLine().trim().toLowerCase();
 
         if (response.equals("o") || response.equals("oui")) {
             performHuffmanDecoding(binaryMessage);
         } else {
-            System.out.println(YELLOW + "  Décodage Huffman ignoré" + RESET);
+            System.out.println(YELLOW + "  Décodage ignoré" + RESET);
         }
     }
 
-    private static void performHuffmanDecoding(String binaryMessage) {
-        showSection(" DÉCODAGE HUFFMAN");
+    private static EntropyCoder selectEntropyCoder() throws IOException {
+        System.out.println(BLUE + "Codeur : 1 = Huffman, table de configuration (défaut), 2 = tANS (modèle dans le message)" + RESET);
+        System.out.print(CYAN + "Votre choix (Entrée pour Huffman) : " + RESET);
+        String choice = scanner.nextLine().trim();
+        if (choice.equals("2")) {
+            return new TansCoder();
+        }
+        PrefixCodeCheck.Resultat validation = HuffmanCodingCharacter.validerTableHuffman();
+        if (!validation.estPrefixe()) {
+            System.out.println(YELLOW + "  Table de configuration non préfixe : " + validation.description() + RESET);
+        }
+        return HuffmanCodingCharacter.depuisConfiguration();
+    }
 
-        showProgress("Décodage Huffman en cours...");
+    private static void performHuffmanDecoding(String binaryMessage) {
+        showSection(" DÉCODAGE ENTROPIQUE");
 
         try {
-            Map<Character, String> table = HuffmanCodingCharacter.lireTableHuffman();
-
-            String decodedMessage = HuffmanCodingCharacter.decoder(binaryMessage, table);
+            EntropyCoder coder = selectEntropyCoder();
+            showProgress("Décodage " + coder.identifiant() + " en cours...");
+            String decodedMessage = coder.decoderBits(BitBuffer.depuisChaine(binaryMessage));
             
-            System.out.println(GREEN + " Décodage Huffman réussi !" + RESET);
+            System.out.println(GREEN + " Décodage " + coder.identifiant() + " réussi !" + RESET);
             System.out.println();
             System.out.println(PURPLE + BOLD + " MESSAGE FINAL DÉCODÉ :");
             System.out.println("╔" + "═".repeat(Math.min(decodedMessage.length() + 2, 78)) + "╗");
@@ -308,7 +418,7 @@ public class Main {
             System.out.println("╚" + "═".repeat(Math.min(decodedMessage.length() + 2, 78)) + "╝" + RESET);
 
         } catch (Exception e) {
-            showError("Erreur de décodage", "Échec du décodage Huffman : " + e.getMessage());
+            showError("Erreur de décodage", "Échec du décodage : " + e.getMessage());
         }
     }
 
@@ -397,10 +507,12 @@ public class Main {
     }
 
     private static class MediaInfo {
+        final StegoCarrier carrier;
         final long maxSize;
         final String fileName;
 
-        MediaInfo(long maxSize, String fileName) {
+        MediaInfo(StegoCarrier carrier, long maxSize, String fileName) {
+            this.carrier = carrier;
             this.maxSize = maxSize;
             this.fileName = fileName;
         }
@@ -409,13 +521,15 @@ public class Main {
     private static class RecurrenceParams {
         final long a, b, m, U0;
         final int messageLength;
+        final String generatorId;
 
-        RecurrenceParams(long a, long b, long m, long U0, int messageLength) {
+        RecurrenceParams(long a, long b, long m, long U0, int messageLength, String generatorId) {
             this.a = a;
             this.b = b;
             this.m = m;
             this.U0 = U0;
             this.messageLength = messageLength;
+            this.generatorId = generatorId;
         }
     }
 }
\ No newline at end of file
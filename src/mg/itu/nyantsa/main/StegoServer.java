@@ -0,0 +1,499 @@
+package main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import huffman.Alphabet;
+import huffman.BitBuffer;
+import huffman.EntropyCoder;
+import huffman.HuffmanCodingCharacter;
+import huffman.HuffmanTable;
+import huffman.HuffmanTables;
+import huffman.TansCoder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import recurrence.IndexGenerator;
+import recurrence.IndexGenerators;
+import recurrence.LcgIndexGenerator;
+import steganography.CarrierCache;
+import steganography.PayloadHeader;
+import steganography.StegoPipeline;
+
+/**
+ * Service HTTP local : la JVM, les tables Huffman ({@link HuffmanTables}) et les porteuses
+ * ouvertes ({@link CarrierCache}) restent chauds d'une requête à l'autre, au lieu d'être
+ * rechargés à chaque lancement de {@link Main}.
+ *
+ * Le serveur n'écoute que sur l'interface locale, ce qui ne suffit pas : une page ouverte dans
+ * un navigateur peut aussi envoyer des requêtes à 127.0.0.1. Chaque requête doit donc porter
+ * l'en-tête {@link #ENTETE_JETON} avec le jeton tiré au lancement (affiché au démarrage), un
+ * en-tête Host local (contre le rebinding DNS) et, si elle en a un, un en-tête Origin local ;
+ * sinon elle reçoit 401 ou 403. Les fichiers désignés (porteuse, sortie, table) sont résolus
+ * sous la racine du service, liens symboliques compris ; un chemin qui en sort reçoit 403.
+ *
+ * Paramètres dans la chaîne de requête, texte ou bits dans le corps (UTF-8), réponses en JSON :
+ *
+ *   GET  /capacite?porteuse=P
+ *   GET  /extraire?porteuse=P&a=&b=&m=&u0=&longueur=&table=[&generateur=]
+ *   POST /cacher?porteuse=P&sortie=S&a=&b=&m=&u0=&table=[&generateur=][&entete=oui]   (corps : texte)
+ *   POST /huffman/encoder?table=[&codeur=]                                          (corps : texte)
+ *   POST /huffman/decoder?table=[&codeur=]                                          (corps : '0' et '1')
+ *   GET  /etat
+ *
+ * longueur, table et generateur ont le sens des champs du manifeste de {@link BatchMain}.
+ *
+ * Au plus {@link #paralleles} requêtes sont traitées en même temps ; une requête qui n'obtient
+ * pas de place dans le délai reçoit 503, une requête plus longue que le délai reçoit 504 et son
+ * traitement est interrompu. Le délai peut être réduit par requête avec le paramètre delai (ms).
+ *
+ * Une insertion passe par {@link CarrierCache#ecrire} : la sortie n'est ni lue ni projetée par
+ * une autre requête pendant qu'elle est écrite.
+ *
+ * java main.StegoServer [port] [requêtes simultanées] [délai en ms] [racine]
+ * (ou java main.Main --serveur avec les mêmes arguments ; racine par défaut : le répertoire courant)
+ */
+public final class StegoServer {
+
+    public static final int PORT_DEFAUT = 8765;
+    public static final long DELAI_DEFAUT_MS = 10_000;
+    /** Taille maximale du corps d'une requête. */
+    public static final int CORPS_MAX = 16 << 20;
+    public static final String ENTETE_JETON = "X-Jeton";
+
+    private final HttpServer serveur;
+    private final Path racine;
+    private final String jeton;
+    private final List<String> hotes;
+    private final ExecutorService accueil;
+    private final ExecutorService travail;
+    private final Semaphore places;
+    private final int paralleles;
+    private final long delaiMs;
+
+    private final AtomicLong traitees = new AtomicLong();
+    private final AtomicLong refusees = new AtomicLong();
+    private final AtomicLong expirees = new AtomicLong();
+
+    public StegoServer(Path racine, int port, int paralleles, long delaiMs) throws IOException {
+        if (!Files.isDirectory(racine)) {
+            throw new IllegalArgumentException("La racine du service n'est pas un répertoire : " + racine);
+        }
+        if (paralleles <= 0) {
+            throw new IllegalArgumentException("Le nombre de requêtes simultanées doit être positif : " + paralleles);
+        }
+        if (delaiMs <= 0) {
+            throw new IllegalArgumentException("Le délai doit être positif : " + delaiMs);
+        }
+        this.racine = racine.toRealPath();
+        this.paralleles = paralleles;
+        this.delaiMs = delaiMs;
+        byte[] alea = new byte[24];
+        new SecureRandom().nextBytes(alea);
+        jeton = HexFormat.of().formatHex(alea);
+        places = new Semaphore(paralleles);
+        // Les fils d'accueil lisent les requêtes et attendent une place ; le travail lui-même
+        // se fait sur un groupe borné au nombre de places
+        accueil = Executors.newFixedThreadPool(2 * paralleles);
+        travail = Executors.newFixedThreadPool(paralleles);
+        serveur = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        serveur.setExecutor(accueil);
+        int local = serveur.getAddress().getPort();
+        hotes = List.of("127.0.0.1:" + local, "localhost:" + local, "[::1]:" + local);
+        route("/capacite", "GET", false, this::capacite);
+        route("/extraire", "GET", true, this::extraire);
+        route("/cacher", "POST", true, this::cacher);
+        route("/huffman/encoder", "POST", false, this::encoder);
+        route("/huffman/decoder", "POST", false, this::decoder);
+        serveur.createContext("/etat", echange -> {
+            try {
+                if (autorisee(echange)) {
+                    repondre(echange, 200, etat());
+                }
+            } finally {
+                echange.close();
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 4) {
+            System.err.println("Usage : java main.StegoServer [port] [requêtes simultanées] [délai en ms] [racine]");
+            return;
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PORT_DEFAUT;
+        int paralleles = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long delai = args.length > 2 ? Long.parseLong(args[2]) : DELAI_DEFAUT_MS;
+        Path racine = Paths.get(args.length > 3 ? args[3] : ".");
+        StegoServer serveur = new StegoServer(racine, port, paralleles, delai);
+        Runtime.getRuntime().addShutdownHook(new Thread(serveur::arreter, "stego-arret"));
+        serveur.demarrer();
+        System.out.println("Service à l'écoute sur http://127.0.0.1:" + serveur.port()
+                           + " (" + paralleles + " requêtes simultanées, délai " + delai + " ms)");
+        System.out.println("Racine : " + serveur.racine());
+        System.out.println("Jeton (en-tête " + ENTETE_JETON + ") : " + serveur.jeton());
+    }
+
+    public void demarrer() {
+        serveur.start();
+    }
+
+    public void arreter() {
+        serveur.stop(0);
+        travail.shutdownNow();
+        accueil.shutdownNow();
+    }
+
+    public int port() {
+        return serveur.getAddress().getPort();
+    }
+
+    /** Jeton à envoyer dans l'en-tête {@link #ENTETE_JETON}, tiré à chaque lancement. */
+    public String jeton() {
+        return jeton;
+    }
+
+    public Path racine() {
+        return racine;
+    }
+
+    private interface Traitement {
+        Json traiter(Map<String, String> parametres, byte[] corps) throws IOException;
+    }
+
+    /** indices : la requête tire des indices, ses paramètres de générateur sont vérifiés d'abord. */
+    private void route(String chemin, String methode, boolean indices, Traitement traitement) {
+        serveur.createContext(chemin, echange -> {
+            try {
+                if (!autorisee(echange)) {
+                    return;
+                }
+                if (!echange.getRequestURI().getPath().equals(chemin)) {
+                    repondre(echange, 404, erreur("Ressource inconnue : " + echange.getRequestURI().getPath()));
+                } else if (!echange.getRequestMethod().equalsIgnoreCase(methode)) {
+                    echange.getResponseHeaders().set("Allow", methode);
+                    repondre(echange, 405, erreur("Méthode attendue : " + methode));
+                } else {
+                    executer(echange, indices, traitement);
+                }
+            } catch (RuntimeException e) {
+                repondre(echange, 500, erreur(message(e)));
+            } finally {
+                echange.close();
+            }
+        });
+    }
+
+    /**
+     * Contrôle Host, Origin et jeton ; répond 403 ou 401 et renvoie false si la requête est refusée.
+     */
+    private boolean autorisee(HttpExchange echange) throws IOException {
+        String hote = echange.getRequestHeaders().getFirst("Host");
+        if (hote == null || !hotes.contains(hote.toLowerCase(Locale.ROOT))) {
+            repondre(echange, 403, erreur("Hôte refusé : " + hote));
+            return false;
+        }
+        String origine = echange.getRequestHeaders().getFirst("Origin");
+        if (origine != null && !hotes.contains(origine.toLowerCase(Locale.ROOT).replaceFirst("^http://", ""))) {
+            repondre(echange, 403, erreur("Origine refusée : " + origine));
+            return false;
+        }
+        String recu = echange.getRequestHeaders().getFirst(ENTETE_JETON);
+        if (recu == null || !MessageDigest.isEqual(recu.getBytes(StandardCharsets.UTF_8),
+                                                   jeton.getBytes(StandardCharsets.UTF_8))) {
+            repondre(echange, 401, erreur("Jeton absent ou invalide (en-tête " + ENTETE_JETON + ")"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Attend une place au plus le délai de la requête, puis traite sur le groupe de travail
+     * dans le temps restant. Des paramètres de générateur dégénérés sont refusés (400) avant de
+     * prendre une place.
+     *
+     * Une place n'est rendue que par le traitement, à sa fin, ou ici s'il n'a jamais commencé :
+     * après 504, le traitement interrompu garde sa place jusqu'à ce qu'il s'arrête vraiment (le
+     * tirage des indices et les étages de {@link StegoPipeline} réagissent à l'interruption).
+     */
+    private void executer(HttpExchange echange, boolean indices, Traitement traitement) throws IOException {
+        long debut = System.nanoTime();
+        Map<String, String> parametres;
+        byte[] corps;
+        long delai;
+        try {
+            parametres = parametres(echange.getRequestURI().getRawQuery());
+            corps = lireCorps(echange.getRequestBody());
+            delai = parametres.containsKey("delai")
+                ? Math.min(Long.parseLong(parametres.get("delai")), delaiMs)
+                : delaiMs;
+            if (indices) {
+                verifierGenerateur(parametres);
+            }
+        } catch (IllegalArgumentException e) {
+            repondre(echange, e instanceof TropLong ? 413 : 400, erreur(message(e)));
+            return;
+        }
+        long echeance = debut + TimeUnit.MILLISECONDS.toNanos(delai);
+        try {
+            if (!places.tryAcquire(echeance - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                refusees.incrementAndGet();
+                repondre(echange, 503, erreur("Toutes les places sont prises (" + paralleles + ")"));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        AtomicBoolean commence = new AtomicBoolean();
+        Future<Json> resultat = travail.submit(() -> {
+            if (!commence.compareAndSet(false, true)) return null;
+            try {
+                return traitement.traiter(parametres, corps);
+            } finally {
+                places.release();
+            }
+        });
+        try {
+            Json json = resultat.get(echeance - System.nanoTime(), TimeUnit.NANOSECONDS);
+            traitees.incrementAndGet();
+            repondre(echange, 200, json.champ("ms", (System.nanoTime() - debut) / 1e6));
+        } catch (TimeoutException e) {
+            resultat.cancel(true);
+            if (commence.compareAndSet(false, true)) places.release();
+            expirees.incrementAndGet();
+            repondre(echange, 504, erreur("Délai de " + delai + " ms dépassé"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            int code = cause instanceof SecurityException ? 403
+                : cause instanceof IllegalArgumentException || cause instanceof UnsupportedOperationException ? 400
+                : 500;
+            repondre(echange, code, erreur(message(cause)));
+        } catch (InterruptedException e) {
+            resultat.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void verifierGenerateur(Map<String, String> p) {
+        if (p.getOrDefault("generateur", LcgIndexGenerator.ID).equals(LcgIndexGenerator.ID)) {
+            LcgIndexGenerator.requireNonDegenerate(entier(p, "a"), entier(p, "b"), entier(p, "m"), entier(p, "u0"));
+        }
+    }
+
+    private Json capacite(Map<String, String> p, byte[] corps) throws IOException {
+        String nom = requis(p, "porteuse");
+        Path porteuse = fichier(nom);
+        return new Json()
+            .champ("statut", "ok")
+            .champ("porteuse", nom)
+            .champ("capacite", CarrierCache.capacite(porteuse))
+            .champ("positions", CarrierCache.positions(porteuse));
+    }
+
+    private Json extraire(Map<String, String> p, byte[] corps) throws IOException {
+        String porteuse = requis(p, "porteuse");
+        Json json = new Json().champ("porteuse", porteuse);
+        Extraction.extraire(json, fichier(porteuse), entier(p, "a"), entier(p, "b"), entier(p, "m"),
+                            entier(p, "u0"), Integer.parseInt(requis(p, "longueur")), nomTable(requis(p, "table")),
+                            p.getOrDefault("generateur", LcgIndexGenerator.ID));
+        return json;
+    }
+
+    /**
+     * Insertion en flux ({@link StegoPipeline}), avec les indices tirés sur la capacité de la
+     * porteuse comme à l'extraction. La sortie est écrite à l'écart des lectures du cache, puis
+     * en est retirée ({@link CarrierCache#ecrire}).
+     */
+    private Json cacher(Map<String, String> p, byte[] corps) throws IOException {
+        String nomSortie = requis(p, "sortie");
+        Path porteuse = fichier(requis(p, "porteuse"));
+        Path sortie = fichier(nomSortie);
+        String generateur = p.getOrDefault("generateur", LcgIndexGenerator.ID);
+        IndexGenerator indices = IndexGenerators.create(generateur, entier(p, "a"), entier(p, "b"), entier(p, "m"),
+                                                        entier(p, "u0"), CarrierCache.capacite(porteuse));
+        HuffmanTable table = table(nomTable(requis(p, "table")));
+        Alphabet alphabet = Alphabet.valueOf(p.getOrDefault("alphabet", Alphabet.MINUSCULES.name()).toUpperCase(Locale.ROOT));
+        boolean avecEnTete = "oui".equalsIgnoreCase(p.get("entete"));
+        StegoPipeline.Bilan bilan = CarrierCache.ecrire(sortie, () -> {
+            try (InputStream texte = new ByteArrayInputStream(corps)) {
+                return avecEnTete
+                    ? StegoPipeline.cacherAvecEnTete(porteuse, sortie, texte, table, alphabet, indices)
+                    : StegoPipeline.cacher(porteuse, sortie, texte, table, alphabet, indices);
+            }
+        });
+        Json json = new Json()
+            .champ("statut", "ok")
+            .champ("sortie", nomSortie)
+            .champ("bits", bilan.bits())
+            .champ("indices", bilan.indicesTires())
+            .champ("reutilises", bilan.reutilisations());
+        PayloadHeader enTete = bilan.enTete();
+        if (enTete != null) {
+            json.champ("crc", String.format("%08x", enTete.crc()));
+        }
+        return json;
+    }
+
+    private Json encoder(Map<String, String> p, byte[] corps) throws IOException {
+        EntropyCoder codeur = codeur(p);
+        BitBuffer bits = codeur.encoderBits(new String(corps, StandardCharsets.UTF_8));
+        return new Json()
+            .champ("statut", "ok")
+            .champ("codeur", codeur.identifiant())
+            .champ("bits", bits.longueur())
+            .champ("message_binaire", bits.enChaine());
+    }
+
+    private Json decoder(Map<String, String> p, byte[] corps) throws IOException {
+        EntropyCoder codeur = codeur(p);
+        String bits = new String(corps, StandardCharsets.US_ASCII).strip();
+        return new Json()
+            .champ("statut", "ok")
+            .champ("codeur", codeur.identifiant())
+            .champ("message", codeur.decoderBits(BitBuffer.depuisChaine(bits)));
+    }
+
+    private EntropyCoder codeur(Map<String, String> p) throws IOException {
+        String table = nomTable(p.getOrDefault("table", "config"));
+        String codeur = p.getOrDefault("codeur", table.equals(TansCoder.ID) ? TansCoder.ID : HuffmanCodingCharacter.ID);
+        return Extraction.codeur(codeur, table);
+    }
+
+    /**
+     * Fichier désigné par la requête, résolu sous la racine : le fichier s'il existe, sinon son
+     * répertoire, est suivi jusqu'au bout de ses liens symboliques avant la vérification.
+     */
+    private Path fichier(String nom) throws IOException {
+        Path chemin = racine.resolve(nom).normalize();
+        Path reel;
+        if (Files.exists(chemin)) {
+            reel = chemin.toRealPath();
+        } else {
+            Path parent = chemin.getParent();
+            if (parent == null || !Files.isDirectory(parent)) {
+                throw new IllegalArgumentException("Répertoire inexistant pour : " + nom);
+            }
+            reel = parent.toRealPath().resolve(chemin.getFileName());
+        }
+        if (!reel.startsWith(racine)) {
+            throw new SecurityException("Chemin hors de la racine du service : " + nom);
+        }
+        return reel;
+    }
+
+    /** Nom de table de la requête : "config", "tans" et "-" tels quels, un fichier sous la racine sinon. */
+    private String nomTable(String table) throws IOException {
+        if (table.equals("config") || table.equals("-") || table.equals(TansCoder.ID)) {
+            return table;
+        }
+        return fichier(table).toString();
+    }
+
+    private static HuffmanTable table(String table) throws IOException {
+        return HuffmanTables.table(Paths.get(table.equals("config") ? HuffmanCodingCharacter.CHEMIN_TABLE : table));
+    }
+
+    private Json etat() {
+        return new Json()
+            .champ("statut", "ok")
+            .champ("paralleles", paralleles)
+            .champ("en_cours", paralleles - places.availablePermits())
+            .champ("traitees", traitees.get())
+            .champ("refusees", refusees.get())
+            .champ("expirees", expirees.get())
+            .champ("porteuses_en_cache", CarrierCache.taille())
+            .champ("octets_decodes_en_cache", CarrierCache.octetsDecodes())
+            .champ("delai_ms", delaiMs);
+    }
+
+    private static Map<String, String> parametres(String requete) {
+        Map<String, String> parametres = new HashMap<>();
+        if (requete == null || requete.isEmpty()) {
+            return parametres;
+        }
+        for (String paire : requete.split("&")) {
+            if (paire.isEmpty()) continue;
+            int egal = paire.indexOf('=');
+            String nom = URLDecoder.decode(egal < 0 ? paire : paire.substring(0, egal), StandardCharsets.UTF_8);
+            String valeur = egal < 0 ? "" : URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8);
+            parametres.put(nom, valeur);
+        }
+        return parametres;
+    }
+
+    private static String requis(Map<String, String> p, String nom) {
+        String valeur = p.get(nom);
+        if (valeur == null || valeur.isEmpty()) {
+            throw new IllegalArgumentException("Paramètre manquant : " + nom);
+        }
+        return valeur;
+    }
+
+    private static long entier(Map<String, String> p, String nom) {
+        String valeur = p.get(nom);
+        return valeur == null || valeur.isEmpty() ? 0 : Long.parseLong(valeur);
+    }
+
+    private static byte[] lireCorps(InputStream in) throws IOException {
+        ByteArrayOutputStream corps = new ByteArrayOutputStream();
+        byte[] tampon = new byte[8192];
+        int n;
+        while ((n = in.read(tampon)) > 0) {
+            if (corps.size() + n > CORPS_MAX) {
+                throw new TropLong();
+            }
+            corps.write(tampon, 0, n);
+        }
+        return corps.toByteArray();
+    }
+
+    private static Json erreur(String message) {
+        return new Json().champ("statut", "erreur").champ("erreur", message);
+    }
+
+    private static String message(Throwable e) {
+        return e.getMessage() == null ? e.toString() : e.getMessage();
+    }
+
+    private static void repondre(HttpExchange echange, int code, Json json) throws IOException {
+        byte[] octets = (json.fin() + "\n").getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        echange.sendResponseHeaders(code, octets.length);
+        try (OutputStream out = echange.getResponseBody()) {
+            out.write(octets);
+        }
+    }
+
+    private static final class TropLong extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        TropLong() {
+            super("Corps de requête supérieur à " + CORPS_MAX + " octets");
+        }
+    }
+}
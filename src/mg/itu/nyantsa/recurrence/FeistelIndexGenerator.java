@@ -0,0 +1,102 @@
+package recurrence;
+
+/**
+ * Permutation pseudo-aléatoire de [0, maxSize) construite avec un réseau de Feistel équilibré
+ * sur 2k bits (2^2k >= maxSize) et du « cycle walking » pour rester dans le domaine.
+ *
+ * L'indice à la position p est perm(p) : chaque position donne un indice distinct, sans table
+ * ni ensemble de positions déjà utilisées, en O(1) (moins de 4 tours de marche en moyenne).
+ * Au-delà de maxSize positions la permutation est épuisée.
+ */
+public class FeistelIndexGenerator implements IndexGenerator {
+
+    public static final String ID = "feistel";
+
+    private static final int ROUNDS = 6;
+
+    private final long seed;
+    private final long maxSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+    private long position;
+
+    public FeistelIndexGenerator(long seed, long maxSize) {
+        this(seed, maxSize, 0);
+    }
+
+    private FeistelIndexGenerator(long seed, long maxSize, long position) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        this.seed = seed;
+        this.maxSize = maxSize;
+        this.position = position;
+
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, maxSize - 1));
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1L << halfBits) - 1;
+
+        long z = seed;
+        for (int i = 0; i < ROUNDS; i++) {
+            z += SplitMixIndexGenerator.GOLDEN_GAMMA;
+            roundKeys[i] = SplitMixIndexGenerator.mix64(z);
+        }
+    }
+
+    @Override
+    public long maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public long nextIndex() {
+        return indexAt(position++);
+    }
+
+    /**
+     * Accès direct : indice associé à une position quelconque de la permutation.
+     */
+    public long indexAt(long p) {
+        if (p < 0 || p >= maxSize) {
+            throw new IllegalStateException("Permutation épuisée : position " + p + " >= " + maxSize);
+        }
+        long x = p;
+        do {
+            x = permute(x);
+        } while (x >= maxSize);
+        return x;
+    }
+
+    @Override
+    public IndexGenerator split(long position) {
+        return new FeistelIndexGenerator(seed, maxSize, position);
+    }
+
+    @Override
+    public String descriptor() {
+        return ID + ":" + seed;
+    }
+
+    @Override
+    public boolean isPermutation() {
+        return true;
+    }
+
+    private long permute(long x) {
+        long left = (x >>> halfBits) & halfMask;
+        long right = x & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            long f = SplitMixIndexGenerator.mix64(right ^ roundKeys[i]) & halfMask;
+            long nouveau = left ^ f;
+            left = right;
+            right = nouveau;
+        }
+        return (left << halfBits) | right;
+    }
+}
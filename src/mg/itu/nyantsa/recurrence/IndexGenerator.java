@@ -0,0 +1,46 @@
+package recurrence;
+
+import java.util.stream.LongStream;
+
+/**
+ * Source de positions porteuses dans [0, maxSize).
+ *
+ * Un générateur est un curseur : nextIndex() renvoie l'indice de la position courante puis avance.
+ * split(position) crée un générateur indépendant placé à une position absolue de la même suite,
+ * ce qui permet de découper une longue suite en morceaux traités en parallèle.
+ * descriptor() décrit le générateur et ses paramètres (sans maxSize, qui dépend du média) pour que
+ * l'extraction puisse le reconstruire avec {@link IndexGenerators#fromDescriptor(String, long)}.
+ */
+public interface IndexGenerator {
+
+    long maxSize();
+
+    /**
+     * Nombre d'indices déjà produits par ce curseur (position du prochain indice).
+     */
+    long position();
+
+    long nextIndex();
+
+    IndexGenerator split(long position);
+
+    String descriptor();
+
+    /**
+     * Vrai si le générateur ne renvoie jamais deux fois le même indice (tant qu'il n'est pas
+     * épuisé) : l'appelant peut alors se passer de noter les indices déjà utilisés.
+     */
+    default boolean isPermutation() {
+        return false;
+    }
+
+    default void fill(long[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = nextIndex();
+        }
+    }
+
+    default LongStream stream(long count) {
+        return LongStream.range(0, count).map(i -> nextIndex());
+    }
+}
@@ -0,0 +1,77 @@
+package recurrence;
+
+import java.util.stream.IntStream;
+
+/**
+ * Fabrique des générateurs d'indices à partir de leur descripteur, et remplissage parallèle.
+ *
+ * Format du descripteur : "lcg:a,b,m,U0", "splitmix:graine", "xoshiro:graine" ou "feistel:graine".
+ */
+public class IndexGenerators {
+
+    private static final int PARALLEL_CHUNK = 1 << 16;
+
+    private IndexGenerators() {
+    }
+
+    public static IndexGenerator fromDescriptor(String descriptor, long maxSize) {
+        if (descriptor == null || descriptor.indexOf(':') < 0) {
+            throw new IllegalArgumentException("Descripteur de générateur invalide : " + descriptor);
+        }
+        String id = descriptor.substring(0, descriptor.indexOf(':')).trim();
+        String[] params = descriptor.substring(descriptor.indexOf(':') + 1).split(",");
+        try {
+            switch (id) {
+                case LcgIndexGenerator.ID:
+                    if (params.length != 4) {
+                        throw new IllegalArgumentException("Le générateur lcg attend a,b,m,U0 : " + descriptor);
+                    }
+                    return new LcgIndexGenerator(parse(params[0]), parse(params[1]),
+                                                 parse(params[2]), parse(params[3]), maxSize);
+                case SplitMixIndexGenerator.ID:
+                    return new SplitMixIndexGenerator(parse(params[0]), maxSize);
+                case XoshiroIndexGenerator.ID:
+                    return new XoshiroIndexGenerator(parse(params[0]), maxSize);
+                case FeistelIndexGenerator.ID:
+                    return new FeistelIndexGenerator(parse(params[0]), maxSize);
+                default:
+                    throw new IllegalArgumentException("Générateur inconnu : " + id);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Paramètre numérique invalide dans : " + descriptor, e);
+        }
+    }
+
+    /**
+     * Crée le générateur choisi ; pour les générateurs autres que lcg, U0 sert de graine.
+     */
+    public static IndexGenerator create(String id, long a, long b, long m, long U0, long maxSize) {
+        if (LcgIndexGenerator.ID.equals(id)) {
+            return new LcgIndexGenerator(a, b, m, U0, maxSize);
+        }
+        return fromDescriptor(id + ":" + U0, maxSize);
+    }
+
+    /**
+     * Remplit dest avec les dest.length premiers indices de la suite à partir de la position du
+     * générateur, en découpant le travail en morceaux produits en parallèle par split().
+     */
+    public static void fillParallel(IndexGenerator generator, long[] dest) {
+        long start = generator.position();
+        if (generator instanceof LcgIndexGenerator) {
+            // Pas de saut direct pour la suite historique : un seul parcours séquentiel
+            generator.split(start).fill(dest, 0, dest.length);
+            return;
+        }
+        int chunks = (dest.length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int offset = c * PARALLEL_CHUNK;
+            int length = Math.min(PARALLEL_CHUNK, dest.length - offset);
+            generator.split(start + offset).fill(dest, offset, length);
+        });
+    }
+
+    private static long parse(String value) {
+        return Long.parseLong(value.trim());
+    }
+}
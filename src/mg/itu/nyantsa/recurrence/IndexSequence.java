@@ -0,0 +1,45 @@
+package recurrence;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Vue en lecture seule sur une suite d'indices stockée dans un tableau primitif.
+ * Aucune copie n'est faite : la vue partage le tableau du cache et n'en expose que le préfixe.
+ */
+public final class IndexSequence extends AbstractList<Long> implements RandomAccess {
+
+    private final long[] indices;
+    private final int size;
+
+    IndexSequence(long[] indices, int size) {
+        this.indices = indices;
+        this.size = size;
+    }
+
+    public long getLong(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Indice " + i + " hors de la suite (taille " + size + ")");
+        }
+        return indices[i];
+    }
+
+    @Override
+    public Long get(int i) {
+        return getLong(i);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copie les indices dans un nouveau tableau (utile si l'appelant doit les modifier).
+     */
+    public long[] toLongArray() {
+        long[] copie = new long[size];
+        System.arraycopy(indices, 0, copie, 0, size);
+        return copie;
+    }
+}
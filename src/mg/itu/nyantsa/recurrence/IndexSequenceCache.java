@@ -0,0 +1,172 @@
+package recurrence;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache des suites d'indices produites par {@link Recurrence#generateIndicesWithWrap(int, long)}.
+ *
+ * Pour chaque jeu de paramètres (a, b, m, U0, maxSize) on garde la plus longue suite déjà calculée
+ * dans un long[] ainsi que l'état de fin (dernier Un et dernier indice). Une demande plus longue
+ * reprend le calcul depuis cet état, une demande plus courte renvoie une vue sans copie.
+ * La mémoire totale est bornée et les entrées les moins récemment utilisées sont évincées.
+ */
+public class IndexSequenceCache {
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final IndexSequenceCache SHARED = new IndexSequenceCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private long usedBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public IndexSequenceCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("La taille maximale du cache doit être positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public static IndexSequenceCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Renvoie les messageLength + 1 premiers indices de la suite (même contenu que
+     * generateIndicesWithWrap), en réutilisant le préfixe déjà calculé.
+     */
+    public synchronized IndexSequence get(long a, long b, long m, long U0, int messageLength, long maxSize) {
+        if (messageLength < 0) {
+            throw new IllegalArgumentException("La longueur du message doit être positive ou nulle");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        int size = messageLength + 1;
+        Key key = new Key(a, b, m, U0, maxSize);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            entry = new Entry(U0, maxSize, Math.max(INITIAL_CAPACITY, size));
+            if (entry.bytes() > maxBytes) {
+                // Trop grand pour être gardé : on calcule sans mettre en cache
+                entry.extend(a, b, m, maxSize, size);
+                return new IndexSequence(entry.indices, size);
+            }
+            entries.put(key, entry);
+            usedBytes += entry.bytes();
+        }
+
+        if (entry.size < size) {
+            long avant = entry.bytes();
+            entry.extend(a, b, m, maxSize, size);
+            usedBytes += entry.bytes() - avant;
+        }
+
+        IndexSequence vue = new IndexSequence(entry.indices, size);
+        evict(key);
+        return vue;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int entryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Évince les entrées les plus anciennes tant que la limite est dépassée,
+     * sans toucher à celle qui vient d'être servie.
+     */
+    private void evict(Key courante) {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            if (eldest.getKey().equals(courante)) continue;
+            usedBytes -= eldest.getValue().bytes();
+            it.remove();
+        }
+        if (usedBytes > maxBytes) {
+            Entry seule = entries.remove(courante);
+            if (seule != null) usedBytes -= seule.bytes();
+        }
+    }
+
+    private static final class Entry {
+        long[] indices;
+        int size;
+        long lastU;
+        long lastIndex;
+
+        Entry(long U0, long maxSize, int capacity) {
+            this.indices = new long[capacity];
+            this.lastU = U0;
+            this.lastIndex = U0 % maxSize;
+            this.indices[0] = lastIndex;
+            this.size = 1;
+        }
+
+        long bytes() {
+            return (long) indices.length * Long.BYTES;
+        }
+
+        /**
+         * Prolonge la suite depuis l'état de fin. Les valeurs déjà écrites ne changent jamais,
+         * donc les vues servies auparavant restent valides même après réallocation.
+         */
+        void extend(long a, long b, long m, long maxSize, int newSize) {
+            if (newSize > indices.length) {
+                long capacity = Math.max(newSize, (long) indices.length * 2);
+                long[] agrandi = new long[(int) Math.min(capacity, Integer.MAX_VALUE - 8)];
+                System.arraycopy(indices, 0, agrandi, 0, size);
+                indices = agrandi;
+            }
+            long U = lastU;
+            long currentIndex = lastIndex;
+            for (int i = size; i < newSize; i++) {
+                U = (a * U + b) % m;
+                currentIndex = (currentIndex + U) % maxSize;
+                indices[i] = currentIndex;
+            }
+            lastU = U;
+            lastIndex = currentIndex;
+            size = newSize;
+        }
+    }
+
+    private static final class Key {
+        final long a, b, m, U0, maxSize;
+
+        Key(long a, long b, long m, long U0, long maxSize) {
+            this.a = a;
+            this.b = b;
+            this.m = m;
+            this.U0 = U0;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return a == k.a && b == k.b && m == k.m && U0 == k.U0 && maxSize == k.maxSize;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(a, b, m, U0, maxSize);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package recurrence;
+
+/**
+ * La suite à saut historique : Un+1 = (a×Un + b) mod m, indice = (indice + Un+1) mod maxSize,
+ * en partant de U0 mod maxSize. Produit exactement les valeurs de generateIndicesWithWrap.
+ *
+ * Le calcul garde l'arithmétique long d'origine (avec ses dépassements éventuels), la suite n'admet
+ * donc pas de saut direct : split(position) rejoue les position premiers pas.
+ */
+public class LcgIndexGenerator implements IndexGenerator {
+
+    public static final String ID = "lcg";
+
+    private final long a;
+    private final long b;
+    private final long m;
+    private final long U0;
+    private final long maxSize;
+
+    private long U;
+    private long currentIndex;
+    private long position;
+
+    public LcgIndexGenerator(long a, long b, long m, long U0, long maxSize) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Le modulo doit être positif");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        this.a = a;
+        this.b = b;
+        this.m = m;
+        this.U0 = U0;
+        this.maxSize = maxSize;
+        this.U = U0;
+        this.currentIndex = U0 % maxSize;
+    }
+
+    /**
+     * Rejette les paramètres dont les pas Un valent 0 pour toujours à partir d'un certain rang
+     * (a = 0 et b = 0, ou a nilpotent modulo m avec b = 0) : l'indice ne bouge plus, quelle que
+     * soit la porteuse. Sans b, Un = a^n × U0 mod m atteint 0 en au plus 63 pas s'il l'atteint.
+     */
+    public static void requireNonDegenerate(long a, long b, long m, long U0) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Le modulo doit être positif");
+        }
+        if (b % m != 0) {
+            return;
+        }
+        long U = U0;
+        for (int n = 0; n < 64; n++) {
+            U = (a * U + b) % m;
+            if (U == 0) {
+                throw new IllegalArgumentException("Suite dégénérée : les pas valent 0 à partir de U" + (n + 1)
+                                                   + " (a=" + a + ", b=" + b + ", m=" + m + ", U0=" + U0 + ")");
+            }
+        }
+    }
+
+    @Override
+    public long maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public long nextIndex() {
+        if (position > 0) {
+            U = (a * U + b) % m;
+            currentIndex = (currentIndex + U) % maxSize;
+        }
+        position++;
+        return currentIndex;
+    }
+
+    @Override
+    public IndexGenerator split(long position) {
+        LcgIndexGenerator copie = new LcgIndexGenerator(a, b, m, U0, maxSize);
+        for (long i = 0; i < position; i++) {
+            copie.nextIndex();
+        }
+        return copie;
+    }
+
+    @Override
+    public String descriptor() {
+        return ID + ":" + a + "," + b + "," + m + "," + U0;
+    }
+}
@@ -78,6 +78,18 @@ public class Recurrence {
         return indices;
     }
 
+    /**
+     * Même suite que generateIndicesWithWrap, servie par le cache partagé :
+     * les appels successifs avec une longueur croissante ne recalculent que la fin.
+     */
+    public IndexSequence generateIndicesWithWrapCached(int messageLength, long maxSize) {
+        return IndexSequenceCache.shared().get(a, b, m, U0, messageLength, maxSize);
+    }
+
+    public IndexGenerator asIndexGenerator(long maxSize) {
+        return new LcgIndexGenerator(a, b, m, U0, maxSize);
+    }
+
     public boolean checkIndicesOrder(List<Long> indices) {
         for (int i = 1; i < indices.size(); i++) {
             if (indices.get(i) <= indices.get(i-1)) {
@@ -0,0 +1,70 @@
+package recurrence;
+
+/**
+ * Générateur de type SplittableRandom : l'indice à la position p est mix64(graine + (p+1)×γ)
+ * ramené dans [0, maxSize). Chaque position se calcule indépendamment, le saut est donc en O(1).
+ * Les positions sont tirées avec remise : deux positions peuvent donner le même indice.
+ */
+public class SplitMixIndexGenerator implements IndexGenerator {
+
+    public static final String ID = "splitmix";
+
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final long maxSize;
+    private long position;
+
+    public SplitMixIndexGenerator(long seed, long maxSize) {
+        this(seed, maxSize, 0);
+    }
+
+    private SplitMixIndexGenerator(long seed, long maxSize, long position) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        this.seed = seed;
+        this.maxSize = maxSize;
+        this.position = position;
+    }
+
+    @Override
+    public long maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public long nextIndex() {
+        position++;
+        return reduce(mix64(seed + position * GOLDEN_GAMMA), maxSize);
+    }
+
+    @Override
+    public IndexGenerator split(long position) {
+        return new SplitMixIndexGenerator(seed, maxSize, position);
+    }
+
+    @Override
+    public String descriptor() {
+        return ID + ":" + seed;
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Ramène 64 bits aléatoires dans [0, bound) par multiplication (partie haute non signée),
+     * sans division.
+     */
+    static long reduce(long x, long bound) {
+        return Math.multiplyHigh(x, bound) + ((x >> 63) & bound);
+    }
+}
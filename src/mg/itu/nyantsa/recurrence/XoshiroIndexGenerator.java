@@ -0,0 +1,123 @@
+package recurrence;
+
+/**
+ * Générateur xoshiro256** découpé en blocs de {@link #BLOCK_SIZE} positions.
+ * Le bloc j utilise l'état initial avancé de j appels à jump() (2^128 pas chacun),
+ * donc split(position) coûte position / BLOCK_SIZE sauts plus au plus BLOCK_SIZE pas.
+ * Les positions sont tirées avec remise.
+ */
+public class XoshiroIndexGenerator implements IndexGenerator {
+
+    public static final String ID = "xoshiro";
+
+    static final int BLOCK_SHIFT = 16;
+    static final long BLOCK_SIZE = 1L << BLOCK_SHIFT;
+
+    private static final long[] JUMP = {
+        0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+    };
+
+    private final long seed;
+    private final long maxSize;
+
+    private final long[] blockStart = new long[4];
+    private long s0, s1, s2, s3;
+    private long currentBlock;
+    private long position;
+
+    public XoshiroIndexGenerator(long seed, long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        this.seed = seed;
+        this.maxSize = maxSize;
+        long z = seed;
+        for (int i = 0; i < 4; i++) {
+            z += SplitMixIndexGenerator.GOLDEN_GAMMA;
+            blockStart[i] = SplitMixIndexGenerator.mix64(z);
+        }
+        restartBlock();
+    }
+
+    @Override
+    public long maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public long nextIndex() {
+        if ((position >>> BLOCK_SHIFT) != currentBlock) {
+            jump(blockStart);
+            restartBlock();
+            currentBlock++;
+        }
+        position++;
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return SplitMixIndexGenerator.reduce(result, maxSize);
+    }
+
+    @Override
+    public IndexGenerator split(long position) {
+        XoshiroIndexGenerator copie = new XoshiroIndexGenerator(seed, maxSize);
+        long blocs = position >>> BLOCK_SHIFT;
+        for (long j = 0; j < blocs; j++) {
+            jump(copie.blockStart);
+        }
+        copie.restartBlock();
+        copie.currentBlock = blocs;
+        copie.position = blocs << BLOCK_SHIFT;
+        while (copie.position < position) {
+            copie.nextIndex();
+        }
+        return copie;
+    }
+
+    @Override
+    public String descriptor() {
+        return ID + ":" + seed;
+    }
+
+    private void restartBlock() {
+        s0 = blockStart[0];
+        s1 = blockStart[1];
+        s2 = blockStart[2];
+        s3 = blockStart[3];
+    }
+
+    private static void jump(long[] s) {
+        long j0 = 0, j1 = 0, j2 = 0, j3 = 0;
+        for (long jump : JUMP) {
+            for (int b = 0; b < 64; b++) {
+                if ((jump & (1L << b)) != 0) {
+                    j0 ^= s[0];
+                    j1 ^= s[1];
+                    j2 ^= s[2];
+                    j3 ^= s[3];
+                }
+                long t = s[1] << 17;
+                s[2] ^= s[0];
+                s[3] ^= s[1];
+                s[1] ^= s[2];
+                s[0] ^= s[3];
+                s[2] ^= t;
+                s[3] = Long.rotateLeft(s[3], 45);
+            }
+        }
+        s[0] = j0;
+        s[1] = j1;
+        s[2] = j2;
+        s[3] = j3;
+    }
+}
@@ -46,36 +46,8 @@ public class AudioSteganography {
                 }
             }
     
-            for (int i = 0; i < bits.length(); i++) {
-                int index = indices.get(i);
-                int sampleIndex = index * bytesPerSample;
-                int sampleValue;
-    
-                if (bitsPerSample == 8) {
-                    sampleValue = data[sampleIndex] & 0xFF;
-                    sampleValue = (sampleValue & 0xFE) | (bits.charAt(i) - '0');
-                    data[sampleIndex] = (byte) sampleValue;
-                } else if (bitsPerSample == 16) {
-                    sampleValue = (short) (((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF));
-                    sampleValue = (sampleValue & 0xFFFE) | (bits.charAt(i) - '0');
-                    data[sampleIndex] = (byte) (sampleValue & 0xFF);
-                    data[sampleIndex + 1] = (byte) ((sampleValue >> 8) & 0xFF);
-                } else if (bitsPerSample == 24) {
-                    sampleValue = ((data[sampleIndex + 2] & 0xFF) << 16) | ((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF);
-                    sampleValue = (sampleValue & 0xFFFFFE) | (bits.charAt(i) - '0');
-                    data[sampleIndex] = (byte) (sampleValue & 0xFF);
-                    data[sampleIndex + 1] = (byte) ((sampleValue >> 8) & 0xFF);
-                    data[sampleIndex + 2] = (byte) ((sampleValue >> 16) & 0xFF);
-                } else { // bitsPerSample == 32
-                    sampleValue = ((data[sampleIndex + 3] & 0xFF) << 24) | ((data[sampleIndex + 2] & 0xFF) << 16) |
-                                  ((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF);
-                    sampleValue = (sampleValue & 0xFFFFFFFE) | (bits.charAt(i) - '0');
-                    data[sampleIndex] = (byte) (sampleValue & 0xFF);
-                    data[sampleIndex + 1] = (byte) ((sampleValue >> 8) & 0xFF);
-                    data[sampleIndex + 2] = (byte) ((sampleValue >> 16) & 0xFF);
-                    data[sampleIndex + 3] = (byte) ((sampleValue >> 24) & 0xFF);
-                }
-            }
+            // Le bit de poids faible d'un échantillon little-endian est celui de son premier octet
+            LsbKernels.cacher(data, 0, bytesPerSample, LsbKernels.versTableau(indices, false), bits);
     
             try (FileOutputStream out = new FileOutputStream(outputWav)) {
                 out.write(header);
@@ -114,44 +86,10 @@ public class AudioSteganography {
                 }
             }
     
-            StringBuilder bits = new StringBuilder();
-            List<Integer> samples = new ArrayList<>();
-    
-            for (int index : indices) {
-                 if (index == 0) continue; // sauter l'indice 0
-
-                int sampleIndex = index * bytesPerSample;
-                int sampleValue;
-                if (bitsPerSample == 8) {
-                    sampleValue = data[index] & 0xFF;
-                } else if (bitsPerSample == 16) {
-                    sampleValue = (short) (((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF));
-                } else if (bitsPerSample == 24) {
-                    sampleValue = ((data[sampleIndex + 2] & 0xFF) << 16) | ((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF);
-                } else { // bitsPerSample == 32
-                    sampleValue = ((data[sampleIndex + 3] & 0xFF) << 24) | ((data[sampleIndex + 2] & 0xFF) << 16) |
-                                  ((data[sampleIndex + 1] & 0xFF) << 8) | (data[sampleIndex] & 0xFF);
-                }
-                samples.add(sampleValue);
-                bits.append(sampleValue & 1);
-            }
-    
-            // Débogage
-            System.out.println("Indices: " + indices.toString());
-            System.out.println("Samples: " + samples.toString());
-    
-            StringBuilder bitsAvecCrochets = new StringBuilder("[");
-            for (int i = 0; i < bits.length(); i++) {
-                bitsAvecCrochets.append(bits.charAt(i));
-                if (i != bits.length() - 1) {
-                    bitsAvecCrochets.append(", ");
-                }
-            }
-            bitsAvecCrochets.append("]");
-    
-            System.out.println("Bits: " + bitsAvecCrochets.toString());
+            // sauter l'indice 0
+            String bits = LsbKernels.extraire(data, 0, bytesPerSample, LsbKernels.versTableau(indices, true));
     
-            return bits.toString();
+            return bits;
         }
     }
     
@@ -189,7 +127,6 @@ public class AudioSteganography {
             }
     
             long totalSamples = frames * channels;
-            System.out.println("Total samples : " + totalSamples);
             return totalSamples;
         } catch (UnsupportedAudioFileException e) {
             throw new IOException("Fichier audio non supporté", e);
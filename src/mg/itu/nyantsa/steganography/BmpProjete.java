@@ -0,0 +1,84 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * BMP non compressé (BI_RGB) de 8, 24 ou 32 bits par pixel, projeté en mémoire.
+ *
+ * Les positions sont les octets d'échantillon de l'image lue ligne après ligne de haut en bas,
+ * de gauche à droite, comme pour {@link ImageDecodee} : en 8 bits la position i est le pixel
+ * (i % largeur, i / largeur) (indice de palette, égal au niveau de gris avec une palette de gris
+ * ordonnée) ; en 24 ou 32 bits, chaque pixel donne 3 ou 4 positions, dans l'ordre du fichier (B,
+ * V, R[, A]). Le remplissage des lignes à 4 octets et le rangement de bas en haut sont pris en
+ * compte. Sans règle historique pour ce format, la capacité est le nombre de positions.
+ */
+final class BmpProjete extends FichierProjete {
+    private static final int BI_RGB = 0;
+
+    private final long debut;
+    private final long pas;
+    private final int octetsParLigne;
+    private final int hauteur;
+    private final boolean basEnHaut;
+    private final long nombre;
+
+    BmpProjete(Path fichier, boolean ecriture) throws IOException {
+        super(fichier, ecriture);
+        try {
+            if (taille < 54 || octet(0) != 'B' || octet(1) != 'M') {
+                throw new IOException("Fichier BMP invalide : " + fichier);
+            }
+            debut = u32le(10);
+            if (u32le(14) < 40) {
+                throw new UnsupportedOperationException("En-tête BMP OS/2 non supporté");
+            }
+            int largeur = (int) u32le(18);
+            int h = (int) u32le(22);
+            int bitsParPixel = u16le(28);
+            long compression = u32le(30);
+            if (compression != BI_RGB) {
+                throw new UnsupportedOperationException("BMP compressé non supporté (compression " + compression + ")");
+            }
+            if (bitsParPixel != 8 && bitsParPixel != 24 && bitsParPixel != 32) {
+                throw new UnsupportedOperationException("Résolution non supportée : " + bitsParPixel + " bits par pixel");
+            }
+            if (largeur <= 0 || h == 0 || h == Integer.MIN_VALUE) {
+                throw new IOException("Dimensions BMP invalides : " + largeur + " x " + h);
+            }
+            basEnHaut = h > 0;
+            hauteur = Math.abs(h);
+            octetsParLigne = largeur * (bitsParPixel / 8);
+            pas = (((long) largeur * bitsParPixel + 31) / 32) * 4;
+            if (debut + pas * hauteur > taille) {
+                throw new IOException("Fichier BMP tronqué : " + fichier);
+            }
+            nombre = (long) octetsParLigne * hauteur;
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    long decalage(long index) {
+        long ligne = index / octetsParLigne;
+        long ligneFichier = basEnHaut ? hauteur - 1 - ligne : ligne;
+        return debut + ligneFichier * pas + index % octetsParLigne;
+    }
+
+    @Override
+    String indiceInvalide(long index) {
+        return "Indice de pixel invalide: " + index;
+    }
+
+    @Override
+    public long capacite() {
+        return nombre;
+    }
+
+    @Override
+    public long positions() {
+        return nombre;
+    }
+}
@@ -0,0 +1,258 @@
+package steganography;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import recurrence.IndexGenerator;
+
+/**
+ * Porteuses ouvertes en lecture et gardées en mémoire entre deux extractions : un format non
+ * compressé (WAV, PCM brut, BMP, PGM/PPM) reste projeté, une image PNG reste décodée, et la capacité est calculée une seule fois.
+ *
+ * Comme pour {@link huffman.HuffmanTables}, une porteuse gardée n'est réutilisée que si le fichier
+ * n'a pas changé (même taille, même date de modification). Le cache est borné à
+ * {@link #PORTEUSES_MAX} porteuses et à {@link #OCTETS_DECODES_MAX} octets d'images décodées
+ * (une projection ne compte pas : ses pages appartiennent au système, pas au tas) ; la porteuse
+ * la moins récemment utilisée est fermée la première. Une image décodée plus grosse que le
+ * budget à elle seule n'est pas gardée. Les lectures sont sans état et peuvent se faire depuis
+ * plusieurs fils sur la même porteuse.
+ *
+ * Une porteuse gardée reste projetée : la réécrire pendant une lecture ferait lire des pages
+ * modifiées, ou disparues si le fichier était tronqué. Toute écriture d'un fichier que le cache
+ * peut lire passe donc par {@link #ecrire}, qui l'exclut des lectures du cache le temps de
+ * l'opération (un verrou lecture-écriture par fichier, réparti sur {@link #VERROUS} verrous).
+ */
+public final class CarrierCache {
+
+    public static final int PORTEUSES_MAX = 32;
+    /** Place maximale des rasters d'images décodées gardés. */
+    public static final long OCTETS_DECODES_MAX = 256L << 20;
+
+    private static final Map<Cle, StegoCarrier> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    /** Somme des {@link #poids} des porteuses gardées ; sous le verrou du cache. */
+    private static long octetsDecodes;
+
+    static final int VERROUS = 64;
+    private static final ReentrantReadWriteLock[] VERROUS_FICHIERS = new ReentrantReadWriteLock[VERROUS];
+
+    static {
+        for (int i = 0; i < VERROUS; i++) {
+            VERROUS_FICHIERS[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    private CarrierCache() {
+    }
+
+    private interface Lecture<T> {
+        T lire(StegoCarrier porteuse) throws IOException;
+    }
+
+    /** Écriture d'un fichier, exclusive par rapport aux lectures du cache. */
+    public interface Ecriture<T> {
+        T ecrire() throws IOException;
+    }
+
+    /**
+     * Capacité de la porteuse au sens de l'extraction historique : nombre d'échantillons d'un WAV
+     * ({@link AudioSteganography#getSampleCount}), nombre de bits d'une image
+     * ({@link ImageSteganography#getImageCapacityInBits}) ; voir {@link StegoCarrier#capacite()}.
+     */
+    public static long capacite(Path porteuse) throws IOException {
+        return lire(porteuse, StegoCarrier::capacite);
+    }
+
+    /** Nombre de positions porteuses (échantillons ou pixels). */
+    public static long positions(Path porteuse) throws IOException {
+        return lire(porteuse, StegoCarrier::positions);
+    }
+
+    /** Comme {@link StegoPipeline#extraireBits}, sur la porteuse gardée en mémoire. */
+    public static StegoPipeline.Bilan extraireBits(Path porteuse, IndexGenerator indices, long nombreIndices,
+                                                   OutputStream sortie) throws IOException {
+        return lire(porteuse, ouverte -> StegoPipeline.extraireBits(ouverte, indices, nombreIndices, sortie));
+    }
+
+    /** Comme {@link StegoPipeline#extraireAvecEnTete}, sur la porteuse gardée en mémoire. */
+    public static StegoPipeline.Bilan extraireAvecEnTete(Path porteuse, IndexGenerator indices,
+                                                         OutputStream sortie) throws IOException {
+        return lire(porteuse, ouverte -> StegoPipeline.extraireAvecEnTete(ouverte, indices, sortie));
+    }
+
+    /**
+     * Écrit fichier (insertion sur place dans une porteuse, ou remplacement d'une sortie) sans
+     * aucune lecture du cache sur ce fichier en même temps : attend la fin des lectures en cours,
+     * bloque les suivantes jusqu'à la fin de l'écriture, puis retire le fichier du cache.
+     */
+    public static <T> T ecrire(Path fichier, Ecriture<T> ecriture) throws IOException {
+        Lock verrou = verrou(fichier).writeLock();
+        acquerir(verrou);
+        try {
+            return ecriture.ecrire();
+        } finally {
+            try {
+                oublier(fichier);
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    private static <T> T lire(Path porteuse, Lecture<T> lecture) throws IOException {
+        Lock verrou = verrou(porteuse).readLock();
+        acquerir(verrou);
+        try {
+            return lecture.lire(ouvrir(porteuse));
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private static ReentrantReadWriteLock verrou(Path fichier) {
+        String chemin = fichier.toAbsolutePath().normalize().toString();
+        return VERROUS_FICHIERS[Math.floorMod(chemin.hashCode(), VERROUS)];
+    }
+
+    private static void acquerir(Lock verrou) throws InterruptedIOException {
+        try {
+            verrou.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Attente du fichier interrompue");
+        }
+    }
+
+    /** Ferme et retire la porteuse du cache ; {@link #ecrire} le fait après chaque écriture. */
+    public static void oublier(Path porteuse) throws IOException {
+        String chemin = porteuse.toAbsolutePath().normalize().toString();
+        List<StegoCarrier> fermees = new ArrayList<>();
+        synchronized (CACHE) {
+            retirer(chemin, fermees);
+        }
+        fermer(fermees);
+    }
+
+    public static void viderCache() throws IOException {
+        List<StegoCarrier> fermees;
+        synchronized (CACHE) {
+            fermees = new ArrayList<>(CACHE.values());
+            CACHE.clear();
+            octetsDecodes = 0;
+        }
+        fermer(fermees);
+    }
+
+    /** Nombre de porteuses gardées. */
+    public static int taille() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /** Place des images décodées gardées, en octets. */
+    public static long octetsDecodes() {
+        synchronized (CACHE) {
+            return octetsDecodes;
+        }
+    }
+
+    private static StegoCarrier ouvrir(Path porteuse) throws IOException {
+        Path absolu = porteuse.toAbsolutePath().normalize();
+        if (!Files.exists(absolu)) {
+            throw new IllegalArgumentException("La porteuse n'existe pas : " + porteuse);
+        }
+        Cle cle = new Cle(absolu.toString(), Files.getLastModifiedTime(absolu).toMillis(), Files.size(absolu));
+        synchronized (CACHE) {
+            StegoCarrier ouverte = CACHE.get(cle);
+            if (ouverte != null) {
+                return ouverte;
+            }
+        }
+        // Ouverture hors verrou : deux fils peuvent ouvrir la même porteuse, le second garde la sienne
+        StegoCarrier ouverte = StegoCarrier.ouvrir(absolu);
+        long poids = poids(ouverte);
+        if (poids > OCTETS_DECODES_MAX) {
+            // Trop grosse pour être gardée : servie une fois (la fermeture d'une image décodée
+            // ne libère rien, le ramasse-miettes s'en charge)
+            return ouverte;
+        }
+        List<StegoCarrier> fermees = new ArrayList<>();
+        synchronized (CACHE) {
+            retirer(cle.chemin, fermees);
+            CACHE.put(cle, ouverte);
+            octetsDecodes += poids;
+            Iterator<StegoCarrier> it = CACHE.values().iterator();
+            while (CACHE.size() > PORTEUSES_MAX || octetsDecodes > OCTETS_DECODES_MAX) {
+                StegoCarrier evincee = it.next();
+                fermees.add(evincee);
+                octetsDecodes -= poids(evincee);
+                it.remove();
+            }
+        }
+        fermer(fermees);
+        return ouverte;
+    }
+
+    /** Place d'une porteuse gardée sur le tas : le raster d'une image décodée, 0 pour une projection. */
+    private static long poids(StegoCarrier porteuse) {
+        return porteuse instanceof ImageDecodee ? ((ImageDecodee) porteuse).octetsDecodes() : 0;
+    }
+
+    /** Retire les versions gardées du fichier ; appelé sous le verrou du cache. */
+    private static void retirer(String chemin, List<StegoCarrier> fermees) {
+        Iterator<Map.Entry<Cle, StegoCarrier>> it = CACHE.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Cle, StegoCarrier> e = it.next();
+            if (e.getKey().chemin.equals(chemin)) {
+                fermees.add(e.getValue());
+                octetsDecodes -= poids(e.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Une projection reste lisible après la fermeture du canal : une extraction en cours
+     * sur une porteuse évincée se termine normalement.
+     */
+    private static void fermer(List<StegoCarrier> ouvertes) throws IOException {
+        for (StegoCarrier ouverte : ouvertes) {
+            ouverte.close();
+        }
+    }
+
+    private static final class Cle {
+        final String chemin;
+        final long modification;
+        final long taille;
+
+        Cle(String chemin, long modification, long taille) {
+            this.chemin = chemin;
+            this.modification = modification;
+            this.taille = taille;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cle)) return false;
+            Cle c = (Cle) o;
+            return modification == c.modification && taille == c.taille && chemin.equals(c.chemin);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chemin, modification, taille);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Porteuse non compressée projetée en mémoire par tranches de {@link #TAILLE_PROJECTION} octets :
+ * l'en-tête est lu dans la projection, puis chaque position est un octet du fichier dont on lit
+ * ou modifie le bit de poids faible, sans décodage ni réencodage. L'écriture se fait sur place,
+ * dans la copie temporaire faite par {@link StegoCarrier#ouvrir(Path, Path)} à côté de la sortie
+ * (ou dans la porteuse elle-même) : {@link #valider()} force les pages modifiées sur le disque
+ * puis renomme la copie en sortie d'un seul coup, et {@link #close()} supprime une copie jamais
+ * validée. Un fichier remplacé garde son contenu pour ceux qui l'ont encore projeté.
+ *
+ * Les sous-classes lisent leur en-tête dans la projection (en fermant le fichier s'il est refusé)
+ * et donnent, pour chaque position, l'octet du fichier qui porte son bit de poids faible.
+ */
+abstract class FichierProjete implements StegoCarrier {
+
+    static final long TAILLE_PROJECTION = 1L << 30;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer[] tranches;
+    /** Taille du fichier en octets. */
+    final long taille;
+    /** Copie temporaire projetée et sortie qu'elle remplacera, null hors copie ou une fois validée. */
+    private Path copie;
+    private Path destination;
+
+    FichierProjete(Path fichier, boolean ecriture) throws IOException {
+        canal = ecriture
+            ? FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(fichier, StandardOpenOption.READ);
+        try {
+            taille = canal.size();
+            FileChannel.MapMode mode = ecriture ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            tranches = new MappedByteBuffer[(int) ((taille + TAILLE_PROJECTION - 1) / TAILLE_PROJECTION)];
+            for (int t = 0; t < tranches.length; t++) {
+                long debut = t * TAILLE_PROJECTION;
+                tranches[t] = canal.map(mode, debut, Math.min(TAILLE_PROJECTION, taille - debut));
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Nouveau fichier temporaire dans le répertoire de sortie (pour un renommage atomique), avec
+     * les permissions de modele ; sert aussi à {@link ImageDecodee}.
+     */
+    static Path temporaire(Path sortie, Path modele) throws IOException {
+        Path absolue = sortie.toAbsolutePath();
+        Path copie = Files.createTempFile(absolue.getParent(), "." + absolue.getFileName(), ".tmp");
+        try {
+            PosixFileAttributeView droits = Files.getFileAttributeView(copie, PosixFileAttributeView.class);
+            if (droits != null) {
+                droits.setPermissions(Files.getPosixFilePermissions(modele));
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+        return copie;
+    }
+
+    /** La projection est une copie temporaire, à renommer en destination par {@link #valider()}. */
+    final void remplacer(Path copie, Path destination) {
+        this.copie = copie;
+        this.destination = destination;
+    }
+
+    /**
+     * Position dans le fichier de l'octet qui porte le bit de poids faible de la position index
+     * (déjà vérifiée).
+     */
+    abstract long decalage(long index);
+
+    /** Message de l'erreur levée pour un indice hors de la porteuse. */
+    String indiceInvalide(long index) {
+        return "Index invalide : " + index;
+    }
+
+    /** Octet brut du fichier, pour la lecture de l'en-tête. */
+    final int octet(long p) {
+        if (p < 0 || p >= taille) {
+            throw new IllegalArgumentException("Lecture hors du fichier : octet " + p + " sur " + taille);
+        }
+        return tranches[(int) (p >>> 30)].get((int) (p & (TAILLE_PROJECTION - 1))) & 0xFF;
+    }
+
+    /** Entier de 16 ou 32 bits petit-boutiste de l'en-tête. */
+    final int u16le(long p) {
+        return octet(p) | (octet(p + 1) << 8);
+    }
+
+    final long u32le(long p) {
+        return u16le(p) | ((long) u16le(p + 2) << 16);
+    }
+
+    private long verifier(long index) {
+        if (index < 0 || index >= positions()) {
+            throw new IllegalArgumentException(indiceInvalide(index));
+        }
+        return decalage(index);
+    }
+
+    @Override
+    public int lireLsb(long index) {
+        long p = verifier(index);
+        return tranches[(int) (p >>> 30)].get((int) (p & (TAILLE_PROJECTION - 1))) & 1;
+    }
+
+    @Override
+    public void ecrireLsb(long index, int bit) {
+        long p = verifier(index);
+        MappedByteBuffer tranche = tranches[(int) (p >>> 30)];
+        int i = (int) (p & (TAILLE_PROJECTION - 1));
+        tranche.put(i, (byte) ((tranche.get(i) & 0xFE) | bit));
+    }
+
+    @Override
+    public void valider() throws IOException {
+        for (MappedByteBuffer tranche : tranches) {
+            tranche.force();
+        }
+        if (copie != null) {
+            // La projection suit le fichier renommé : les écritures suivantes vont dans la sortie
+            Files.move(copie, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            copie = null;
+            destination = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+        if (copie != null) {
+            Files.deleteIfExists(copie);
+        }
+    }
+}
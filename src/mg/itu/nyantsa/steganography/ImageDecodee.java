@@ -0,0 +1,108 @@
+package steganography;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import javax.imageio.ImageIO;
+
+/**
+ * Image en niveaux de gris décodée par ImageIO ; le pixel i est en (i % largeur, i / largeur).
+ * {@link #valider()} écrit le PNG dans un fichier temporaire renommé ensuite en sortie : la
+ * sortie n'est jamais vue à moitié écrite.
+ */
+final class ImageDecodee implements StegoCarrier {
+    private final BufferedImage image;
+    private final WritableRaster raster;
+    private final int largeur;
+    private final int hauteur;
+    private final byte[] octets;
+    private final int debut;
+    private final Path porteuse;
+    private final Path sortie;
+    private final long capacite;
+
+    ImageDecodee(Path fichier, Path sortie) throws IOException {
+        image = ImageIO.read(fichier.toFile());
+        if (image == null) {
+            throw new IOException("Format d'image non reconnu : " + fichier);
+        }
+        if (image.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+            throw new IllegalArgumentException("L'image doit être en niveaux de gris (TYPE_BYTE_GRAY)");
+        }
+        raster = image.getRaster();
+        largeur = image.getWidth();
+        hauteur = image.getHeight();
+        debut = ImageSteganography.debutOctets(raster, largeur);
+        octets = debut >= 0 ? ((DataBufferByte) raster.getDataBuffer()).getData() : null;
+        this.porteuse = fichier;
+        this.sortie = sortie;
+        capacite = (long) largeur * hauteur * raster.getSampleModel().getSampleSize(0) * raster.getNumBands();
+    }
+
+    /** Place du raster décodé sur le tas, en octets. */
+    long octetsDecodes() {
+        return raster.getDataBuffer().getSize();
+    }
+
+    private void verifier(long index) {
+        if (index < 0 || index / largeur >= hauteur) {
+            throw new IllegalArgumentException("Indice de pixel invalide: " + index);
+        }
+    }
+
+    @Override
+    public long positions() {
+        return (long) largeur * hauteur;
+    }
+
+    @Override
+    public long capacite() {
+        return capacite;
+    }
+
+    @Override
+    public int lireLsb(long index) {
+        verifier(index);
+        if (octets != null) {
+            return octets[debut + (int) index] & 1;
+        }
+        return raster.getSample((int) (index % largeur), (int) (index / largeur), 0) & 1;
+    }
+
+    @Override
+    public void ecrireLsb(long index, int bit) {
+        verifier(index);
+        if (octets != null) {
+            int i = debut + (int) index;
+            octets[i] = (byte) ((octets[i] & 0xFE) | bit);
+            return;
+        }
+        int x = (int) (index % largeur);
+        int y = (int) (index / largeur);
+        raster.setSample(x, y, 0, (raster.getSample(x, y, 0) & 0xFE) | bit);
+    }
+
+    @Override
+    public void valider() throws IOException {
+        if (sortie == null) {
+            throw new IllegalStateException("Image ouverte en lecture seule");
+        }
+        Path copie = FichierProjete.temporaire(sortie, porteuse);
+        try {
+            ImageIO.write(image, "png", copie.toFile());
+            Files.move(copie, sortie, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
+
@@ -1,6 +1,8 @@
 package steganography;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.io.File;
@@ -38,11 +40,19 @@ public class ImageSteganography {
         for (int index : pixelsIndices) {
             int x = index % largeur;
             int y = index / largeur;
-            if (x >= largeur || y >= hauteur) {
+            if (index < 0 || x >= largeur || y >= hauteur) {
                 throw new IllegalArgumentException("Indice de pixel invalide: " + index);
             }
         }
 
+        int debut = debutOctets(raster, largeur);
+        if (debut >= 0) {
+            byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+            LsbKernels.cacher(data, debut, 1, LsbKernels.versTableau(pixelsIndices, false), message);
+            ImageIO.write(image, "png", new File(outputPath));
+            return new ArrayList<>(pixelsIndices.subList(0, message.length()));
+        }
+
         List<Integer> pixelsModifies = new ArrayList<>();
         for (int i = 0; i < message.length(); i++) {
             int index = pixelsIndices.get(i);
@@ -80,6 +90,16 @@ public class ImageSteganography {
     
        // System.out.println("Indices : " + pixelsIndices);
     
+        int debut = debutOctets(raster, largeur);
+        if (debut >= 0) {
+            for (int index : pixelsIndices) {
+                if (index < 0 || index / largeur >= hauteur) {
+                    throw new IllegalArgumentException("Indice de pixel invalide: " + index);
+                }
+            }
+            byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+            return LsbKernels.extraire(data, debut, 1, LsbKernels.versTableau(pixelsIndices, true));
+        }
 
         for (int index : pixelsIndices) {
             if (index == 0) continue;  // saute l'indice 0
@@ -105,6 +125,23 @@ public class ImageSteganography {
         return messageBinaire.toString();
     }
     
+    /**
+     * Position du pixel (0, 0) dans le tableau d'octets de l'image quand les pixels y sont rangés
+     * ligne après ligne, un octet par pixel (pixel d'indice i à debut + i) ; -1 sinon.
+     */
+    static int debutOctets(Raster raster, int largeur) {
+        if (!(raster.getDataBuffer() instanceof DataBufferByte) || raster.getNumBands() != 1
+                || !(raster.getSampleModel() instanceof ComponentSampleModel)
+                || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+            return -1;
+        }
+        ComponentSampleModel modele = (ComponentSampleModel) raster.getSampleModel();
+        if (modele.getPixelStride() != 1 || modele.getScanlineStride() != largeur || modele.getBankIndices()[0] != 0) {
+            return -1;
+        }
+        return raster.getDataBuffer().getOffset() + modele.getBandOffsets()[0];
+    }
+
     public static List<Integer> lireIndicesDepuisFichier(String fichierPath) throws IOException {
         List<Integer> indices = new ArrayList<>();
         List<String> lignes = Files.readAllLines(Paths.get(fichierPath));
@@ -0,0 +1,29 @@
+package steganography;
+
+/**
+ * Lecture et écriture en bloc des bits de poids faible d'échantillons régulièrement espacés
+ * dans un tableau d'octets : n échantillons commençant à debut, séparés de pas octets (1 pour
+ * une image en niveaux de gris ou un PCM 8 bits, 2 pour un PCM 16 bits little-endian, etc.).
+ *
+ * Les bits sont rangés dans des long, le premier bit étant le bit de poids fort de
+ * mots[premierMot] (même ordre que huffman.BitBuffer). Les octets lus ou écrits peuvent aller
+ * jusqu'à debut + n * pas - 1 : pour un PCM 16 bits, l'octet de poids fort du dernier
+ * échantillon doit donc exister.
+ */
+public interface LsbKernel {
+
+    /** Nom court du noyau ("scalaire", "vectoriel"). */
+    String nom();
+
+    /**
+     * Range les bits de poids faible des n échantillons dans mots à partir de premierMot.
+     * Les mots touchés sont réécrits entièrement : les bits au-delà de n sont mis à zéro.
+     */
+    void extraire(byte[] data, int debut, int pas, int n, long[] mots, int premierMot);
+
+    /**
+     * Remplace le bit de poids faible des n échantillons par les bits lus dans mots
+     * à partir de premierMot ; les autres bits des échantillons sont conservés.
+     */
+    void cacher(byte[] data, int debut, int pas, int n, long[] mots, int premierMot);
+}
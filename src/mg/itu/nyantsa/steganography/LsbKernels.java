@@ -0,0 +1,169 @@
+package steganography;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Choix du noyau LSB et lecture/écriture des bits aux positions d'une liste d'indices.
+ *
+ * Les indices sont découpés en séries d'indices consécutifs : une série d'au moins
+ * {@link #SEUIL_SERIE} indices passe par le noyau en bloc, le reste est traité échantillon par
+ * échantillon. Le résultat est le même que la boucle scalaire dans l'ordre des indices.
+ *
+ * Le noyau vectoriel (src/vector, classe steganography.VectorLsbKernel) n'est utilisé que si
+ * le programme est lancé avec --add-modules jdk.incubator.vector, que la classe est présente, et
+ * qu'il donne les mêmes bits que le noyau scalaire sur un jeu d'essai au chargement. Sinon, ou
+ * avec -Dsteganography.lsb=scalaire, le noyau scalaire est utilisé.
+ */
+public final class LsbKernels {
+
+    public static final int SEUIL_SERIE = 64;
+
+    private static final LsbKernel SCALAIRE = new ScalarLsbKernel();
+    private static final LsbKernel NOYAU = charger();
+
+    private LsbKernels() {
+    }
+
+    public static LsbKernel noyau() {
+        return NOYAU;
+    }
+
+    public static LsbKernel scalaire() {
+        return SCALAIRE;
+    }
+
+    private static LsbKernel charger() {
+        if ("scalaire".equals(System.getProperty("steganography.lsb"))) {
+            return SCALAIRE;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAIRE;
+        }
+        try {
+            LsbKernel vectoriel = (LsbKernel) Class.forName("steganography.VectorLsbKernel")
+                .getDeclaredConstructor().newInstance();
+            return memesResultats(vectoriel, SCALAIRE) ? vectoriel : SCALAIRE;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return SCALAIRE;
+        }
+    }
+
+    /**
+     * Compare deux noyaux sur des données aléatoires, pour chaque pas de 1 à 4 octets et des
+     * longueurs autour des frontières de mots.
+     */
+    static boolean memesResultats(LsbKernel a, LsbKernel b) {
+        Random aleatoire = new Random(0x5EED);
+        byte[] data = new byte[4 * 1100 + 8];
+        aleatoire.nextBytes(data);
+        int[] longueurs = {0, 1, 63, 64, 65, 127, 128, 640, 1000};
+        for (int pas = 1; pas <= 4; pas++) {
+            for (int n : longueurs) {
+                int debut = 3;
+                long[] motsA = new long[2 + (n + 63) / 64];
+                long[] motsB = new long[motsA.length];
+                a.extraire(data, debut, pas, n, motsA, 1);
+                b.extraire(data, debut, pas, n, motsB, 1);
+                if (!Arrays.equals(motsA, motsB)) return false;
+
+                long[] bits = new long[motsA.length];
+                for (int i = 0; i < bits.length; i++) bits[i] = aleatoire.nextLong();
+                byte[] copieA = data.clone();
+                byte[] copieB = data.clone();
+                a.cacher(copieA, debut, pas, n, bits, 1);
+                b.cacher(copieB, debut, pas, n, bits, 1);
+                if (!Arrays.equals(copieA, copieB)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copie une liste d'indices en tableau, en sautant les indices 0 si demandé (convention de
+     * l'extraction).
+     */
+    static int[] versTableau(List<Integer> indices, boolean sauterZero) {
+        int[] resultat = new int[indices.size()];
+        int n = 0;
+        for (int index : indices) {
+            if (sauterZero && index == 0) continue;
+            resultat[n++] = index;
+        }
+        return n == resultat.length ? resultat : Arrays.copyOf(resultat, n);
+    }
+
+    /**
+     * Bits de poids faible des échantillons data[debut + indice * pas], en chaîne de '0' et '1'.
+     */
+    public static String extraire(byte[] data, int debut, int pas, int[] indices) {
+        char[] bits = new char[indices.length];
+        long[] mots = new long[0];
+        int i = 0;
+        while (i < indices.length) {
+            int fin = finSerie(indices, i, indices.length);
+            int n = fin - i;
+            if (n >= SEUIL_SERIE) {
+                if (mots.length < (n + 63) >>> 6) {
+                    mots = new long[(n + 63) >>> 6];
+                }
+                NOYAU.extraire(data, debut + indices[i] * pas, pas, n, mots, 0);
+                for (int k = 0; k < n; k++) {
+                    bits[i + k] = (char) ('0' + ((mots[k >>> 6] >>> (63 - (k & 63))) & 1));
+                }
+            } else {
+                for (int k = i; k < fin; k++) {
+                    bits[k] = (char) ('0' + (data[debut + indices[k] * pas] & 1));
+                }
+            }
+            i = fin;
+        }
+        return new String(bits);
+    }
+
+    /**
+     * Remplace le bit de poids faible de data[debut + indices[i] * pas] par le caractère i de
+     * message ('0' ou '1'), pour i de 0 à message.length() - 1.
+     */
+    public static void cacher(byte[] data, int debut, int pas, int[] indices, CharSequence message) {
+        int total = message.length();
+        long[] mots = new long[0];
+        int i = 0;
+        while (i < total) {
+            int fin = finSerie(indices, i, total);
+            int n = fin - i;
+            if (n >= SEUIL_SERIE) {
+                int nbMots = (n + 63) >>> 6;
+                if (mots.length < nbMots) {
+                    mots = new long[nbMots];
+                } else {
+                    Arrays.fill(mots, 0, nbMots, 0L);
+                }
+                for (int k = 0; k < n; k++) {
+                    if (message.charAt(i + k) == '1') {
+                        mots[k >>> 6] |= 1L << (63 - (k & 63));
+                    }
+                }
+                NOYAU.cacher(data, debut + indices[i] * pas, pas, n, mots, 0);
+            } else {
+                for (int k = i; k < fin; k++) {
+                    int position = debut + indices[k] * pas;
+                    data[position] = (byte) ((data[position] & 0xFE) | (message.charAt(k) == '1' ? 1 : 0));
+                }
+            }
+            i = fin;
+        }
+    }
+
+    /**
+     * Fin (exclue) de la série d'indices consécutifs qui commence à debut.
+     */
+    private static int finSerie(int[] indices, int debut, int limite) {
+        int fin = debut + 1;
+        while (fin < limite && indices[fin] == indices[fin - 1] + 1) {
+            fin++;
+        }
+        return fin;
+    }
+}
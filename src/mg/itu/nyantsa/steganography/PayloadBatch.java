@@ -0,0 +1,227 @@
+package steganography;
+
+import huffman.BitBuffer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import recurrence.IndexGenerator;
+
+/**
+ * Insertion de plusieurs messages dans une même porteuse : la porteuse est lue une fois, tous les
+ * messages y sont écrits, puis elle est enregistrée une fois, au lieu d'un appel à cacherMessage
+ * (lecture, écriture et réencodage complets) par message.
+ *
+ * Chaque {@link Charge} associe des bits à sa propre source d'indices. Avant toute écriture, un
+ * premier parcours des indices vérifie qu'ils sont dans la porteuse et qu'aucune position n'est
+ * utilisée par deux charges différentes (une table d'un bit par position, plus une pour la charge
+ * en cours) ; une collision est signalée avec les deux charges et l'indice en cause, et rien n'est
+ * écrit. Une charge qui réutilise ses propres indices (suite qui reboucle) n'est pas une
+ * collision : comme avec cacherMessage, le dernier bit écrit l'emporte, et ces cas sont comptés.
+ */
+public final class PayloadBatch {
+
+    private PayloadBatch() {
+    }
+
+    /**
+     * Écrit toutes les charges dans une copie de la porteuse (ou dans la porteuse elle-même si
+     * sortie est le même fichier, pour un format projeté : WAV, PCM brut, BMP, PGM/PPM). Les
+     * charges sont vérifiées avant toute copie ; en cas d'erreur, sortie reste telle qu'elle était.
+     */
+    public static Rapport cacher(Path porteuse, Path sortie, List<Charge> charges) throws IOException {
+        if (charges == null || charges.isEmpty()) {
+            throw new IllegalArgumentException("La liste des charges est vide ou null");
+        }
+        long[] reutilisations = null;
+        if (StegoCarrier.estProjetee(porteuse)) {
+            // Projection en lecture seule : la copie n'est faite qu'une fois les charges acceptées
+            try (StegoCarrier lecture = StegoCarrier.ouvrir(porteuse)) {
+                reutilisations = verifier(lecture.positions(), charges);
+            }
+        }
+        // Une image décodée n'est écrite qu'à la validation : inutile de la décoder deux fois
+        try (StegoCarrier echantillons = StegoCarrier.ouvrir(porteuse, sortie)) {
+            if (reutilisations == null) {
+                reutilisations = verifier(echantillons.positions(), charges);
+            }
+            for (Charge charge : charges) {
+                SourceIndices source = charge.source();
+                for (long k = 0; k < charge.bitsAEcrire(); k++) {
+                    echantillons.ecrireLsb(source.suivant(), charge.bit(k));
+                }
+            }
+            echantillons.valider();
+        }
+        return new Rapport(charges, reutilisations);
+    }
+
+    /**
+     * Premier parcours des indices : bornes et collisions entre charges. Renvoie, pour chaque
+     * charge, le nombre d'indices qu'elle réutilise.
+     */
+    private static long[] verifier(long positions, List<Charge> charges) {
+        long[] prises = new long[(int) ((positions + 63) >>> 6)];
+        long[] courantes = new long[prises.length];
+        long[] reutilisations = new long[charges.size()];
+        for (int c = 0; c < charges.size(); c++) {
+            Charge charge = charges.get(c);
+            SourceIndices source = charge.source();
+            for (long k = 0; k < charge.bitsAEcrire(); k++) {
+                long index = source.suivant();
+                if (index < 0 || index >= positions) {
+                    throw new IllegalArgumentException("Indice invalide dans la charge " + c + " : " + index
+                                                       + " (porteuse de " + positions + " positions)");
+                }
+                int mot = (int) (index >>> 6);
+                long masque = 1L << index;
+                if ((prises[mot] & masque) != 0) {
+                    throw new IllegalArgumentException("Collision : l'indice " + index + " (bit " + k + " de la charge "
+                                                       + c + ") est déjà utilisé par la charge "
+                                                       + proprietaire(charges, c, index));
+                }
+                if ((courantes[mot] & masque) != 0) {
+                    reutilisations[c]++;
+                }
+                courantes[mot] |= masque;
+            }
+            for (int i = 0; i < prises.length; i++) {
+                prises[i] |= courantes[i];
+            }
+            Arrays.fill(courantes, 0L);
+        }
+        return reutilisations;
+    }
+
+    /** Première des charges qui précèdent la charge avant à utiliser index (rejoue leurs indices). */
+    private static int proprietaire(List<Charge> charges, int avant, long index) {
+        for (int c = 0; c < avant; c++) {
+            Charge charge = charges.get(c);
+            SourceIndices source = charge.source();
+            for (long k = 0; k < charge.bitsAEcrire(); k++) {
+                if (source.suivant() == index) return c;
+            }
+        }
+        return -1;
+    }
+
+    private interface SourceIndices {
+        long suivant();
+    }
+
+    /**
+     * Un message et sa source d'indices.
+     */
+    public static final class Charge {
+
+        private final BitBuffer bits;
+        private final byte[] enTete;
+        private final IndexGenerator generateur;
+        private final long debut;
+        private final int[] indices;
+
+        private Charge(BitBuffer bits, byte[] enTete, IndexGenerator generateur, int[] indices) {
+            this.bits = bits;
+            this.enTete = enTete;
+            this.generateur = generateur;
+            this.debut = generateur == null ? 0 : generateur.position();
+            this.indices = indices;
+        }
+
+        /**
+         * Bits placés aux indices tirés du générateur à partir de sa position actuelle, en sautant
+         * les indices 0 comme {@link StegoPipeline}.
+         */
+        public static Charge generee(BitBuffer bits, IndexGenerator generateur) {
+            return new Charge(bits, null, generateur, null);
+        }
+
+        /**
+         * Comme {@link #generee}, précédé d'un {@link PayloadHeader} (relu par
+         * {@link StegoPipeline#extraireAvecEnTete}) dont les positions sont ensuite sautées.
+         */
+        public static Charge avecEnTete(BitBuffer bits, IndexGenerator generateur, int codeur) {
+            CRC32C crc = new CRC32C();
+            crc.update(bits.versOctets());
+            byte[] enTete = PayloadHeader.nouveau(codeur, bits.longueur(), (int) crc.getValue()).versOctets();
+            return new Charge(bits, enTete, generateur, null);
+        }
+
+        /**
+         * Message en '0' et '1' placé aux indices de la liste, dans l'ordre et sans sauter 0,
+         * comme cacherMessage.
+         */
+        public static Charge listee(CharSequence bits, List<Integer> indices) {
+            if (indices == null || indices.size() < bits.length()) {
+                throw new IllegalArgumentException("Pas assez d'indices pour cacher tous les bits du message");
+            }
+            return new Charge(BitBuffer.depuisChaine(bits), null, null, LsbKernels.versTableau(indices, false));
+        }
+
+        long bitsAEcrire() {
+            return bits.longueur() + (enTete == null ? 0 : PayloadHeader.TAILLE);
+        }
+
+        int bit(long k) {
+            if (enTete == null) return bits.bit(k);
+            if (k < PayloadHeader.TAILLE) return (enTete[(int) (k >>> 3)] >>> (7 - (k & 7))) & 1;
+            return bits.bit(k - PayloadHeader.TAILLE);
+        }
+
+        /** Nouvelle lecture des indices de la charge, depuis le début. */
+        SourceIndices source() {
+            if (indices != null) {
+                int[] position = new int[1];
+                return () -> indices[position[0]++];
+            }
+            StegoPipeline.TirageIndices tirage = new StegoPipeline.TirageIndices(generateur.split(debut));
+            if (enTete == null) {
+                return tirage::suivantNonNul;
+            }
+            long[] tires = new long[1];
+            return () -> tires[0]++ < PayloadHeader.TAILLE ? tirage.reserver() : tirage.suivantNonNul();
+        }
+
+        public long longueur() {
+            return bits.longueur();
+        }
+    }
+
+    /**
+     * Bilan de l'insertion : bits écrits et indices réutilisés par chaque charge.
+     */
+    public static final class Rapport {
+
+        private final List<Long> bits;
+        private final List<Long> reutilisations;
+
+        Rapport(List<Charge> charges, long[] reutilisations) {
+            List<Long> longueurs = new ArrayList<>();
+            List<Long> reutilises = new ArrayList<>();
+            for (int c = 0; c < charges.size(); c++) {
+                longueurs.add(charges.get(c).bitsAEcrire());
+                reutilises.add(reutilisations[c]);
+            }
+            this.bits = Collections.unmodifiableList(longueurs);
+            this.reutilisations = Collections.unmodifiableList(reutilises);
+        }
+
+        /** Bits écrits par charge, en-tête compris. */
+        public List<Long> bits() {
+            return bits;
+        }
+
+        /** Indices utilisés plusieurs fois par la même charge (dernier bit écrit gardé). */
+        public List<Long> reutilisations() {
+            return reutilisations;
+        }
+
+        @Override
+        public String toString() {
+            return bits.size() + " charge(s), bits " + bits + ", indices réutilisés " + reutilisations;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package steganography;
+
+import huffman.HuffmanCodingCharacter;
+import huffman.TansCoder;
+import java.util.function.IntSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * En-tête facultatif placé devant le message caché, sur les premières positions porteuses :
+ *
+ *   magique (16 bits) | version (4) | codeur (4) | longueur en bits (32) | contrôle (8) | CRC32C (32)
+ *
+ * soit {@link #TAILLE} bits, poids fort en premier. L'octet de contrôle est l'octet de poids
+ * faible du CRC32C des sept premiers octets ; le CRC32C final porte sur les bits du message
+ * rangés en octets (dernier octet complété par des zéros).
+ *
+ * La lecture s'arrête dès qu'un champ est incohérent : après 16 bits si le nombre magique ne
+ * correspond pas, après 64 bits si le contrôle ou la longueur sont faux. Avec de mauvais
+ * paramètres de récurrence, l'extraction s'arrête donc presque toujours après 16 bits au lieu
+ * de lire toute la longueur supposée du message.
+ */
+public final class PayloadHeader {
+
+    public static final int MAGIQUE = 0x53C7;
+    public static final int VERSION = 1;
+    public static final int TAILLE = 96;
+    private static final int TAILLE_OCTETS = TAILLE / 8;
+
+    public static final int CODEUR_BRUT = 0;
+    public static final int CODEUR_HUFFMAN = 1;
+    public static final int CODEUR_TANS = 2;
+
+    public enum Statut {
+        VALIDE,
+        MAGIQUE,
+        VERSION,
+        CONTROLE,
+        /** Longueur annoncée supérieure au nombre de positions de la porteuse. */
+        LONGUEUR
+    }
+
+    private final Statut statut;
+    private final int codeur;
+    private final long longueur;
+    private final int crc;
+    private final int bitsLus;
+
+    private PayloadHeader(Statut statut, int codeur, long longueur, int crc, int bitsLus) {
+        this.statut = statut;
+        this.codeur = codeur;
+        this.longueur = longueur;
+        this.crc = crc;
+        this.bitsLus = bitsLus;
+    }
+
+    public static PayloadHeader nouveau(int codeur, long longueur, int crc) {
+        if (codeur < 0 || codeur > 15) {
+            throw new IllegalArgumentException("Identifiant de codeur invalide : " + codeur);
+        }
+        if (longueur < 0 || longueur > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Longueur de message hors limites : " + longueur + " bits");
+        }
+        return new PayloadHeader(Statut.VALIDE, codeur, longueur, crc, TAILLE);
+    }
+
+    /**
+     * Lit un en-tête bit par bit ; capacite est le nombre de positions de la porteuse.
+     */
+    public static PayloadHeader lire(IntSupplier bits, long capacite) {
+        int magique = (int) lireBits(bits, 16);
+        if (magique != MAGIQUE) {
+            return new PayloadHeader(Statut.MAGIQUE, -1, -1, 0, 16);
+        }
+        int version = (int) lireBits(bits, 4);
+        if (version != VERSION) {
+            return new PayloadHeader(Statut.VERSION, -1, -1, 0, 20);
+        }
+        int codeur = (int) lireBits(bits, 4);
+        long longueur = lireBits(bits, 32);
+        int controle = (int) lireBits(bits, 8);
+        byte[] octets = entete(codeur, longueur, 0);
+        if (controle != controle(octets)) {
+            return new PayloadHeader(Statut.CONTROLE, codeur, longueur, 0, 64);
+        }
+        if (longueur + TAILLE > capacite) {
+            return new PayloadHeader(Statut.LONGUEUR, codeur, longueur, 0, 64);
+        }
+        int crc = (int) lireBits(bits, 32);
+        return new PayloadHeader(Statut.VALIDE, codeur, longueur, crc, TAILLE);
+    }
+
+    private static long lireBits(IntSupplier bits, int n) {
+        long valeur = 0;
+        for (int i = 0; i < n; i++) {
+            valeur = (valeur << 1) | (bits.getAsInt() & 1);
+        }
+        return valeur;
+    }
+
+    /** Les {@link #TAILLE} bits de l'en-tête, rangés en octets. */
+    public byte[] versOctets() {
+        if (statut != Statut.VALIDE) {
+            throw new IllegalStateException("En-tête invalide : " + statut);
+        }
+        return entete(codeur, longueur, crc);
+    }
+
+    private static byte[] entete(int codeur, long longueur, int crc) {
+        byte[] octets = new byte[TAILLE_OCTETS];
+        octets[0] = (byte) (MAGIQUE >>> 8);
+        octets[1] = (byte) MAGIQUE;
+        octets[2] = (byte) ((VERSION << 4) | codeur);
+        for (int i = 0; i < 4; i++) {
+            octets[3 + i] = (byte) (longueur >>> (24 - 8 * i));
+            octets[8 + i] = (byte) (crc >>> (24 - 8 * i));
+        }
+        octets[7] = (byte) controle(octets);
+        return octets;
+    }
+
+    private static int controle(byte[] octets) {
+        CRC32C crc = new CRC32C();
+        crc.update(octets, 0, 7);
+        return (int) crc.getValue() & 0xFF;
+    }
+
+    /** Identifiant de codeur de l'en-tête pour un nom de {@link huffman.EntropyCoder}. */
+    public static int codeurDepuisIdentifiant(String identifiant) {
+        switch (identifiant) {
+            case HuffmanCodingCharacter.ID:
+                return CODEUR_HUFFMAN;
+            case TansCoder.ID:
+                return CODEUR_TANS;
+            default:
+                return CODEUR_BRUT;
+        }
+    }
+
+    /** Nom du codeur annoncé par l'en-tête ("huffman", "tans"), ou null pour des bits bruts. */
+    public String identifiantCodeur() {
+        switch (codeur) {
+            case CODEUR_HUFFMAN:
+                return HuffmanCodingCharacter.ID;
+            case CODEUR_TANS:
+                return TansCoder.ID;
+            default:
+                return null;
+        }
+    }
+
+    public boolean estValide() {
+        return statut == Statut.VALIDE;
+    }
+
+    public Statut statut() {
+        return statut;
+    }
+
+    public int codeur() {
+        return codeur;
+    }
+
+    /** Longueur du message en bits (en-tête non compris). */
+    public long longueur() {
+        return longueur;
+    }
+
+    public int crc() {
+        return crc;
+    }
+
+    /** Nombre de bits lus avant de conclure. */
+    public int bitsLus() {
+        return bitsLus;
+    }
+
+    @Override
+    public String toString() {
+        if (statut != Statut.VALIDE) {
+            return "en-tête invalide (" + statut + ") après " + bitsLus + " bits";
+        }
+        String nom = identifiantCodeur();
+        return String.format("en-tête : %d bits, codeur %s, CRC32C %08x", longueur,
+                             nom == null ? "aucun" : nom, crc);
+    }
+}
@@ -0,0 +1,50 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * PCM brut, sans en-tête : le fichier n'est qu'une suite d'échantillons petit-boutistes de
+ * octetsParEchantillon octets (voix entrelacées), l'échantillon i commence à l'octet
+ * i * octetsParEchantillon. Sans règle historique pour ce format, la capacité est le nombre
+ * d'échantillons : tous les indices tirés sont valides.
+ */
+final class PcmBrut extends FichierProjete {
+    private final int octetsParEchantillon;
+    private final long nombre;
+
+    /** Taille d'échantillon supposée quand seule l'extension (.pcm, .raw) est connue. */
+    static final int OCTETS_PAR_ECHANTILLON_DEFAUT = 2;
+
+    PcmBrut(Path fichier, boolean ecriture, int octetsParEchantillon) throws IOException {
+        super(fichier, ecriture);
+        try {
+            if (octetsParEchantillon < 1 || octetsParEchantillon > 4) {
+                throw new UnsupportedOperationException("Résolution non supportée : " + 8 * octetsParEchantillon + " bits");
+            }
+            if (taille % octetsParEchantillon != 0) {
+                throw new IllegalArgumentException("Données audio corrompues : taille non divisible par bytesPerSample");
+            }
+            this.octetsParEchantillon = octetsParEchantillon;
+            nombre = taille / octetsParEchantillon;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    long decalage(long index) {
+        return index * octetsParEchantillon;
+    }
+
+    @Override
+    public long capacite() {
+        return nombre;
+    }
+
+    @Override
+    public long positions() {
+        return nombre;
+    }
+}
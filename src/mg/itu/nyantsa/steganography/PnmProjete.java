@@ -0,0 +1,98 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Image PGM (P5, niveaux de gris) ou PPM (P6, couleur) binaire, projetée en mémoire.
+ *
+ * Les échantillons suivent l'en-tête texte, ligne après ligne de haut en bas : en PGM la
+ * position i est le pixel (i % largeur, i / largeur), comme pour {@link ImageDecodee} ; en PPM
+ * chaque pixel donne 3 positions (R, V, B). Au-delà de 255 niveaux, un échantillon tient sur deux
+ * octets gros-boutistes et son bit de poids faible est dans le second. Sans règle historique pour
+ * ce format, la capacité est le nombre de positions.
+ */
+final class PnmProjete extends FichierProjete {
+    private final long debut;
+    private final int octetsParEchantillon;
+    private final long nombre;
+
+    /** Position de lecture dans l'en-tête. */
+    private long curseur;
+
+    PnmProjete(Path fichier, boolean ecriture) throws IOException {
+        super(fichier, ecriture);
+        try {
+            if (taille < 2 || octet(0) != 'P' || (octet(1) != '5' && octet(1) != '6')) {
+                throw new UnsupportedOperationException("Seuls les PGM (P5) et PPM (P6) binaires sont supportés : " + fichier);
+            }
+            int canaux = octet(1) == '5' ? 1 : 3;
+            curseur = 2;
+            long largeur = entier();
+            long hauteur = entier();
+            long maxval = entier();
+            if (largeur <= 0 || hauteur <= 0 || maxval <= 0 || maxval > 65535) {
+                throw new IOException("En-tête PNM invalide : " + largeur + " x " + hauteur + ", maxval " + maxval);
+            }
+            // Un seul blanc sépare maxval des données
+            debut = curseur + 1;
+            octetsParEchantillon = maxval > 255 ? 2 : 1;
+            nombre = largeur * hauteur * canaux;
+            if (debut + nombre * octetsParEchantillon > taille) {
+                throw new IOException("Fichier PNM tronqué : " + fichier);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** Entier décimal suivant de l'en-tête, après les blancs et les commentaires (# jusqu'à la fin de ligne). */
+    private long entier() throws IOException {
+        while (true) {
+            if (curseur >= taille) {
+                throw new IOException("En-tête PNM incomplet");
+            }
+            int c = octet(curseur);
+            if (c == '#') {
+                while (curseur < taille && octet(curseur) != '\n') curseur++;
+            } else if (Character.isWhitespace(c)) {
+                curseur++;
+            } else {
+                break;
+            }
+        }
+        long valeur = 0;
+        int chiffres = 0;
+        while (curseur < taille && octet(curseur) >= '0' && octet(curseur) <= '9') {
+            valeur = 10 * valeur + (octet(curseur++) - '0');
+            if (++chiffres > 10) {
+                throw new IOException("En-tête PNM invalide : nombre trop long");
+            }
+        }
+        if (chiffres == 0) {
+            throw new IOException("En-tête PNM invalide : nombre attendu à l'octet " + curseur);
+        }
+        return valeur;
+    }
+
+    @Override
+    long decalage(long index) {
+        return debut + index * octetsParEchantillon + octetsParEchantillon - 1;
+    }
+
+    @Override
+    String indiceInvalide(long index) {
+        return "Indice de pixel invalide: " + index;
+    }
+
+    @Override
+    public long capacite() {
+        return nombre;
+    }
+
+    @Override
+    public long positions() {
+        return nombre;
+    }
+}
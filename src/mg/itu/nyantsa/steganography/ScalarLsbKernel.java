@@ -0,0 +1,38 @@
+package steganography;
+
+/**
+ * Noyau de référence : un échantillon par itération, mais les bits sont accumulés dans un long
+ * au lieu d'être ajoutés un à un à une chaîne. Sert de repli quand l'API vectorielle n'est pas
+ * disponible et d'oracle pour vérifier le noyau vectoriel.
+ */
+final class ScalarLsbKernel implements LsbKernel {
+
+    @Override
+    public String nom() {
+        return "scalaire";
+    }
+
+    @Override
+    public void extraire(byte[] data, int debut, int pas, int n, long[] mots, int premierMot) {
+        int position = debut;
+        for (int i = 0; i < n; i += 64) {
+            int fin = Math.min(64, n - i);
+            long mot = 0;
+            for (int k = 0; k < fin; k++) {
+                mot = (mot << 1) | (data[position] & 1);
+                position += pas;
+            }
+            mots[premierMot + (i >>> 6)] = mot << (64 - fin);
+        }
+    }
+
+    @Override
+    public void cacher(byte[] data, int debut, int pas, int n, long[] mots, int premierMot) {
+        int position = debut;
+        for (int i = 0; i < n; i++) {
+            int bit = (int) (mots[premierMot + (i >>> 6)] >>> (63 - (i & 63))) & 1;
+            data[position] = (byte) ((data[position] & 0xFE) | bit);
+            position += pas;
+        }
+    }
+}
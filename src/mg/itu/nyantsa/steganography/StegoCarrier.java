@@ -0,0 +1,198 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Porteuse ouverte une fois : bits de poids faible adressés par indice d'échantillon (WAV) ou de
+ * pixel (image en niveaux de gris), capacité, et enregistrement des modifications.
+ *
+ * Au lieu d'un appel à {@link AudioSteganography} ou {@link ImageSteganography} par opération
+ * (chacun relisant le fichier), on ouvre la porteuse une fois pour la capacité, l'extraction et
+ * l'insertion d'un même travail. Le type est choisi d'après l'extension. Les formats non
+ * compressés sont projetés en mémoire et leurs octets modifiés sur place, sans décodage :
+ * .wav ({@link WavProjete}), .pcm et .raw ({@link PcmBrut}), .bmp ({@link BmpProjete}), .pgm, .ppm
+ * et .pnm ({@link PnmProjete}). Les autres images sont lues par ImageIO (décodées une fois,
+ * réécrites en PNG par {@link #valider()}).
+ *
+ * Les lectures peuvent se faire depuis plusieurs fils ; les écritures non.
+ */
+public interface StegoCarrier extends AutoCloseable {
+
+    /**
+     * Capacité au sens des méthodes historiques, qui sert de modulo aux générateurs d'indices :
+     * nombre d'échantillons d'un WAV ({@link AudioSteganography#getSampleCount}), nombre de bits
+     * d'une image ({@link ImageSteganography#getImageCapacityInBits}) ; nombre de positions pour
+     * les formats sans méthode historique (PCM brut, BMP, PGM/PPM).
+     */
+    long capacite();
+
+    /** Nombre de positions porteuses (échantillons ou pixels) : indices valides de 0 à positions() - 1. */
+    long positions();
+
+    int lireLsb(long index);
+
+    void ecrireLsb(long index, int bit);
+
+    /** Rend les modifications définitives (projection forcée sur disque, ou image réécrite). */
+    void valider() throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Bits de poids faible aux indices donnés, en '0' et '1' ; les indices 0 sont sautés, comme
+     * dans {@link AudioSteganography#extraireMessage} et {@link ImageSteganography#extraireMessage}.
+     */
+    default String lireMessage(List<Long> indices) {
+        StringBuilder bits = new StringBuilder(indices.size());
+        for (long index : indices) {
+            if (index == 0) continue;
+            bits.append((char) ('0' + lireLsb(index)));
+        }
+        return bits.toString();
+    }
+
+    /** Porteuse ouverte en lecture seule. */
+    static StegoCarrier ouvrir(Path porteuse) throws IOException {
+        if (!Files.exists(porteuse)) {
+            throw new IllegalArgumentException("La porteuse n'existe pas : " + porteuse);
+        }
+        return estProjetee(porteuse) ? projeter(porteuse, porteuse, false) : new ImageDecodee(porteuse, null);
+    }
+
+    /**
+     * Porteuse ouverte en écriture, les modifications allant dans sortie, qui n'est remplacée
+     * que par {@link #valider()} : un format non compressé est copié dans un fichier temporaire
+     * à côté de sortie, renommé en sortie à la validation (ou modifié sur place si sortie est la
+     * porteuse) ; une image décodée par ImageIO est écrite en PNG dans sortie à la validation.
+     * Fermée sans validation, la porteuse laisse sortie telle qu'elle était.
+     */
+    static StegoCarrier ouvrir(Path porteuse, Path sortie) throws IOException {
+        if (!Files.exists(porteuse)) {
+            throw new IllegalArgumentException("La porteuse n'existe pas : " + porteuse);
+        }
+        if (!estProjetee(porteuse)) {
+            return new ImageDecodee(porteuse, sortie);
+        }
+        if (memeFichier(porteuse, sortie)) {
+            return projeter(sortie, porteuse, true);
+        }
+        Path copie = copier(porteuse, sortie);
+        try {
+            FichierProjete projete = projeter(copie, porteuse, true);
+            projete.remplacer(copie, sortie);
+            return projete;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+    }
+
+    /**
+     * PCM brut (sans en-tête) d'octetsParEchantillon octets par échantillon, quelle que soit
+     * l'extension ; .pcm et .raw sont sinon lus en 16 bits.
+     */
+    static StegoCarrier ouvrirPcm(Path porteuse, int octetsParEchantillon) throws IOException {
+        if (!Files.exists(porteuse)) {
+            throw new IllegalArgumentException("La porteuse n'existe pas : " + porteuse);
+        }
+        return new PcmBrut(porteuse, false, octetsParEchantillon);
+    }
+
+    static StegoCarrier ouvrirPcm(Path porteuse, Path sortie, int octetsParEchantillon) throws IOException {
+        if (!Files.exists(porteuse)) {
+            throw new IllegalArgumentException("La porteuse n'existe pas : " + porteuse);
+        }
+        if (memeFichier(porteuse, sortie)) {
+            return new PcmBrut(sortie, true, octetsParEchantillon);
+        }
+        Path copie = copier(porteuse, sortie);
+        try {
+            PcmBrut pcm = new PcmBrut(copie, true, octetsParEchantillon);
+            pcm.remplacer(copie, sortie);
+            return pcm;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+    }
+
+    /** Porteuse audio : WAV ou PCM brut. */
+    static boolean estAudio(Path porteuse) {
+        switch (extension(porteuse)) {
+            case "wav":
+            case "pcm":
+            case "raw":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Format non compressé projeté en mémoire (WAV, PCM brut, BMP, PGM/PPM) plutôt que décodé par
+     * ImageIO ; son ouverture en écriture copie le fichier dans la sortie.
+     */
+    static boolean estProjetee(Path porteuse) {
+        switch (extension(porteuse)) {
+            case "wav":
+            case "pcm":
+            case "raw":
+            case "bmp":
+            case "pgm":
+            case "ppm":
+            case "pnm":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Projection de fichier selon le format (l'extension) de la porteuse d'origine. */
+    private static FichierProjete projeter(Path fichier, Path porteuse, boolean ecriture) throws IOException {
+        switch (extension(porteuse)) {
+            case "wav":
+                return new WavProjete(fichier, ecriture);
+            case "bmp":
+                return new BmpProjete(fichier, ecriture);
+            case "pgm":
+            case "ppm":
+            case "pnm":
+                return new PnmProjete(fichier, ecriture);
+            default:
+                return new PcmBrut(fichier, ecriture, PcmBrut.OCTETS_PAR_ECHANTILLON_DEFAUT);
+        }
+    }
+
+    /** sortie désigne le fichier de la porteuse : modification sur place. */
+    private static boolean memeFichier(Path porteuse, Path sortie) throws IOException {
+        return Files.exists(sortie) && Files.isSameFile(porteuse, sortie);
+    }
+
+    /** Copie de la porteuse par transferTo dans un fichier temporaire à côté de sortie. */
+    private static Path copier(Path porteuse, Path sortie) throws IOException {
+        Path copie = FichierProjete.temporaire(sortie, porteuse);
+        try (FileChannel source = FileChannel.open(porteuse, StandardOpenOption.READ);
+             FileChannel destination = FileChannel.open(copie, StandardOpenOption.WRITE)) {
+            long taille = source.size();
+            for (long copies = 0; copies < taille; ) {
+                copies += source.transferTo(copies, taille - copies, destination);
+            }
+            return copie;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+    }
+
+    private static String extension(Path porteuse) {
+        String nom = porteuse.getFileName().toString();
+        return nom.substring(nom.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,601 @@
+package steganography;
+
+import huffman.Alphabet;
+import huffman.HuffmanDecoder;
+import huffman.HuffmanInputStream;
+import huffman.HuffmanOutputStream;
+import huffman.HuffmanTable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.zip.CRC32C;
+import recurrence.IndexGenerator;
+
+/**
+ * Insertion et extraction en flux, du texte à la porteuse, sans chaîne de bits ni liste
+ * d'indices intermédiaire.
+ *
+ * À l'insertion, un fil lit le texte et l'encode avec un {@link HuffmanOutputStream} ; les bits
+ * passent par lots de {@link #TAILLE_LOT} octets dans une file bornée au fil appelant, qui tire
+ * les indices un par un du générateur et modifie la porteuse. À l'extraction, un fil lit les bits
+ * de la porteuse aux indices tirés et les passe par la même file au décodage Huffman en flux
+ * ({@link HuffmanInputStream}). La file ne garde que {@link #LOTS_EN_ATTENTE} lots : l'étage le
+ * plus rapide attend l'autre, et la mémoire ne dépend pas de la taille du texte.
+ *
+ * Les formats non compressés (WAV avec un en-tête de 44 octets comme {@link AudioSteganography},
+ * PCM brut, BMP, PGM/PPM) sont projetés en mémoire : l'insertion copie le fichier puis modifie la
+ * copie sur place. Une image PNG doit en revanche être décodée entièrement par ImageIO, puis
+ * réécrite ({@link StegoCarrier}).
+ *
+ * Les indices qui valent 0 sont sautés dans les deux sens, comme à l'extraction historique : un
+ * message inséré ici se relit avec {@link AudioSteganography#extraireMessage} ou
+ * {@link ImageSteganography#extraireMessage} sur les {@link Bilan#indicesTires()} premiers indices.
+ *
+ * Seule une permutation (feistel) garantit des indices distincts : avec une suite qui reboucle
+ * (lcg) ou un tirage avec remise (splitmix, xoshiro), un indice déjà utilisé reçoit le nouveau
+ * bit et l'ancien est perdu. {@link Bilan#bits()} compte alors les bits envoyés, pas ceux qui
+ * restent lisibles ; l'insertion compte ces réutilisations ({@link Bilan#reutilisations()}) avec
+ * une table d'un bit par position, comme {@link PayloadBatch}. Cette table coûte positions / 8
+ * octets (16 Mo pour 128 millions de positions) ; elle n'est pas allouée pour une permutation
+ * ({@link IndexGenerator#isPermutation()}), qui n'a rien à compter.
+ *
+ * Un générateur dégénéré (une suite lcg bloquée sur 0, ou qui ne revient que sur des positions
+ * déjà réservées) est détecté par {@link TirageIndices} : l'insertion ou l'extraction échoue au
+ * lieu de tourner sans fin. Un fil interrompu arrête aussi le tirage.
+ *
+ * Avec un {@link PayloadHeader}, l'insertion réserve les premières positions tirées (que les
+ * indices du message sautent ensuite) et y écrit, une fois le texte encodé, la longueur et le
+ * CRC32C du message ; l'extraction lit l'en-tête, s'arrête s'il est invalide, et sinon lit
+ * exactement la longueur annoncée en calculant le CRC au passage.
+ */
+public final class StegoPipeline {
+
+    /** Taille d'un lot de bits entre les deux étages, en octets. */
+    static final int TAILLE_LOT = 1 << 13;
+    static final int LOTS_EN_ATTENTE = 4;
+
+    private StegoPipeline() {
+    }
+
+    /**
+     * Encode le texte avec la table et cache ses bits dans une copie de la porteuse, écrite dans
+     * sortie ; si sortie est la porteuse elle-même, un format projeté est modifié sur place au lieu
+     * d'être tronqué puis recopié. Le flux texte n'est pas fermé.
+     */
+    public static Bilan cacher(Path porteuse, Path sortie, InputStream texte, HuffmanTable table,
+                               Alphabet alphabet, IndexGenerator indices) throws IOException {
+        return cacher(porteuse, sortie, texte, table, alphabet, indices, false);
+    }
+
+    /**
+     * Comme {@link #cacher}, précédé d'un {@link PayloadHeader} sur les premières positions : le
+     * message se relit alors sans connaître sa longueur, avec {@link #extraireAvecEnTete}.
+     */
+    public static Bilan cacherAvecEnTete(Path porteuse, Path sortie, InputStream texte, HuffmanTable table,
+                                         Alphabet alphabet, IndexGenerator indices) throws IOException {
+        return cacher(porteuse, sortie, texte, table, alphabet, indices, true);
+    }
+
+    private static Bilan cacher(Path porteuse, Path sortie, InputStream texte, HuffmanTable table,
+                                Alphabet alphabet, IndexGenerator indices, boolean avecEnTete) throws IOException {
+        try (StegoCarrier echantillons = StegoCarrier.ouvrir(porteuse, sortie)) {
+            return cacher(echantillons, texte, table, alphabet, indices, avecEnTete);
+        }
+    }
+
+    /**
+     * Comme {@link #cacher(Path, Path, InputStream, HuffmanTable, Alphabet, IndexGenerator)}, sur
+     * une porteuse déjà ouverte en écriture ; les modifications sont validées, la porteuse n'est
+     * pas fermée.
+     */
+    public static Bilan cacher(StegoCarrier echantillons, InputStream texte, HuffmanTable table,
+                               Alphabet alphabet, IndexGenerator indices, boolean avecEnTete) throws IOException {
+        TirageIndices tirage = new TirageIndices(indices);
+        // Les positions de l'en-tête sont réservées : il n'est écrit qu'une fois la longueur
+        // et le CRC du message connus, et les indices du message les sautent
+        long[] positionsEnTete = new long[avecEnTete ? PayloadHeader.TAILLE : 0];
+        for (int i = 0; i < positionsEnTete.length; i++) {
+            positionsEnTete[i] = tirage.reserver();
+        }
+        Etage etage = new Etage("stego-encodage", file -> {
+            LotsOutputStream lots = new LotsOutputStream(file);
+            HuffmanOutputStream encodeur = new HuffmanOutputStream(lots, table, alphabet);
+            texte.transferTo(encodeur);
+            encodeur.close();
+            lots.terminer(encodeur.bitsEcrits());
+        });
+        CRC32C crc = new CRC32C();
+        // Une permutation ne réutilise aucun indice : pas de table à tenir
+        long[] utilises = indices.isPermutation() ? null : new long[(int) ((echantillons.positions() + 63) >>> 6)];
+        long bits = 0;
+        long reutilisations = 0;
+        try {
+            Lot lot;
+            while ((lot = etage.prendre()) != Lot.FIN) {
+                for (int k = 0; k < lot.bits; k++) {
+                    long index = tirage.suivantNonNul();
+                    echantillons.ecrireLsb(index, (lot.octets[k >>> 3] >>> (7 - (k & 7))) & 1);
+                    if (utilises == null) continue;
+                    // L'indice est dans la porteuse : ecrireLsb l'a vérifié
+                    int mot = (int) (index >>> 6);
+                    if ((utilises[mot] & (1L << index)) != 0) {
+                        reutilisations++;
+                    }
+                    utilises[mot] |= 1L << index;
+                }
+                crc.update(lot.octets, 0, (lot.bits + 7) >>> 3);
+                bits += lot.bits;
+            }
+        } finally {
+            etage.arreter();
+        }
+        PayloadHeader enTete = null;
+        if (avecEnTete) {
+            enTete = PayloadHeader.nouveau(PayloadHeader.CODEUR_HUFFMAN, bits, (int) crc.getValue());
+            byte[] octets = enTete.versOctets();
+            for (int i = 0; i < positionsEnTete.length; i++) {
+                echantillons.ecrireLsb(positionsEnTete[i], (octets[i >>> 3] >>> (7 - (i & 7))) & 1);
+            }
+        }
+        echantillons.valider();
+        return new Bilan(bits, tirage.tires(), enTete, avecEnTete, reutilisations);
+    }
+
+    /**
+     * Lit les bits de poids faible aux nombreIndices premiers indices (sauf ceux qui valent 0) et
+     * les écrit dans sortie au format de {@link HuffmanOutputStream} : octets de poids fort en
+     * premier, puis un octet final donnant le nombre de bits de bourrage.
+     */
+    public static Bilan extraireBits(Path porteuse, IndexGenerator indices, long nombreIndices,
+                                     OutputStream sortie) throws IOException {
+        if (nombreIndices < 0) {
+            throw new IllegalArgumentException("Le nombre d'indices doit être positif ou nul");
+        }
+        return extraire(porteuse, indices, nombreIndices, bits -> bits.transferTo(sortie));
+    }
+
+    /**
+     * Extraction suivie du décodage Huffman en flux ; le texte décodé est écrit dans sortie.
+     */
+    public static Bilan extraire(Path porteuse, IndexGenerator indices, long nombreIndices,
+                                 HuffmanDecoder decodeur, Alphabet alphabet, OutputStream sortie) throws IOException {
+        if (nombreIndices < 0) {
+            throw new IllegalArgumentException("Le nombre d'indices doit être positif ou nul");
+        }
+        return extraire(porteuse, indices, nombreIndices,
+                        bits -> new HuffmanInputStream(bits, decodeur, alphabet).transferTo(sortie));
+    }
+
+    /**
+     * Lit d'abord l'en-tête, puis exactement le nombre de bits qu'il annonce (même format de
+     * sortie que {@link #extraireBits}). Les positions de l'en-tête ne sont pas relues pour le
+     * message. Si l'en-tête est invalide, rien n'est écrit (pas même l'octet de bourrage) et le
+     * bilan indique après combien de bits la lecture s'est arrêtée.
+     */
+    public static Bilan extraireAvecEnTete(Path porteuse, IndexGenerator indices, OutputStream sortie) throws IOException {
+        return extraire(porteuse, indices, -1, bits -> bits.transferTo(sortie));
+    }
+
+    public static Bilan extraireAvecEnTete(Path porteuse, IndexGenerator indices, HuffmanDecoder decodeur,
+                                           Alphabet alphabet, OutputStream sortie) throws IOException {
+        return extraire(porteuse, indices, -1,
+                        bits -> new HuffmanInputStream(bits, decodeur, alphabet).transferTo(sortie));
+    }
+
+    /**
+     * Extraction sur nombreIndices indices, ou guidée par l'en-tête si nombreIndices < 0.
+     */
+    private static Bilan extraire(Path porteuse, IndexGenerator indices, long nombreIndices,
+                                  Consommateur consommateur) throws IOException {
+        try (StegoCarrier echantillons = StegoCarrier.ouvrir(porteuse)) {
+            return extraire(echantillons, indices, nombreIndices, consommateur);
+        }
+    }
+
+    /**
+     * Comme {@link #extraireBits(Path, IndexGenerator, long, OutputStream)}, sur une porteuse déjà
+     * ouverte, qui n'est pas fermée.
+     */
+    public static Bilan extraireBits(StegoCarrier echantillons, IndexGenerator indices, long nombreIndices,
+                                     OutputStream sortie) throws IOException {
+        if (nombreIndices < 0) {
+            throw new IllegalArgumentException("Le nombre d'indices doit être positif ou nul");
+        }
+        return extraire(echantillons, indices, nombreIndices, bits -> bits.transferTo(sortie));
+    }
+
+    /**
+     * Comme {@link #extraireAvecEnTete(Path, IndexGenerator, OutputStream)}, sur une porteuse déjà
+     * ouverte, qui n'est pas fermée.
+     */
+    public static Bilan extraireAvecEnTete(StegoCarrier echantillons, IndexGenerator indices,
+                                           OutputStream sortie) throws IOException {
+        return extraire(echantillons, indices, -1, bits -> bits.transferTo(sortie));
+    }
+
+    private static Bilan extraire(StegoCarrier echantillons, IndexGenerator indices, long nombreIndices,
+                          Consommateur consommateur) throws IOException {
+        boolean avecEnTete = nombreIndices < 0;
+        TirageIndices tirage = new TirageIndices(indices);
+        EtatExtraction etat = new EtatExtraction();
+        Etage etage = new Etage("stego-extraction", file -> {
+            long limite = nombreIndices;
+            if (avecEnTete) {
+                etat.enTete = PayloadHeader.lire(() -> echantillons.lireLsb(tirage.reserver()), indices.maxSize());
+                if (!etat.enTete.estValide()) {
+                    // Ni données ni octet de bourrage : le consommateur ne reçoit rien
+                    Etage.envoyer(file, Lot.FIN);
+                    return;
+                }
+                limite = etat.enTete.longueur();
+            }
+            byte[] octets = new byte[TAILLE_LOT];
+            int n = 0;
+            for (long i = 0; i < limite; i++) {
+                if ((i & 0xFFFF) == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                long index;
+                if (avecEnTete) {
+                    index = tirage.suivantNonNul();
+                } else if ((index = tirage.suivant()) == 0) {
+                    continue;
+                }
+                if (n == 8 * TAILLE_LOT) {
+                    etat.crc.update(octets, 0, TAILLE_LOT);
+                    Etage.envoyer(file, new Lot(octets, n));
+                    octets = new byte[TAILLE_LOT];
+                    n = 0;
+                }
+                octets[n >>> 3] |= (byte) (echantillons.lireLsb(index) << (7 - (n & 7)));
+                n++;
+                etat.bits++;
+            }
+            etat.crc.update(octets, 0, (n + 7) >>> 3);
+            Etage.envoyer(file, new Lot(octets, n));
+            Etage.envoyer(file, Lot.FIN);
+        });
+        try {
+            consommateur.consommer(new LotsInputStream(etage));
+        } finally {
+            etage.arreter();
+        }
+        boolean crcValide = etat.enTete != null && etat.enTete.estValide()
+            && etat.enTete.crc() == (int) etat.crc.getValue();
+        return new Bilan(etat.bits, tirage.tires(), etat.enTete, crcValide, 0);
+    }
+
+    /** Résultats du fil d'extraction, lus après sa fin. */
+    private static final class EtatExtraction {
+        final CRC32C crc = new CRC32C();
+        long bits;
+        PayloadHeader enTete;
+    }
+
+    /**
+     * Ce que l'opération a traité : bits du message insérés ou extraits, indices tirés du
+     * générateur (indices 0 et en-tête compris), indices réutilisés à l'insertion et, le cas
+     * échéant, l'en-tête.
+     */
+    public static final class Bilan {
+
+        private final long bits;
+        private final long indicesTires;
+        private final PayloadHeader enTete;
+        private final boolean crcValide;
+        private final long reutilisations;
+
+        Bilan(long bits, long indicesTires, PayloadHeader enTete, boolean crcValide, long reutilisations) {
+            this.bits = bits;
+            this.indicesTires = indicesTires;
+            this.enTete = enTete;
+            this.crcValide = crcValide;
+            this.reutilisations = reutilisations;
+        }
+
+        public long bits() {
+            return bits;
+        }
+
+        public long indicesTires() {
+            return indicesTires;
+        }
+
+        /** En-tête écrit ou lu, null sans en-tête. */
+        public PayloadHeader enTete() {
+            return enTete;
+        }
+
+        /** Le CRC32C des bits extraits est celui annoncé par un en-tête valide. */
+        public boolean crcValide() {
+            return crcValide;
+        }
+
+        /**
+         * Bits du message écrits sur un indice déjà utilisé par le message, dont le bit précédent
+         * est perdu (0 pour une permutation et à l'extraction).
+         */
+        public long reutilisations() {
+            return reutilisations;
+        }
+
+        @Override
+        public String toString() {
+            String resume = bits + " bits, " + indicesTires + " indices tirés";
+            if (reutilisations > 0) resume += ", " + reutilisations + " indices réutilisés";
+            if (enTete == null) return resume;
+            return resume + ", " + enTete + (enTete.estValide() && !crcValide ? ", CRC32C faux" : "");
+        }
+    }
+
+    /**
+     * Tire les indices un par un, sans en calculer d'avance (une permutation ne peut pas être
+     * lue au-delà de sa taille) ; suivantNonNul() saute les indices 0 et les positions réservées
+     * à l'en-tête par reserver(), pour qu'aucun bit du message ne l'écrase. Sert aussi aux
+     * charges de {@link PayloadBatch}.
+     *
+     * Au-delà de rejetsMax tirages rejetés de suite, le générateur est déclaré dégénéré
+     * (IllegalArgumentException) : une suite qui ne donne plus que 0 ou des positions réservées,
+     * ou qui atteint moins de positions que l'en-tête n'en demande, ne fait pas tourner le fil
+     * sans fin. La borne vaut le nombre de positions, au moins 2^16 : un tirage avec remise sur
+     * une petite porteuse presque toute réservée ne l'atteint pas par hasard. Le tirage s'arrête
+     * aussi (CancellationException) quand le fil est interrompu.
+     */
+    static final class TirageIndices {
+        private final IndexGenerator generateur;
+        private final long rejetsMax;
+        private long tires;
+        /** Positions de l'en-tête, triées sur les nombreReservees premières cases. */
+        private final long[] reservees = new long[PayloadHeader.TAILLE];
+        private int nombreReservees;
+
+        TirageIndices(IndexGenerator generateur) {
+            this.generateur = generateur;
+            this.rejetsMax = Math.max(generateur.maxSize(), 1L << 16);
+        }
+
+        long suivant() {
+            tires++;
+            return generateur.nextIndex();
+        }
+
+        long suivantNonNul() {
+            long index = suivant();
+            for (long rejets = 1; index == 0 || Arrays.binarySearch(reservees, 0, nombreReservees, index) >= 0; rejets++) {
+                if (rejets == rejetsMax) {
+                    throw new IllegalArgumentException("Générateur dégénéré : " + rejets + " tirages de suite sur 0"
+                                                       + " ou sur une position réservée (" + generateur.descriptor() + ")");
+                }
+                if ((rejets & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Tirage des indices interrompu");
+                }
+                index = suivant();
+            }
+            return index;
+        }
+
+        /** Tire la prochaine position de l'en-tête et la réserve. */
+        long reserver() {
+            long index = suivantNonNul();
+            int place = -Arrays.binarySearch(reservees, 0, nombreReservees, index) - 1;
+            System.arraycopy(reservees, place, reservees, place + 1, nombreReservees - place);
+            reservees[place] = index;
+            nombreReservees++;
+            return index;
+        }
+
+        long tires() {
+            return tires;
+        }
+    }
+
+    /** Bits d'un lot, rangés poids fort en premier. */
+    private static final class Lot {
+        static final Lot FIN = new Lot(new byte[0], 0);
+
+        final byte[] octets;
+        final int bits;
+        final Throwable erreur;
+
+        Lot(byte[] octets, int bits) {
+            this(octets, bits, null);
+        }
+
+        private Lot(byte[] octets, int bits, Throwable erreur) {
+            this.octets = octets;
+            this.bits = bits;
+            this.erreur = erreur;
+        }
+
+        static Lot echec(Throwable erreur) {
+            return new Lot(null, 0, erreur);
+        }
+    }
+
+    private interface Producteur {
+        void produire(BlockingQueue<Lot> file) throws IOException, InterruptedException;
+    }
+
+    private interface Consommateur {
+        void consommer(InputStream bits) throws IOException;
+    }
+
+    /**
+     * Étage producteur sur son propre fil, relié au fil appelant par une file bornée. Une erreur
+     * du producteur est transmise dans la file et relancée par prendre().
+     */
+    private static final class Etage {
+        private final BlockingQueue<Lot> file = new ArrayBlockingQueue<>(LOTS_EN_ATTENTE);
+        private final Thread fil;
+
+        Etage(String nom, Producteur producteur) {
+            fil = new Thread(() -> {
+                try {
+                    producteur.produire(file);
+                } catch (InterruptedException e) {
+                    // Arrêt demandé par le consommateur
+                } catch (Throwable e) {
+                    file.clear();
+                    file.offer(Lot.echec(e));
+                }
+            }, nom);
+            fil.setDaemon(true);
+            fil.start();
+        }
+
+        static void envoyer(BlockingQueue<Lot> file, Lot lot) throws InterruptedException {
+            file.put(lot);
+        }
+
+        Lot prendre() throws IOException {
+            Lot lot;
+            try {
+                lot = file.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Traitement en flux interrompu");
+            }
+            if (lot.erreur != null) {
+                if (lot.erreur instanceof IOException) throw (IOException) lot.erreur;
+                if (lot.erreur instanceof RuntimeException) throw (RuntimeException) lot.erreur;
+                if (lot.erreur instanceof Error) throw (Error) lot.erreur;
+                throw new IOException(lot.erreur);
+            }
+            return lot;
+        }
+
+        /**
+         * Arrête le producteur s'il tourne encore et attend sa fin, même si le fil appelant est
+         * interrompu : la porteuse n'est fermée qu'une fois le producteur arrêté.
+         */
+        void arreter() throws IOException {
+            fil.interrupt();
+            boolean interrompu = false;
+            while (true) {
+                try {
+                    fil.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrompu = true;
+                }
+            }
+            if (interrompu) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Traitement en flux interrompu");
+            }
+        }
+    }
+
+    /**
+     * Reçoit les octets du codeur Huffman et les envoie par lots. Les deux derniers octets reçus
+     * sont gardés : l'octet final de bourrage et le dernier octet de données, incomplet, ne sont
+     * envoyés qu'avec le nombre exact de bits, connu à la fermeture du codeur.
+     */
+    private static final class LotsOutputStream extends OutputStream {
+        private final BlockingQueue<Lot> file;
+        private final byte[] courant = new byte[TAILLE_LOT + 2];
+        private int remplissage;
+        private long bitsEnvoyes;
+
+        LotsOutputStream(BlockingQueue<Lot> file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (remplissage == courant.length) expedier();
+            courant[remplissage++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (remplissage == courant.length) expedier();
+                int copie = Math.min(len, courant.length - remplissage);
+                System.arraycopy(b, off, courant, remplissage, copie);
+                remplissage += copie;
+                off += copie;
+                len -= copie;
+            }
+        }
+
+        private void expedier() throws IOException {
+            envoyer(new Lot(Arrays.copyOf(courant, TAILLE_LOT), 8 * TAILLE_LOT));
+            bitsEnvoyes += 8L * TAILLE_LOT;
+            courant[0] = courant[TAILLE_LOT];
+            courant[1] = courant[TAILLE_LOT + 1];
+            remplissage = 2;
+        }
+
+        void terminer(long bitsEcrits) throws IOException {
+            envoyer(new Lot(Arrays.copyOf(courant, remplissage), (int) (bitsEcrits - bitsEnvoyes)));
+            envoyer(Lot.FIN);
+        }
+
+        private void envoyer(Lot lot) throws IOException {
+            try {
+                Etage.envoyer(file, lot);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Traitement en flux interrompu");
+            }
+        }
+    }
+
+    /**
+     * Relit les lots d'un étage au format de {@link HuffmanOutputStream} : octets de données, puis
+     * l'octet de bourrage. Un étage qui s'arrête sans aucun lot (en-tête invalide) donne un flux
+     * vide.
+     */
+    private static final class LotsInputStream extends InputStream {
+        private final Etage etage;
+        private Lot lot;
+        private int lecture;
+        private int fin;
+        private int bourrage = -1;
+        private boolean termine;
+
+        LotsInputStream(Etage etage) {
+            this.etage = etage;
+        }
+
+        private boolean avancer() throws IOException {
+            while (lecture == fin) {
+                if (termine) return false;
+                Lot suivant = etage.prendre();
+                if (suivant == Lot.FIN) {
+                    termine = true;
+                    if (bourrage < 0) return false;
+                    lot = new Lot(new byte[] {(byte) bourrage}, 8);
+                } else {
+                    lot = suivant;
+                    bourrage = (8 - (lot.bits & 7)) & 7;
+                }
+                lecture = 0;
+                fin = (lot.bits + 7) >>> 3;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return avancer() ? lot.octets[lecture++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!avancer()) return -1;
+            int copie = Math.min(len, fin - lecture);
+            System.arraycopy(lot.octets, lecture, b, off, copie);
+            lecture += copie;
+            return copie;
+        }
+    }
+}
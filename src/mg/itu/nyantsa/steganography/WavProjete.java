@@ -0,0 +1,59 @@
+package steganography;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Données d'un WAV projetées en mémoire ; l'échantillon i commence à l'octet
+ * 44 + i * octetsParEchantillon, et son bit de poids faible est dans ce premier octet
+ * (petit-boutiste).
+ */
+final class WavProjete extends FichierProjete {
+    private final int octetsParEchantillon;
+    private final long nombre;
+    private final long capacite;
+
+    static final int TAILLE_ENTETE_WAV = 44;
+
+    WavProjete(Path fichier, boolean ecriture) throws IOException {
+        super(fichier, ecriture);
+        try {
+            if (taille < TAILLE_ENTETE_WAV) {
+                throw new IOException("Fichier WAV trop court : " + fichier);
+            }
+            int bitsPerSample = u16le(34);
+            if (bitsPerSample != 8 && bitsPerSample != 16 && bitsPerSample != 24 && bitsPerSample != 32) {
+                throw new UnsupportedOperationException("Résolution non supportée : " + bitsPerSample + " bits");
+            }
+            octetsParEchantillon = bitsPerSample / 8;
+            long donnees = taille - TAILLE_ENTETE_WAV;
+            if (donnees % octetsParEchantillon != 0) {
+                throw new IllegalArgumentException("Données audio corrompues : taille non divisible par bytesPerSample");
+            }
+            nombre = donnees / octetsParEchantillon;
+            // Avec l'en-tête canonique, AudioSystem compte la taille du bloc "data" divisée par la
+            // taille d'un échantillon ; sinon on lui laisse le soin de trouver le bloc
+            capacite = octet(36) == 'd' && octet(37) == 'a' && octet(38) == 't' && octet(39) == 'a'
+                ? u32le(40) / octetsParEchantillon
+                : AudioSteganography.getSampleCount(fichier.toString());
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    long decalage(long index) {
+        return TAILLE_ENTETE_WAV + index * octetsParEchantillon;
+    }
+
+    @Override
+    public long capacite() {
+        return capacite;
+    }
+
+    @Override
+    public long positions() {
+        return nombre;
+    }
+}
@@ -0,0 +1,170 @@
+package steganography;
+
+import java.nio.ByteOrder;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyau vectoriel (jdk.incubator.vector) pour les pas de 1 et 2 octets : les bits de poids
+ * faible d'un vecteur d'échantillons sont rassemblés en une fois dans un long ; à l'écriture,
+ * un masque est construit depuis le long et posé sur les échantillons (et / ou masqué).
+ *
+ * Ce fichier est dans une racine de sources à part (src/vector) : il ne compile qu'avec
+ * --add-modules jdk.incubator.vector, et n'est chargé que par réflexion par
+ * {@link LsbKernels} quand le module est présent à l'exécution.
+ */
+final class VectorLsbKernel implements LsbKernel {
+
+    private static final VectorSpecies<Byte> OCTETS = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> ECHANTILLONS16 = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> OCTETS_DEMI =
+        VectorSpecies.of(byte.class, VectorShape.forBitSize(ECHANTILLONS16.vectorBitSize() / 2));
+
+    private static final long GATHER_BITS = 0x8040201008040201L;
+    private static final LongVector DECALAGES = decalages(OCTETS);
+    private static final LongVector DECALAGES_DEMI = decalages(OCTETS_DEMI);
+
+    private final LsbKernel scalaire = new ScalarLsbKernel();
+
+    VectorLsbKernel() {
+        if (64 % OCTETS.length() != 0 || 64 % ECHANTILLONS16.length() != 0) {
+            throw new UnsupportedOperationException("Largeur de vecteur non prise en charge : " + OCTETS.length());
+        }
+    }
+
+    @Override
+    public String nom() {
+        return "vectoriel";
+    }
+
+    @Override
+    public void extraire(byte[] data, int debut, int pas, int n, long[] mots, int premierMot) {
+        int complets = 0;
+        if (pas == 1) {
+            complets = extraireOctets(data, debut, n, mots, premierMot);
+        } else if (pas == 2) {
+            complets = extraire16(data, debut, n, mots, premierMot);
+        }
+        int fait = complets << 6;
+        if (fait < n) {
+            scalaire.extraire(data, debut + fait * pas, pas, n - fait, mots, premierMot + complets);
+        }
+    }
+
+    @Override
+    public void cacher(byte[] data, int debut, int pas, int n, long[] mots, int premierMot) {
+        int complets = 0;
+        if (pas == 1) {
+            complets = cacherOctets(data, debut, n, mots, premierMot);
+        } else if (pas == 2) {
+            complets = cacher16(data, debut, n, mots, premierMot);
+        }
+        int fait = complets << 6;
+        if (fait < n) {
+            scalaire.cacher(data, debut + fait * pas, pas, n - fait, mots, premierMot + complets);
+        }
+    }
+
+    /*
+     * Extraction : chaque groupe de 8 octets est réduit à un octet par une multiplication (le bit
+     * de l'octet k arrive en position 63 - k, sans retenue), puis les octets sont décalés à leur
+     * place dans le mot et réunis par un OU. Le masque d'une comparaison donnerait directement
+     * ces bits, mais VectorMask.toLong n'est pas compilé en une instruction sur le JDK 17.
+     * Les boucles sont écrites en entier dans chaque méthode pour rester dans une seule unité de
+     * compilation.
+     */
+
+    /** Traite les mots complets d'un pas de 1 octet ; renvoie leur nombre. */
+    private int extraireOctets(byte[] data, int debut, int n, long[] mots, int premierMot) {
+        int complets = n >>> 6;
+        int largeur = OCTETS.length();
+        for (int w = 0; w < complets; w++) {
+            int base = debut + (w << 6);
+            long mot = 0;
+            for (int k = 0; k < 64; k += largeur) {
+                mot |= ByteVector.fromArray(OCTETS, data, base + k)
+                    .and((byte) 1).reinterpretAsLongs()
+                    .lanewise(VectorOperators.MUL, GATHER_BITS)
+                    .lanewise(VectorOperators.LSHR, 56)
+                    .lanewise(VectorOperators.LSHL, DECALAGES)
+                    .reduceLanes(VectorOperators.OR) >>> k;
+            }
+            mots[premierMot + w] = mot;
+        }
+        return complets;
+    }
+
+    /** Traite les mots complets d'un pas de 2 octets (PCM 16 bits little-endian). */
+    private int extraire16(byte[] data, int debut, int n, long[] mots, int premierMot) {
+        int complets = n >>> 6;
+        int largeur = ECHANTILLONS16.length();
+        for (int w = 0; w < complets; w++) {
+            int base = debut + (w << 7);
+            long mot = 0;
+            for (int k = 0; k < 64; k += largeur) {
+                ByteVector octets = (ByteVector) ShortVector
+                    .fromByteArray(ECHANTILLONS16, data, base + 2 * k, ByteOrder.LITTLE_ENDIAN)
+                    .convertShape(VectorOperators.S2B, OCTETS_DEMI, 0);
+                mot |= octets.and((byte) 1).reinterpretAsLongs()
+                    .lanewise(VectorOperators.MUL, GATHER_BITS)
+                    .lanewise(VectorOperators.LSHR, 56)
+                    .lanewise(VectorOperators.LSHL, DECALAGES_DEMI)
+                    .reduceLanes(VectorOperators.OR) >>> k;
+            }
+            mots[premierMot + w] = mot;
+        }
+        return complets;
+    }
+
+    private int cacherOctets(byte[] data, int debut, int n, long[] mots, int premierMot) {
+        int complets = n >>> 6;
+        int largeur = OCTETS.length();
+        for (int w = 0; w < complets; w++) {
+            int base = debut + (w << 6);
+            long bits = Long.reverse(mots[premierMot + w]);
+            for (int k = 0; k < 64; k += largeur) {
+                VectorMask<Byte> uns = VectorMask.fromLong(OCTETS, bits >>> k);
+                ByteVector.fromArray(OCTETS, data, base + k)
+                    .and((byte) 0xFE)
+                    .lanewise(VectorOperators.OR, (byte) 1, uns)
+                    .intoArray(data, base + k);
+            }
+        }
+        return complets;
+    }
+
+    private int cacher16(byte[] data, int debut, int n, long[] mots, int premierMot) {
+        int complets = n >>> 6;
+        int largeur = ECHANTILLONS16.length();
+        for (int w = 0; w < complets; w++) {
+            int base = debut + (w << 7);
+            long bits = Long.reverse(mots[premierMot + w]);
+            for (int k = 0; k < 64; k += largeur) {
+                VectorMask<Short> uns = VectorMask.fromLong(ECHANTILLONS16, bits >>> k);
+                int offset = base + 2 * k;
+                ShortVector.fromByteArray(ECHANTILLONS16, data, offset, ByteOrder.LITTLE_ENDIAN)
+                    .and((short) ~1)
+                    .lanewise(VectorOperators.OR, (short) 1, uns)
+                    .intoByteArray(data, offset, ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return complets;
+    }
+
+    /**
+     * Décalage de l'octet obtenu pour chaque groupe de 8 octets : 56 pour le premier, puis 48, etc.
+     */
+    private static LongVector decalages(VectorSpecies<Byte> octets) {
+        VectorSpecies<Long> espece = VectorSpecies.of(long.class, octets.vectorShape());
+        long[] valeurs = new long[espece.length()];
+        for (int i = 0; i < valeurs.length; i++) {
+            valeurs[i] = 56 - 8 * i;
+        }
+        return LongVector.fromArray(espece, valeurs, 0);
+    }
+}